@@ -0,0 +1,171 @@
+/**
+ * Copyright 2012-2013 University Of Southern California
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.workflowsim.examples.benchmark;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.cloudbus.cloudsim.Log;
+import org.workflowsim.WorkflowParser;
+import org.workflowsim.utils.ClusteringParameters;
+import org.workflowsim.utils.OverheadParameters;
+import org.workflowsim.utils.Parameters;
+import org.workflowsim.utils.ReplicaCatalog;
+
+/**
+ * This benchmark parses DAX files with every DAX parser (see
+ * Parameters.DaxParser) and reports the average parse time and the heap
+ * allocated by a parse. The allocated bytes bound the peak heap a parse needs
+ * (the JVM only samples the peak usage of the memory pools at garbage
+ * collections, which is too coarse for a parse). They are read from the HotSpot
+ * thread bean, so they are reported as -1 on other JVMs. The CACHE rows load
+ * the compiled workflows written by WorkflowCache in a temporary directory.
+ *
+ * Usage: DaxParserBenchmark [dax files...]. By default it uses the 1000-job
+ * workflows in config/dax.
+ *
+ * @since WorkflowSim Toolkit 1.1
+ * @date Oct 18, 2026
+ */
+public class DaxParserBenchmark {
+
+    /**
+     * The number of parses that are not measured
+     */
+    private static final int WARMUP = 5;
+    /**
+     * The number of measured parses
+     */
+    private static final int ROUNDS = 10;
+
+    public static void main(String[] args) {
+        List<String> daxPaths = new ArrayList<>(Arrays.asList(args));
+        if (daxPaths.isEmpty()) {
+            daxPaths.add("config/dax/Montage_1000.xml");
+            daxPaths.add("config/dax/CyberShake_1000.xml");
+            daxPaths.add("config/dax/Inspiral_1000.xml");
+            daxPaths.add("config/dax/Epigenomics_997.xml");
+        }
+        try {
+            File cacheDir = Files.createTempDirectory("wfc").toFile();
+            cacheDir.deleteOnExit();
+            Log.printLine("Workflow                  Parser    Tasks      Time(ms)     Alloc(MB)");
+            for (String daxPath : daxPaths) {
+                if (!new File(daxPath).exists()) {
+                    Log.printLine("Warning: " + daxPath + " does not exist");
+                    continue;
+                }
+                for (Parameters.DaxParser parser : Parameters.DaxParser.values()) {
+                    run(daxPath, parser, null, parser.toString());
+                }
+                // the first parse writes the compiled workflow, the others load it
+                run(daxPath, Parameters.DaxParser.STAX, cacheDir.getPath(), "CACHE");
+                for (File file : cacheDir.listFiles()) {
+                    file.deleteOnExit();
+                }
+            }
+        } catch (Exception e) {
+            Log.enable();
+            Log.printLine("The benchmark has been terminated due to an unexpected error");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Measures the parsing of a DAX file and prints the results
+     *
+     * @param daxPath the DAX file
+     * @param parser the parser
+     * @param cacheDir the workflow cache directory, null if not cached
+     * @param label the name of the configuration
+     */
+    private static void run(String daxPath, Parameters.DaxParser parser, String cacheDir, String label) {
+        Log.disable();
+        int tasks = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            tasks = parse(daxPath, parser, cacheDir).getTaskList().size();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            parse(daxPath, parser, cacheDir);
+        }
+        double elapsed = (System.nanoTime() - start) / 1e6 / ROUNDS;
+
+        double allocated = measureHeap(daxPath, parser, cacheDir);
+        Log.enable();
+        Log.formatLine("%-25s %-8s %6d %13.2f %13.2f",
+                new File(daxPath).getName(), label, tasks, elapsed, allocated);
+    }
+
+    /**
+     * Parses a DAX file
+     *
+     * @param daxPath the DAX file
+     * @param parser the parser
+     * @param cacheDir the workflow cache directory, null if not cached
+     * @return the parser, holding the tasks
+     */
+    private static WorkflowParser parse(String daxPath, Parameters.DaxParser parser, String cacheDir) {
+        OverheadParameters op = new OverheadParameters(0, null, null, null, null, 0);
+        ClusteringParameters cp = new ClusteringParameters(0, 0, ClusteringParameters.ClusteringMethod.NONE, null);
+        Parameters.init(1, daxPath, null, null, op, cp,
+                Parameters.SchedulingAlgorithm.STATIC, Parameters.PlanningAlgorithm.INVALID,
+                null, 0);
+        Parameters.setDaxParser(parser);
+        Parameters.setWorkflowCacheDir(cacheDir);
+        ReplicaCatalog.init(ReplicaCatalog.FileSystem.SHARED);
+        WorkflowParser wfParser = new WorkflowParser(0);
+        wfParser.parse();
+        return wfParser;
+    }
+
+    /**
+     * Parses a DAX file once more and measures the heap it allocates
+     *
+     * @param daxPath the DAX file
+     * @param parser the parser
+     * @param cacheDir the workflow cache directory, null if not cached
+     * @return the MB allocated, -1 if unknown
+     */
+    private static double measureHeap(String daxPath, Parameters.DaxParser parser, String cacheDir) {
+        long before = allocatedBytes();
+        parse(daxPath, parser, cacheDir);
+        long after = allocatedBytes();
+        if (before < 0) {
+            return -1.0;
+        }
+        return (after - before) / 1024.0 / 1024.0;
+    }
+
+    /**
+     * Gets the bytes allocated by the current thread so far
+     *
+     * @return the allocated bytes, or -1 if the JVM does not count them
+     */
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean hotspot = (com.sun.management.ThreadMXBean) bean;
+            if (hotspot.isThreadAllocatedMemorySupported()) {
+                return hotspot.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,126 @@
+/**
+ * Copyright 2012-2013 University Of Southern California
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.workflowsim.examples.benchmark;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.List;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.FutureQueueType;
+import org.workflowsim.CondorVM;
+import org.workflowsim.WorkflowDatacenter;
+import org.workflowsim.WorkflowEngine;
+import org.workflowsim.WorkflowPlanner;
+import org.workflowsim.examples.WorkflowSimBasicExample1;
+import org.workflowsim.utils.ClusteringParameters;
+import org.workflowsim.utils.OverheadParameters;
+import org.workflowsim.utils.Parameters;
+import org.workflowsim.utils.ReplicaCatalog;
+
+/**
+ * This benchmark replays the event streams of complete WorkflowSim runs with
+ * every implementation of the future event queue (see FutureQueueType) and
+ * reports the average wall time of a simulation. Each workflow is simulated
+ * with 20 VMs and the MINMIN scheduler, which generates one scheduling round
+ * per returned job.
+ *
+ * Usage: FutureQueueBenchmark [dax files...]. By default it uses the 1000-job
+ * workflows in config/dax.
+ *
+ * @since WorkflowSim Toolkit 1.1
+ * @date Oct 18, 2026
+ */
+public class FutureQueueBenchmark extends WorkflowSimBasicExample1 {
+
+    /**
+     * The number of runs that are not measured
+     */
+    private static final int WARMUP = 3;
+    /**
+     * The number of measured runs
+     */
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        List<String> daxPaths = new ArrayList<>(Arrays.asList(args));
+        if (daxPaths.isEmpty()) {
+            daxPaths.add("config/dax/Montage_1000.xml");
+            daxPaths.add("config/dax/CyberShake_1000.xml");
+            daxPaths.add("config/dax/Inspiral_1000.xml");
+        }
+        try {
+            Log.printLine("Workflow                  Queue       Makespan      Time(ms)");
+            for (String daxPath : daxPaths) {
+                if (!new File(daxPath).exists()) {
+                    Log.printLine("Warning: " + daxPath + " does not exist");
+                    continue;
+                }
+                for (FutureQueueType type : FutureQueueType.values()) {
+                    Log.disable();
+                    double makespan = 0.0;
+                    for (int i = 0; i < WARMUP; i++) {
+                        makespan = simulate(daxPath, type);
+                    }
+                    long start = System.nanoTime();
+                    for (int i = 0; i < ROUNDS; i++) {
+                        simulate(daxPath, type);
+                    }
+                    double elapsed = (System.nanoTime() - start) / 1e6 / ROUNDS;
+                    Log.enable();
+                    Log.formatLine("%-25s %-10s %10.2f %12.2f",
+                            new File(daxPath).getName(), type, makespan, elapsed);
+                }
+            }
+        } catch (Exception e) {
+            Log.enable();
+            Log.printLine("The benchmark has been terminated due to an unexpected error");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Runs one simulation of a workflow
+     *
+     * @param daxPath the DAX file
+     * @param type the future queue implementation
+     * @return the simulation clock at the end of the run
+     */
+    private static double simulate(String daxPath, FutureQueueType type) throws Exception {
+        OverheadParameters op = new OverheadParameters(0, null, null, null, null, 0);
+        ClusteringParameters cp = new ClusteringParameters(0, 0, ClusteringParameters.ClusteringMethod.NONE, null);
+        Parameters.init(20, daxPath, null, null, op, cp,
+                Parameters.SchedulingAlgorithm.MINMIN, Parameters.PlanningAlgorithm.INVALID,
+                null, 0);
+        ReplicaCatalog.init(ReplicaCatalog.FileSystem.SHARED);
+
+        CloudSim.setFutureQueueType(type);
+        CloudSim.init(1, Calendar.getInstance(), false);
+
+        WorkflowDatacenter datacenter0 = createDatacenter("Datacenter_0");
+        WorkflowPlanner wfPlanner = new WorkflowPlanner("planner_0", 1);
+        WorkflowEngine wfEngine = wfPlanner.getWorkflowEngine();
+        List<CondorVM> vmlist0 = createVM(wfEngine.getSchedulerId(0), Parameters.getVmNum());
+        wfEngine.submitVmList(vmlist0, 0);
+        wfEngine.bindSchedulerDatacenter(datacenter0.getId(), 0);
+
+        double makespan = CloudSim.startSimulation();
+        CloudSim.stopSimulation();
+        return makespan;
+    }
+}
@@ -0,0 +1,177 @@
+/**
+ * Copyright 2012-2013 University Of Southern California
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.workflowsim.examples.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.cloudbus.cloudsim.Log;
+import org.workflowsim.Task;
+import org.workflowsim.clustering.TaskSet;
+import org.workflowsim.clustering.balancing.methods.HorizontalDistanceBalancing;
+
+/**
+ * This benchmark merges one wide level of a synthetic workflow with
+ * HorizontalDistanceBalancing. The level has the given number of taskSets;
+ * taskSet i has the given number of consecutive children starting at child
+ * i % width, so the taskSets with the same children form width classes. The
+ * children have two children each among width / 10 taskSets, which all have
+ * one common child. It reports the time to merge the level, the bytes
+ * allocated by the current thread and the heap retained by the balancing
+ * once the level is merged (the descendants it keeps until the next level).
+ *
+ * Usage: HorizontalDistanceBenchmark [sets width fanout]. By default it
+ * merges levels of 10000, 20000 and 50000 taskSets with 500 classes and 8
+ * children per taskSet into 20 jobs.
+ *
+ * @since WorkflowSim Toolkit 1.1
+ * @date Oct 18, 2026
+ */
+public class HorizontalDistanceBenchmark {
+
+    /**
+     * The number of jobs of the level
+     */
+    private static final int CLUSTERS = 20;
+    /**
+     * The balancings, kept alive so that the heap they retain is measured
+     */
+    private static final List<HorizontalDistanceBalancing> BALANCINGS = new ArrayList<>();
+
+    public static void main(String[] args) {
+        int[][] inputs = {{10000, 500, 8}, {20000, 500, 8}, {50000, 500, 8}};
+        if (args.length >= 3) {
+            inputs = new int[][]{{Integer.parseInt(args[0]), Integer.parseInt(args[1]),
+                Integer.parseInt(args[2])}};
+        }
+        Log.disable();
+        List<String> lines = new ArrayList<>();
+        for (int[] input : inputs) {
+            Map<Task, TaskSet> taskMap = new HashMap<>();
+            List<TaskSet> level = createLevel(input[0], input[1], input[2], taskMap);
+            Map<Integer, List<TaskSet>> levelMap = new HashMap<>();
+            levelMap.put(0, level);
+            HorizontalDistanceBalancing balancing = new HorizontalDistanceBalancing(levelMap, taskMap, CLUSTERS);
+            BALANCINGS.add(balancing);
+
+            long heap = usedHeap();
+            long bytes = allocatedBytes();
+            long start = System.nanoTime();
+            balancing.process(new ArrayList<>(level));
+            double elapsed = (System.nanoTime() - start) / 1e6;
+            long allocated = allocatedBytes() - bytes;
+            long retained = usedHeap() - heap;
+            lines.add(String.format("%-8d %-6d %-7d %10.1f %14d %13d", input[0], input[1], input[2],
+                    elapsed, allocated, retained));
+        }
+        Log.enable();
+        Log.printLine("Sets     Width  Fanout    Time(ms)  Allocated(B)   Retained(B)");
+        for (String line : lines) {
+            Log.printLine(line);
+        }
+    }
+
+    /**
+     * Creates the level to merge and the levels below it
+     *
+     * @param sets the number of taskSets of the level
+     * @param width the number of children of the level
+     * @param fanout the number of children of a taskSet
+     * @param taskMap the taskSet of each task
+     * @return the taskSets of the level
+     */
+    private static List<TaskSet> createLevel(int sets, int width, int fanout, Map<Task, TaskSet> taskMap) {
+        int id = 0;
+        TaskSet sink = createTaskSet(id++, taskMap);
+        List<TaskSet> grandchildren = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, width / 10); i++) {
+            TaskSet set = createTaskSet(id++, taskMap);
+            link(set, sink);
+            grandchildren.add(set);
+        }
+        List<TaskSet> children = new ArrayList<>();
+        for (int i = 0; i < width; i++) {
+            TaskSet set = createTaskSet(id++, taskMap);
+            link(set, grandchildren.get(i % grandchildren.size()));
+            link(set, grandchildren.get((i + 1) % grandchildren.size()));
+            children.add(set);
+        }
+        List<TaskSet> level = new ArrayList<>();
+        for (int i = 0; i < sets; i++) {
+            TaskSet set = createTaskSet(id++, taskMap);
+            for (int k = 0; k < Math.min(fanout, width); k++) {
+                link(set, children.get((i + k) % width));
+            }
+            level.add(set);
+        }
+        return level;
+    }
+
+    /**
+     * Creates a taskSet of one task
+     *
+     * @param id the id of the task
+     * @param taskMap the taskSet of each task
+     * @return the taskSet
+     */
+    private static TaskSet createTaskSet(int id, Map<Task, TaskSet> taskMap) {
+        Task task = new Task(id, 1000 + id % 100, 1);
+        TaskSet set = new TaskSet();
+        set.addTask(task);
+        taskMap.put(task, set);
+        return set;
+    }
+
+    /**
+     * Adds a dependency between two taskSets
+     *
+     * @param parent the parent
+     * @param child the child
+     */
+    private static void link(TaskSet parent, TaskSet child) {
+        parent.getChildList().add(child);
+        child.getParentList().add(parent);
+    }
+
+    /**
+     * Gets the heap in use after a garbage collection
+     *
+     * @return the number of bytes
+     */
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * Gets the number of bytes allocated by the current thread so far, if the
+     * JVM can measure it
+     *
+     * @return the number of bytes, 0 if unknown
+     */
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean)
+                    .getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ * Copyright 2012-2013 University Of Southern California
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.workflowsim.examples.benchmark;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import org.cloudbus.cloudsim.Log;
+
+/**
+ * This benchmark logs the message of WorkflowScheduler.processVmCreate the way
+ * the call sites did (a concatenated string) and the way they do now (a
+ * leveled format), with the log disabled, with its level above the message,
+ * and enabled to a file, written by the simulation thread or by the
+ * asynchronous writer. It reports the average time of a message and the bytes
+ * allocated per message by the current thread. A format that is not printed
+ * only allocates its boxed arguments; DISABLED_GUARD checks Log.isEnabled
+ * first and should allocate nothing.
+ *
+ * Usage: LogBenchmark [messages]. By default it logs 200000 messages.
+ *
+ * @since WorkflowSim Toolkit 1.1
+ * @date Oct 18, 2026
+ */
+public class LogBenchmark {
+
+    /**
+     * The number of runs that are not measured
+     */
+    private static final int WARMUP = 3;
+    /**
+     * The number of measured runs
+     */
+    private static final int ROUNDS = 5;
+    /**
+     * The names of the logging modes
+     */
+    private static final String[] MODES = {"DISABLED_CONCAT", "DISABLED_FORMAT", "DISABLED_GUARD",
+        "FILTERED_FORMAT", "FILE_SYNC", "FILE_ASYNC"};
+
+    public static void main(String[] args) throws IOException {
+        int messages = args.length >= 1 ? Integer.parseInt(args[0]) : 200000;
+        File file = File.createTempFile("log", ".txt");
+        file.deleteOnExit();
+        List<String> lines = new ArrayList<>();
+        try (OutputStream output = new FileOutputStream(file)) {
+            for (int mode = 0; mode < MODES.length; mode++) {
+                setMode(mode, output);
+                for (int i = 0; i < WARMUP; i++) {
+                    log(mode, messages);
+                }
+                long bytes = allocatedBytes();
+                long start = System.nanoTime();
+                for (int i = 0; i < ROUNDS; i++) {
+                    log(mode, messages);
+                }
+                Log.flush();
+                double elapsed = (System.nanoTime() - start) / (double) ROUNDS / messages;
+                double allocated = (allocatedBytes() - bytes) / (double) ROUNDS / messages;
+                lines.add(String.format("%-16s %-9d %10.1f %13.2f", MODES[mode], messages,
+                        elapsed, allocated));
+            }
+        }
+        Log.setAsync(false);
+        Log.setOutput(System.out);
+        Log.setLevel(Log.Level.INFO);
+        Log.enable();
+        Log.printLine("Mode             Messages    Time(ns)  Bytes/message");
+        for (String line : lines) {
+            Log.printLine(line);
+        }
+    }
+
+    /**
+     * Sets up the log for a mode
+     *
+     * @param mode the index of the mode in MODES
+     * @param output the file output
+     */
+    private static void setMode(int mode, OutputStream output) {
+        Log.setOutput(output);
+        Log.setAsync(mode == 5);
+        Log.setLevel(mode == 3 ? Log.Level.WARN : Log.Level.INFO);
+        Log.setDisabled(mode < 3);
+    }
+
+    /**
+     * Logs messages
+     *
+     * @param mode the index of the mode in MODES
+     * @param messages the number of messages
+     */
+    private static void log(int mode, int messages) {
+        String name = "planner_0_Merger__Engine_0_Scheduler_0";
+        for (int i = 0; i < messages; i++) {
+            double clock = 0.1 * i;
+            if (mode == 0) {
+                Log.printLine(clock + ": " + name + ": VM #" + i
+                        + " has been created in Datacenter #" + 2 + ", Host #"
+                        + i / 2);
+            } else if (mode == 2) {
+                if (Log.isEnabled(Log.Level.INFO)) {
+                    Log.formatLine(Log.Level.INFO, "%s: %s: VM #%d has been created in Datacenter #%d, Host #%d",
+                            clock, name, i, 2, i / 2);
+                }
+            } else {
+                Log.formatLine(Log.Level.INFO, "%s: %s: VM #%d has been created in Datacenter #%d, Host #%d",
+                        clock, name, i, 2, i / 2);
+            }
+        }
+    }
+
+    /**
+     * Gets the number of bytes allocated by the current thread so far, if the
+     * JVM can measure it
+     *
+     * @return the number of bytes, 0 if unknown
+     */
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean)
+                    .getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+}
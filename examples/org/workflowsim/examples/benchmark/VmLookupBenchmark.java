@@ -0,0 +1,202 @@
+/**
+ * Copyright 2012-2013 University Of Southern California
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.workflowsim.examples.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.cloudbus.cloudsim.CloudletSchedulerSpaceShared;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmAllocationPolicySimple;
+import org.cloudbus.cloudsim.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.lists.VmList;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.cloudbus.cloudsim.util.LongKeyMap;
+
+/**
+ * This benchmark looks up VMs the way the datacenter and the scheduler do on
+ * every event. It compares the lookups by uid string in the VM table of
+ * VmAllocationPolicySimple followed by a scan of the VM list of the host, and
+ * VmList.getById, with the lookups by packed key (Vm.getKey). It reports the
+ * average time of a lookup and the bytes allocated per lookup by the current
+ * thread, which should be zero for the keyed lookups, and a checksum of the
+ * VMs found, which is the same for both when they agree.
+ *
+ * Usage: VmLookupBenchmark [vms lookups]. By default it looks up 1M VMs among
+ * 1000, 100 and 10 VMs.
+ *
+ * @since WorkflowSim Toolkit 1.1
+ * @date Oct 18, 2026
+ */
+public class VmLookupBenchmark {
+
+    /**
+     * The number of runs that are not measured
+     */
+    private static final int WARMUP = 3;
+    /**
+     * The number of measured runs
+     */
+    private static final int ROUNDS = 5;
+    /**
+     * The number of VMs per host
+     */
+    private static final int VMS_PER_HOST = 10;
+    /**
+     * The id of the user of the VMs
+     */
+    private static final int USER_ID = 3;
+    /**
+     * The names of the lookup methods
+     */
+    private static final String[] METHODS = {"POLICY_UID", "POLICY_KEY", "VMLIST_SCAN", "VMLIST_KEY"};
+
+    public static void main(String[] args) {
+        int[][] inputs = {{1000, 1000000}, {100, 1000000}, {10, 1000000}};
+        if (args.length >= 2) {
+            inputs = new int[][]{{Integer.parseInt(args[0]), Integer.parseInt(args[1])}};
+        }
+        Log.disable();
+        List<String> lines = new ArrayList<>();
+        for (int[] input : inputs) {
+            List<Vm> vmList = createVms(input[0]);
+            VmAllocationPolicySimple policy = new VmAllocationPolicySimple(
+                    createHosts((input[0] + VMS_PER_HOST - 1) / VMS_PER_HOST));
+            for (Vm vm : vmList) {
+                policy.allocateHostForVm(vm);
+            }
+            LongKeyMap<Vm> vmsById = new LongKeyMap<>();
+            for (Vm vm : vmList) {
+                vmsById.put(vm.getId(), vm);
+            }
+            int[] ids = new int[input[1]];
+            Random random = new Random(0);
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = random.nextInt(input[0]);
+            }
+            for (int method = 0; method < 4; method++) {
+                long sum = 0;
+                for (int i = 0; i < WARMUP; i++) {
+                    sum = lookup(method, policy, vmList, vmsById, ids);
+                }
+                long bytes = allocatedBytes();
+                long start = System.nanoTime();
+                for (int i = 0; i < ROUNDS; i++) {
+                    lookup(method, policy, vmList, vmsById, ids);
+                }
+                double elapsed = (System.nanoTime() - start) / (double) ROUNDS / ids.length;
+                double allocated = (allocatedBytes() - bytes) / (double) ROUNDS / ids.length;
+                lines.add(String.format("%-7d %-9d %-14s %10.1f %12.2f %14d",
+                        input[0], ids.length, METHODS[method], elapsed, allocated, sum));
+            }
+        }
+        Log.enable();
+        Log.printLine("VMs     Lookups   Lookup          Time(ns)  Bytes/lookup       Checksum");
+        for (String line : lines) {
+            Log.printLine(line);
+        }
+    }
+
+    /**
+     * Looks up VMs by id
+     *
+     * @param method the index of the lookup method in METHODS
+     * @param policy the allocation policy of the VMs
+     * @param vmList the VM list
+     * @param vmsById the VMs by id
+     * @param ids the ids to look up
+     * @return the sum of the hash codes of the VMs found
+     */
+    private static long lookup(int method, VmAllocationPolicySimple policy, List<Vm> vmList,
+            LongKeyMap<Vm> vmsById, int[] ids) {
+        long sum = 0;
+        for (int id : ids) {
+            Vm vm;
+            switch (method) {
+                case 0:
+                    vm = policy.getVmTable().get(Vm.getUid(USER_ID, id)).getVm(id, USER_ID);
+                    break;
+                case 1:
+                    vm = policy.getVm(id, USER_ID);
+                    break;
+                case 2:
+                    vm = VmList.getById(vmList, id);
+                    break;
+                default:
+                    vm = vmsById.get(id);
+                    break;
+            }
+            sum += System.identityHashCode(vm);
+        }
+        return sum;
+    }
+
+    /**
+     * Gets the number of bytes allocated by the current thread so far, if the
+     * JVM can measure it
+     *
+     * @return the number of bytes, 0 if unknown
+     */
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean)
+                    .getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    /**
+     * Creates the VMs, with ids from 0
+     *
+     * @param vms the number of VMs
+     * @return the VM list
+     */
+    private static List<Vm> createVms(int vms) {
+        List<Vm> list = new ArrayList<>();
+        for (int i = 0; i < vms; i++) {
+            list.add(new Vm(i, USER_ID, 1000, 1, 512, 1000, 10000, "Xen",
+                    new CloudletSchedulerSpaceShared()));
+        }
+        return list;
+    }
+
+    /**
+     * Creates hosts that fit VMS_PER_HOST VMs each
+     *
+     * @param hosts the number of hosts
+     * @return the host list
+     */
+    private static List<Host> createHosts(int hosts) {
+        List<Host> list = new ArrayList<>();
+        for (int i = 0; i < hosts; i++) {
+            List<Pe> peList = new ArrayList<>();
+            for (int j = 0; j < VMS_PER_HOST; j++) {
+                peList.add(new Pe(j, new PeProvisionerSimple(1000)));
+            }
+            list.add(new Host(i, new RamProvisionerSimple(512 * VMS_PER_HOST),
+                    new BwProvisionerSimple(1000 * VMS_PER_HOST), 10000L * VMS_PER_HOST,
+                    peList, new VmSchedulerTimeShared(peList)));
+        }
+        return list;
+    }
+}
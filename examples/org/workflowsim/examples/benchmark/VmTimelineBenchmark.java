@@ -0,0 +1,170 @@
+/**
+ * Copyright 2012-2013 University Of Southern California
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.workflowsim.examples.benchmark;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.cloudbus.cloudsim.Log;
+import org.workflowsim.planning.VmTimeline;
+
+/**
+ * This benchmark places synthetic tasks the way HEFT does: each task has a
+ * random ready time and duration, the earliest start time is looked up in the
+ * timeline of every VM and the task is inserted in the VM where it finishes
+ * first. It compares VmTimeline with a scan of the sorted slots of each VM,
+ * which is how HEFT looked up the slots before, and reports the average time
+ * of a placement run and the sum of the finish times, which is the same for
+ * both when they agree.
+ *
+ * Usage: VmTimelineBenchmark [vms tasks]. By default it runs 10k tasks on
+ * 1000, 100 and 10 VMs.
+ *
+ * @since WorkflowSim Toolkit 1.1
+ * @date Oct 18, 2026
+ */
+public class VmTimelineBenchmark {
+
+    /**
+     * The number of runs that are not measured
+     */
+    private static final int WARMUP = 2;
+    /**
+     * The number of measured runs
+     */
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int[][] inputs = {{1000, 10000}, {100, 10000}, {10, 10000}};
+        if (args.length >= 2) {
+            inputs = new int[][]{{Integer.parseInt(args[0]), Integer.parseInt(args[1])}};
+        }
+        Log.printLine("VMs     Tasks   Lookup        Time(ms)            Finish sum");
+        for (int[] input : inputs) {
+            for (int timeline = 1; timeline >= 0; timeline--) {
+                double sum = 0.0;
+                for (int i = 0; i < WARMUP; i++) {
+                    sum = place(input[0], input[1], timeline == 1);
+                }
+                long start = System.nanoTime();
+                for (int i = 0; i < ROUNDS; i++) {
+                    place(input[0], input[1], timeline == 1);
+                }
+                double elapsed = (System.nanoTime() - start) / 1e6 / ROUNDS;
+                Log.formatLine("%-7d %-7d %-8s %13.2f %21.6e",
+                        input[0], input[1], timeline == 1 ? "TIMELINE" : "SCAN", elapsed, sum);
+            }
+        }
+    }
+
+    /**
+     * Places the tasks of a synthetic workload
+     *
+     * @param vms the number of VMs
+     * @param tasks the number of tasks
+     * @param timeline whether to use VmTimeline or the slot scan
+     * @return the sum of the finish times of the tasks
+     */
+    private static double place(int vms, int tasks, boolean timeline) {
+        Random random = new Random(0);
+        VmTimeline[] timelines = new VmTimeline[vms];
+        SlotList[] lists = new SlotList[vms];
+        double[] speed = new double[vms];
+        for (int v = 0; v < vms; v++) {
+            timelines[v] = new VmTimeline();
+            lists[v] = new SlotList();
+            speed[v] = 0.5 + random.nextDouble();
+        }
+        // the ready times spread over the time needed by the whole workload
+        double horizon = tasks * 50.0 / vms;
+        double sum = 0.0;
+        for (int t = 0; t < tasks; t++) {
+            double ready = random.nextDouble() * horizon * t / tasks;
+            double length = 1.0 + random.nextDouble() * 99.0;
+            int best = -1;
+            double bestStart = 0.0;
+            double bestFinish = Double.MAX_VALUE;
+            for (int v = 0; v < vms; v++) {
+                double duration = length / speed[v];
+                double start = timeline
+                        ? timelines[v].getEarliestStart(ready, duration)
+                        : lists[v].getEarliestStart(ready, duration);
+                if (start + duration < bestFinish) {
+                    best = v;
+                    bestStart = start;
+                    bestFinish = start + duration;
+                }
+            }
+            if (timeline) {
+                timelines[best].reserve(bestStart, bestFinish);
+            } else {
+                lists[best].reserve(bestStart, bestFinish);
+            }
+            sum += bestFinish;
+        }
+        return sum;
+    }
+
+    /**
+     * The slots of a VM in a sorted array, searched from the last slot back to
+     * the ready time
+     */
+    private static class SlotList {
+
+        private double[] start = new double[8];
+        private double[] finish = new double[8];
+        private int size;
+
+        private double getEarliestStart(double readyTime, double duration) {
+            if (size == 0) {
+                return readyTime;
+            }
+            double result = Math.max(readyTime, finish[size - 1]);
+            for (int i = size - 1; i > 0 && finish[i - 1] >= readyTime; i--) {
+                if (finish[i - 1] + duration <= start[i]) {
+                    result = finish[i - 1];
+                }
+            }
+            int first = 0;
+            while (first < size && start[first] < readyTime) {
+                first++;
+            }
+            if (first < size) {
+                double gapStart = first == 0 ? readyTime : Math.max(readyTime, finish[first - 1]);
+                if (gapStart + duration <= start[first] && gapStart < result) {
+                    result = gapStart;
+                }
+            }
+            return result;
+        }
+
+        private void reserve(double slotStart, double slotFinish) {
+            if (size == start.length) {
+                start = Arrays.copyOf(start, size * 2);
+                finish = Arrays.copyOf(finish, size * 2);
+            }
+            int pos = size;
+            while (pos > 0 && (start[pos - 1] > slotStart
+                    || (start[pos - 1] == slotStart && finish[pos - 1] > slotFinish))) {
+                pos--;
+            }
+            System.arraycopy(start, pos, start, pos + 1, size - pos);
+            System.arraycopy(finish, pos, finish, pos + 1, size - pos);
+            start[pos] = slotStart;
+            finish[pos] = slotFinish;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * Copyright 2012-2013 University Of Southern California
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.workflowsim.examples.sweep;
+
+import java.io.FileInputStream;
+import java.io.FileWriter;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.List;
+import java.util.Properties;
+import org.cloudbus.cloudsim.Log;
+import org.workflowsim.sweep.SweepGrid;
+import org.workflowsim.sweep.SweepResult;
+import org.workflowsim.sweep.SweepRunner;
+
+/**
+ * This ParameterSweepExample runs the grid of parameters of a property file
+ * (config/sweep.txt by default) on all the processors and writes one CSV row
+ * per run (makespan, cost, events processed, wall time, allocated bytes and
+ * peak heap), instead of running one example per configuration and reading
+ * its output.
+ *
+ * Usage: ParameterSweepExample [sweep.txt [results.csv [threads]]]. The rows
+ * are written to the standard output if no CSV file is given.
+ *
+ * @since WorkflowSim Toolkit 1.1
+ * @date Oct 18, 2026
+ */
+public class ParameterSweepExample {
+
+    public static void main(String[] args) {
+        String configPath = args.length > 0 ? args[0] : "config/sweep.txt";
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+        try {
+            Properties properties = new Properties();
+            try (InputStream in = new FileInputStream(configPath)) {
+                properties.load(in);
+            }
+            SweepGrid grid = SweepGrid.load(properties);
+            if (grid.getDaxPaths().isEmpty()) {
+                Log.printLine("Warning: Please set dax.path in " + configPath);
+                return;
+            }
+            SweepRunner runner = new SweepRunner(grid, threads);
+            Log.printLine("Running " + runner.getRuns().size() + " simulations");
+            long start = System.nanoTime();
+            List<SweepResult> results;
+            if (args.length > 1) {
+                try (Writer out = new FileWriter(args[1])) {
+                    results = runner.run(out);
+                }
+            } else {
+                Writer out = new OutputStreamWriter(System.out);
+                results = runner.run(out);
+                out.flush();
+            }
+            int errors = 0;
+            for (SweepResult result : results) {
+                if (result.getError() != null) {
+                    errors++;
+                }
+            }
+            Log.printLine("Done in " + (System.nanoTime() - start) / 1000000 + " ms, "
+                    + errors + " runs failed");
+        } catch (Exception e) {
+            Log.printLine("The sweep has been terminated due to an unexpected error: " + e);
+        }
+    }
+}
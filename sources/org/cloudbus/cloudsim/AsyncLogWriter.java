@@ -0,0 +1,244 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * An AsyncLogWriter writes the messages of the {@link Log} to an output stream from a thread of
+ * its own, so that the simulation does not wait for the output. The messages are put in a ring
+ * buffer of fixed capacity and written in batches, in order; when the buffer is full the
+ * simulation waits for the writer, so no message is lost. The output is flushed whenever the
+ * buffer has been emptied.
+ *
+ * @since CloudSim Toolkit 3.0
+ */
+public class AsyncLogWriter {
+
+	/** The default capacity of the ring buffer, in messages. */
+	public static final int DEFAULT_CAPACITY = 8192;
+
+	/** The output. */
+	private final OutputStream output;
+
+	/** The ring buffer of messages. */
+	private final String[] ring;
+
+	/** The number of messages written so far, i.e. the index of the next message to write. */
+	private long head;
+
+	/** The number of messages put so far, i.e. the index of the next free slot. */
+	private long tail;
+
+	/** Whether the writer has been closed. */
+	private boolean closed;
+
+	/** The lock of the ring buffer. */
+	private final ReentrantLock lock = new ReentrantLock();
+
+	/** Signalled when a message is put or the writer is closed. */
+	private final Condition notEmpty = lock.newCondition();
+
+	/** Signalled when messages have been written. */
+	private final Condition written = lock.newCondition();
+
+	/** The writer thread. */
+	private final Thread thread;
+
+	/** The hook that writes the pending messages when the JVM exits. */
+	private final Thread shutdownHook;
+
+	/**
+	 * Creates a writer with the default capacity and starts its thread.
+	 *
+	 * @param output the output
+	 */
+	public AsyncLogWriter(OutputStream output) {
+		this(output, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates a writer and starts its thread.
+	 *
+	 * @param output the output
+	 * @param capacity the capacity of the ring buffer, in messages
+	 */
+	public AsyncLogWriter(OutputStream output, int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("The capacity must be positive.");
+		}
+		this.output = output;
+		this.ring = new String[capacity];
+		this.thread = new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				drain();
+			}
+		}, "AsyncLogWriter");
+		this.thread.setDaemon(true);
+		this.thread.start();
+		this.shutdownHook = new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				flush();
+			}
+		});
+		Runtime.getRuntime().addShutdownHook(shutdownHook);
+	}
+
+	/**
+	 * Gets the output.
+	 *
+	 * @return the output
+	 */
+	public OutputStream getOutput() {
+		return output;
+	}
+
+	/**
+	 * Puts a message in the ring buffer, waiting while the buffer is full. The message is written
+	 * directly if the writer has been closed.
+	 *
+	 * @param message the message
+	 */
+	public void write(String message) {
+		lock.lock();
+		try {
+			while (!closed && tail - head == ring.length) {
+				written.awaitUninterruptibly();
+			}
+			if (!closed) {
+				ring[(int) (tail % ring.length)] = message;
+				tail++;
+				notEmpty.signal();
+				return;
+			}
+		} finally {
+			lock.unlock();
+		}
+		writeBytes(message);
+	}
+
+	/**
+	 * Waits until all the messages put so far have been written and the output has been flushed.
+	 */
+	public void flush() {
+		lock.lock();
+		try {
+			long target = tail;
+			while (head < target && thread.isAlive()) {
+				// the thread is checked in case the JVM is exiting without it
+				written.await(100, TimeUnit.MILLISECONDS);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Writes the pending messages and stops the writer thread. The output is not closed.
+	 */
+	public void close() {
+		flush();
+		lock.lock();
+		try {
+			closed = true;
+			notEmpty.signalAll();
+			written.signalAll();
+		} finally {
+			lock.unlock();
+		}
+		try {
+			thread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		try {
+			Runtime.getRuntime().removeShutdownHook(shutdownHook);
+		} catch (IllegalStateException e) {
+			// the JVM is exiting
+		}
+	}
+
+	/**
+	 * The body of the writer thread: writes the messages of the ring buffer in batches until the
+	 * writer is closed.
+	 */
+	private void drain() {
+		StringBuilder batch = new StringBuilder();
+		while (true) {
+			long from;
+			long to;
+			lock.lock();
+			try {
+				while (!closed && head == tail) {
+					notEmpty.awaitUninterruptibly();
+				}
+				if (head == tail) {
+					return;
+				}
+				// the slots stay reserved until head moves, so they can be read without the lock
+				from = head;
+				to = tail;
+			} finally {
+				lock.unlock();
+			}
+			batch.setLength(0);
+			for (long i = from; i < to; i++) {
+				int slot = (int) (i % ring.length);
+				batch.append(ring[slot]);
+				ring[slot] = null;
+			}
+			writeBytes(batch.toString());
+			lock.lock();
+			try {
+				head = to;
+				if (head == tail) {
+					flushOutput();
+				}
+				written.signalAll();
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Writes a message to the output.
+	 *
+	 * @param message the message
+	 */
+	private void writeBytes(String message) {
+		try {
+			output.write(message.getBytes());
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Flushes the output.
+	 */
+	private void flushOutput() {
+		try {
+			output.flush();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+}
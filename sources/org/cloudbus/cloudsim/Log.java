@@ -11,9 +11,20 @@ package org.cloudbus.cloudsim;
 import java.io.IOException;
 import java.io.OutputStream;
 
+import org.cloudbus.cloudsim.core.SimulationContext;
+
 /**
  * The Log class used for performing loggin of the simulation process. It provides the ability to
- * substitute the output stream by any OutputStream subclass.
+ * substitute the output stream by any OutputStream subclass. The output and the disable flag are
+ * kept by the {@link SimulationContext} of the calling thread.
+ * <p>
+ * Messages have a {@link Level}; the methods without a level print at {@link Level#INFO}, and a
+ * message is printed only if the log is enabled and its level is not below the level of the log.
+ * The leveled methods build the message only when it is printed: {@link #formatLine(Level,
+ * String, Object...)} formats it and {@link #printLine(Level, Message)} asks it from a
+ * {@link Message}, so that a disabled message costs no string building. Call sites that compute
+ * their arguments can also check {@link #isEnabled(Level)} first. With {@link #setAsync(boolean)}
+ * the printed messages are written by an {@link AsyncLogWriter} instead of the simulation thread.
  * 
  * @author Anton Beloglazov
  * @since CloudSim Toolkit 2.0
@@ -23,11 +34,52 @@ public class Log {
 	/** The Constant LINE_SEPARATOR. */
 	private static final String LINE_SEPARATOR = System.getProperty("line.separator");
 
-	/** The output. */
-	private static OutputStream output;
+	/**
+	 * The levels of the messages, from the most to the least verbose.
+	 */
+	public enum Level {
+		DEBUG, INFO, WARN, ERROR
+	}
 
-	/** The disable output flag. */
-	private static boolean disabled;
+	/**
+	 * A message built only when it is printed.
+	 */
+	public interface Message {
+
+		/**
+		 * Builds the message.
+		 * 
+		 * @return the message
+		 */
+		String get();
+	}
+
+	/** The state of the log in each simulation context. */
+	private static final SimulationContext.Key<State> STATE = new SimulationContext.Key<State>() {
+
+		@Override
+		protected State initialValue() {
+			return new State();
+		}
+	};
+
+	/**
+	 * The state of the log in a simulation context.
+	 */
+	private static class State {
+
+		/** The output. */
+		private OutputStream output;
+
+		/** The disable output flag. */
+		private boolean disabled;
+
+		/** The lowest level printed. */
+		private Level level = Level.INFO;
+
+		/** The asynchronous writer, null if the messages are written directly. */
+		private AsyncLogWriter writer;
+	}
 
 	/**
 	 * Prints the message.
@@ -35,12 +87,26 @@ public class Log {
 	 * @param message the message
 	 */
 	public static void print(String message) {
-		if (!isDisabled()) {
-			try {
-				getOutput().write(message.getBytes());
-			} catch (IOException e) {
-				e.printStackTrace();
-			}
+		if (isEnabled(Level.INFO)) {
+			write(message);
+		}
+	}
+
+	/**
+	 * Writes a message to the output, or to the asynchronous writer if any.
+	 * 
+	 * @param message the message
+	 */
+	private static void write(String message) {
+		State state = SimulationContext.current().get(STATE);
+		if (state.writer != null) {
+			state.writer.write(message);
+			return;
+		}
+		try {
+			getOutput().write(message.getBytes());
+		} catch (IOException e) {
+			e.printStackTrace();
 		}
 	}
 
@@ -50,7 +116,7 @@ public class Log {
 	 * @param message the message
 	 */
 	public static void print(Object message) {
-		if (!isDisabled()) {
+		if (isEnabled(Level.INFO)) {
 			print(String.valueOf(message));
 		}
 	}
@@ -61,7 +127,7 @@ public class Log {
 	 * @param message the message
 	 */
 	public static void printLine(String message) {
-		if (!isDisabled()) {
+		if (isEnabled(Level.INFO)) {
 			print(message + LINE_SEPARATOR);
 		}
 	}
@@ -70,7 +136,7 @@ public class Log {
 	 * Prints the empty line.
 	 */
 	public static void printLine() {
-		if (!isDisabled()) {
+		if (isEnabled(Level.INFO)) {
 			print(LINE_SEPARATOR);
 		}
 	}
@@ -81,7 +147,7 @@ public class Log {
 	 * @param message the message
 	 */
 	public static void printLine(Object message) {
-		if (!isDisabled()) {
+		if (isEnabled(Level.INFO)) {
 			printLine(String.valueOf(message));
 		}
 	}
@@ -93,7 +159,7 @@ public class Log {
 	 * @param args the args
 	 */
 	public static void format(String format, Object... args) {
-		if (!isDisabled()) {
+		if (isEnabled(Level.INFO)) {
 			print(String.format(format, args));
 		}
 	}
@@ -105,18 +171,61 @@ public class Log {
 	 * @param args the args
 	 */
 	public static void formatLine(String format, Object... args) {
-		if (!isDisabled()) {
+		if (isEnabled(Level.INFO)) {
 			printLine(String.format(format, args));
 		}
 	}
 
+	/**
+	 * Prints the line at a level.
+	 * 
+	 * @param level the level
+	 * @param message the message
+	 */
+	public static void printLine(Level level, String message) {
+		if (isEnabled(level)) {
+			write(message + LINE_SEPARATOR);
+		}
+	}
+
+	/**
+	 * Prints the line built by a message at a level, building it only if the level is enabled.
+	 * 
+	 * @param level the level
+	 * @param message the message
+	 */
+	public static void printLine(Level level, Message message) {
+		if (isEnabled(level)) {
+			write(message.get() + LINE_SEPARATOR);
+		}
+	}
+
+	/**
+	 * Prints a line formated as in String.format() at a level, formatting it only if the level is
+	 * enabled.
+	 * 
+	 * @param level the level
+	 * @param format the format
+	 * @param args the args
+	 */
+	public static void formatLine(Level level, String format, Object... args) {
+		if (isEnabled(level)) {
+			write(String.format(format, args) + LINE_SEPARATOR);
+		}
+	}
+
 	/**
 	 * Sets the output.
 	 * 
 	 * @param _output the new output
 	 */
 	public static void setOutput(OutputStream _output) {
-		output = _output;
+		State state = SimulationContext.current().get(STATE);
+		state.output = _output;
+		if (state.writer != null) {
+			state.writer.close();
+			state.writer = new AsyncLogWriter(getOutput());
+		}
 	}
 
 	/**
@@ -125,10 +234,11 @@ public class Log {
 	 * @return the output
 	 */
 	public static OutputStream getOutput() {
-		if (output == null) {
-			setOutput(System.out);
+		State state = SimulationContext.current().get(STATE);
+		if (state.output == null) {
+			state.output = System.out;
 		}
-		return output;
+		return state.output;
 	}
 
 	/**
@@ -137,7 +247,7 @@ public class Log {
 	 * @param _disabled the new disabled
 	 */
 	public static void setDisabled(boolean _disabled) {
-		disabled = _disabled;
+		SimulationContext.current().get(STATE).disabled = _disabled;
 	}
 
 	/**
@@ -146,7 +256,77 @@ public class Log {
 	 * @return true, if is disable
 	 */
 	public static boolean isDisabled() {
-		return disabled;
+		return SimulationContext.current().get(STATE).disabled;
+	}
+
+	/**
+	 * Checks if the messages of a level are printed.
+	 * 
+	 * @param level the level
+	 * @return true, if the output is enabled and the level is not below the level of the log
+	 */
+	public static boolean isEnabled(Level level) {
+		State state = SimulationContext.current().get(STATE);
+		return !state.disabled && level.compareTo(state.level) >= 0;
+	}
+
+	/**
+	 * Sets the lowest level printed, INFO by default.
+	 * 
+	 * @param level the level
+	 */
+	public static void setLevel(Level level) {
+		SimulationContext.current().get(STATE).level = level;
+	}
+
+	/**
+	 * Gets the lowest level printed.
+	 * 
+	 * @return the level
+	 */
+	public static Level getLevel() {
+		return SimulationContext.current().get(STATE).level;
+	}
+
+	/**
+	 * Sets whether the messages are written by an {@link AsyncLogWriter}. Turning it off writes
+	 * the pending messages first.
+	 * 
+	 * @param async whether the messages are written asynchronously
+	 */
+	public static void setAsync(boolean async) {
+		State state = SimulationContext.current().get(STATE);
+		if (async && state.writer == null) {
+			state.writer = new AsyncLogWriter(getOutput());
+		} else if (!async && state.writer != null) {
+			state.writer.close();
+			state.writer = null;
+		}
+	}
+
+	/**
+	 * Checks if the messages are written asynchronously.
+	 * 
+	 * @return true, if an {@link AsyncLogWriter} writes the messages
+	 */
+	public static boolean isAsync() {
+		return SimulationContext.current().get(STATE).writer != null;
+	}
+
+	/**
+	 * Waits until the messages printed so far have been written, and flushes the output.
+	 */
+	public static void flush() {
+		State state = SimulationContext.current().get(STATE);
+		if (state.writer != null) {
+			state.writer.flush();
+			return;
+		}
+		try {
+			getOutput().flush();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
 	}
 
 	/**
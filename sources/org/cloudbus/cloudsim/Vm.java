@@ -262,6 +262,28 @@ public class Vm {
 		return userId + "-" + vmId;
 	}
 
+	/**
+	 * Gets the key of the VM, a number that identifies it like its uid but can be computed without
+	 * allocating.
+	 * 
+	 * @return the key
+	 * @see #getKey(int, int)
+	 */
+	public long getKey() {
+		return getKey(getUserId(), getId());
+	}
+
+	/**
+	 * Generates the key of a VM: the user id in the upper 32 bits and the vm id in the lower ones.
+	 * 
+	 * @param userId the user id
+	 * @param vmId the vm id
+	 * @return the key
+	 */
+	public static long getKey(int userId, int vmId) {
+		return ((long) userId << 32) | (vmId & 0xFFFFFFFFL);
+	}
+
 	/**
 	 * Gets the id.
 	 * 
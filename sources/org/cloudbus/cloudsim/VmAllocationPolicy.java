@@ -97,6 +97,24 @@ public abstract class VmAllocationPolicy {
 	 */
 	public abstract Host getHost(int vmId, int userId);
 
+	/**
+	 * Get the VM with the given id belonging to the given user. By default, the VM is searched in
+	 * the VM list of its host.
+	 * 
+	 * @param vmId the vm id
+	 * @param userId the user id
+	 * @return the VM with the given vmID and userID; $null if not found
+	 * @pre $none
+	 * @post $none
+	 */
+	public Vm getVm(int vmId, int userId) {
+		Host host = getHost(vmId, userId);
+		if (host == null) {
+			return null;
+		}
+		return host.getVm(vmId, userId);
+	}
+
 	/**
 	 * Sets the host list.
 	 * 
@@ -14,6 +14,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.util.LongKeyMap;
 
 /**
  * VmAllocationPolicySimple is an VmAllocationPolicy that chooses, as the host for a VM, the host
@@ -25,9 +26,15 @@ import org.cloudbus.cloudsim.core.CloudSim;
  */
 public class VmAllocationPolicySimple extends VmAllocationPolicy {
 
-	/** The vm table. */
+	/** The vm table. Its put and remove keep the lookups by key in sync (see {@link VmTable}). */
 	private Map<String, Host> vmTable;
 
+	/** The hosts of the vms in the vm table, by the key of the vm (see {@link Vm#getKey()}). */
+	private final LongKeyMap<Host> hostsByKey = new LongKeyMap<Host>();
+
+	/** The vms in the vm table, by their key. */
+	private final LongKeyMap<Vm> vmsByKey = new LongKeyMap<Vm>();
+
 	/** The used pes. */
 	private Map<String, Integer> usedPes;
 
@@ -147,11 +154,26 @@ public class VmAllocationPolicySimple extends VmAllocationPolicy {
 	 */
 	@Override
 	public Host getHost(int vmId, int userId) {
-		return getVmTable().get(Vm.getUid(userId, vmId));
+		return hostsByKey.get(Vm.getKey(userId, vmId));
 	}
 
 	/**
-	 * Gets the vm table.
+	 * Gets the VM with the given id belonging to the given user.
+	 * 
+	 * @param vmId the vm id
+	 * @param userId the user id
+	 * @return the VM with the given vmID and userID; $null if not found
+	 * @pre $none
+	 * @post $none
+	 */
+	@Override
+	public Vm getVm(int vmId, int userId) {
+		return vmsByKey.get(Vm.getKey(userId, vmId));
+	}
+
+	/**
+	 * Gets the vm table. Putting a vm in it or removing one from it updates the lookups by key
+	 * through {@link #putVmKey(String, Host)} and {@link #removeVmKey(String)}.
 	 * 
 	 * @return the vm table
 	 */
@@ -160,12 +182,59 @@ public class VmAllocationPolicySimple extends VmAllocationPolicy {
 	}
 
 	/**
-	 * Sets the vm table.
+	 * Sets the vm table. The entries of the given map are copied into a table that keeps the
+	 * lookups by key in sync.
 	 * 
 	 * @param vmTable the vm table
 	 */
 	protected void setVmTable(Map<String, Host> vmTable) {
-		this.vmTable = vmTable;
+		hostsByKey.clear();
+		vmsByKey.clear();
+		this.vmTable = new VmTable();
+		this.vmTable.putAll(vmTable);
+	}
+
+	/**
+	 * Adds a vm of the vm table to the lookups by key. It is called when the vm is put in the
+	 * table.
+	 * 
+	 * @param uid the uid of the vm
+	 * @param host the host of the vm
+	 */
+	protected void putVmKey(String uid, Host host) {
+		long key = getKey(uid);
+		hostsByKey.put(key, host);
+		vmsByKey.remove(key);
+		for (Vm vm : host.getVmList()) {
+			if (vm.getUid().equals(uid)) {
+				vmsByKey.put(key, vm);
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Removes a vm of the vm table from the lookups by key. It is called when the vm is removed
+	 * from the table.
+	 * 
+	 * @param uid the uid of the vm
+	 */
+	protected void removeVmKey(String uid) {
+		long key = getKey(uid);
+		hostsByKey.remove(key);
+		vmsByKey.remove(key);
+	}
+
+	/**
+	 * Gets the key of a vm from its uid (see {@link Vm#getUid(int, int)}).
+	 * 
+	 * @param uid the uid of the vm
+	 * @return the key of the vm
+	 */
+	private static long getKey(String uid) {
+		int dash = uid.indexOf('-', 1);
+		return Vm.getKey(Integer.parseInt(uid.substring(0, dash)),
+				Integer.parseInt(uid.substring(dash + 1)));
 	}
 
 	/**
@@ -237,4 +306,45 @@ public class VmAllocationPolicySimple extends VmAllocationPolicy {
 
 		return false;
 	}
+
+	/**
+	 * The vm table: a hash map whose put, remove and clear also update the lookups by key.
+	 * Removing entries through its views does not, so it should be changed through put and
+	 * remove only.
+	 */
+	private class VmTable extends HashMap<String, Host> {
+
+		/** The Constant serialVersionUID. */
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public Host put(String uid, Host host) {
+			Host old = super.put(uid, host);
+			putVmKey(uid, host);
+			return old;
+		}
+
+		@Override
+		public void putAll(Map<? extends String, ? extends Host> map) {
+			for (Map.Entry<? extends String, ? extends Host> entry : map.entrySet()) {
+				put(entry.getKey(), entry.getValue());
+			}
+		}
+
+		@Override
+		public Host remove(Object uid) {
+			Host old = super.remove(uid);
+			if (old != null) {
+				removeVmKey((String) uid);
+			}
+			return old;
+		}
+
+		@Override
+		public void clear() {
+			super.clear();
+			hostsByKey.clear();
+			vmsByKey.clear();
+		}
+	}
 }
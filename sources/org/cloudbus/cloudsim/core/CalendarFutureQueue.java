@@ -0,0 +1,445 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * This class implements the future event queue as a calendar queue (R. Brown, "Calendar queues: a
+ * fast O(1) priority queue implementation for the simulation event set problem", CACM 1988). Events
+ * are hashed by time into buckets ("days") of a fixed width; each bucket keeps its events in a
+ * sorted list. The number of buckets and their width are adapted as the queue grows and shrinks, so
+ * that adding and polling an event takes constant time on average.
+ * <p>
+ * Events are ordered by time, then by serial number and finally by insertion order, which gives the
+ * same order as the {@link FutureQueue}.
+ *
+ * @since CloudSim Toolkit 3.0
+ * @see FutureEventQueue
+ */
+public class CalendarFutureQueue implements FutureEventQueue {
+
+	/** The minimum number of buckets. */
+	private static final int MIN_BUCKETS = 16;
+
+	/** The number of events sampled to estimate the bucket width. */
+	private static final int SAMPLE_SIZE = 25;
+
+	/** The buckets. Each bucket is a sorted list of nodes. */
+	private Node[] buckets;
+
+	/** The last node of each bucket. */
+	private Node[] tails;
+
+	/** The mask used to map a day to its bucket. */
+	private int mask;
+
+	/** The width of a bucket, in simulation time. */
+	private double width = 1.0;
+
+	/** The day the search for the first event starts from. No event is scheduled before it. */
+	private long currentDay = 0;
+
+	/** The number of events in the queue. */
+	private int size = 0;
+
+	/** The serial. */
+	private long serial = 0;
+
+	/** The insertion counter, used to break ties between events with the same serial. */
+	private long inserted = 0;
+
+	/**
+	 * Creates an empty calendar queue.
+	 */
+	public CalendarFutureQueue() {
+		allocate(MIN_BUCKETS);
+	}
+
+	/**
+	 * Add a new event to the queue. Adding a new event to the queue preserves the temporal order of
+	 * the events in the queue.
+	 *
+	 * @param newEvent The event to be put in the queue.
+	 */
+	@Override
+	public void addEvent(SimEvent newEvent) {
+		newEvent.setSerial(serial++);
+		offer(newEvent);
+	}
+
+	/**
+	 * Add a new event to the head of the queue.
+	 *
+	 * @param newEvent The event to be put in the queue.
+	 */
+	@Override
+	public void addEventFirst(SimEvent newEvent) {
+		newEvent.setSerial(0);
+		offer(newEvent);
+	}
+
+	@Override
+	public SimEvent peek() {
+		if (size == 0) {
+			return null;
+		}
+		return buckets[findFirst()].event;
+	}
+
+	@Override
+	public SimEvent poll() {
+		if (size == 0) {
+			return null;
+		}
+		SimEvent first = unlinkFirst(findFirst()).event;
+		if (size < buckets.length / 2 && buckets.length > MIN_BUCKETS) {
+			resize(buckets.length / 2);
+		}
+		return first;
+	}
+
+	@Override
+	public int pollAllAt(double time, List<SimEvent> batch) {
+		int count = 0;
+		while (size > 0) {
+			int index = findFirst();
+			if (buckets[index].event.eventTime() != time) {
+				break;
+			}
+			batch.add(unlinkFirst(index).event);
+			count++;
+		}
+		if (count > 0 && size < buckets.length / 2 && buckets.length > MIN_BUCKETS) {
+			resize(buckets.length / 2);
+		}
+		return count;
+	}
+
+	/**
+	 * Returns an iterator to the queue. The events are returned in order; the iterator works on a
+	 * sorted copy of the queue.
+	 *
+	 * @return the iterator
+	 */
+	@Override
+	public Iterator<SimEvent> iterator() {
+		final Node[] nodes = toArray();
+		Arrays.sort(nodes, NODE_ORDER);
+		return new Iterator<SimEvent>() {
+
+			private int cursor = 0;
+
+			private SimEvent last;
+
+			@Override
+			public boolean hasNext() {
+				return cursor < nodes.length;
+			}
+
+			@Override
+			public SimEvent next() {
+				if (cursor >= nodes.length) {
+					throw new NoSuchElementException();
+				}
+				last = nodes[cursor++].event;
+				return last;
+			}
+
+			@Override
+			public void remove() {
+				if (last == null) {
+					throw new IllegalStateException();
+				}
+				CalendarFutureQueue.this.remove(last);
+				last = null;
+			}
+		};
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean remove(SimEvent event) {
+		int index = (int) (dayOf(event.eventTime()) & mask);
+		Node prev = null;
+		for (Node node = buckets[index]; node != null; prev = node, node = node.next) {
+			if (node.event == event) {
+				if (prev == null) {
+					buckets[index] = node.next;
+				} else {
+					prev.next = node.next;
+				}
+				if (tails[index] == node) {
+					tails[index] = prev;
+				}
+				size--;
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public boolean removeAll(Collection<SimEvent> events) {
+		boolean changed = false;
+		for (SimEvent event : events) {
+			changed |= remove(event);
+		}
+		return changed;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(buckets, null);
+		Arrays.fill(tails, null);
+		size = 0;
+	}
+
+	/**
+	 * Inserts an event whose serial has already been set, growing the calendar if needed.
+	 *
+	 * @param event the event
+	 */
+	private void offer(SimEvent event) {
+		insert(new Node(event, inserted++));
+		if (size > buckets.length * 2) {
+			resize(buckets.length * 2);
+		}
+	}
+
+	/**
+	 * Inserts a node in the sorted list of its bucket.
+	 *
+	 * @param node the node
+	 */
+	private void insert(Node node) {
+		node.day = dayOf(node.event.eventTime());
+		node.next = null;
+		if (size == 0 || node.day < currentDay) {
+			currentDay = node.day;
+		}
+		int index = (int) (node.day & mask);
+		Node tail = tails[index];
+		if (tail == null) {
+			buckets[index] = node;
+			tails[index] = node;
+		} else if (!less(node, tail)) {
+			// events are mostly scheduled in order, so appending is the common case
+			tail.next = node;
+			tails[index] = node;
+		} else {
+			Node prev = null;
+			Node current = buckets[index];
+			while (!less(node, current)) {
+				prev = current;
+				current = current.next;
+			}
+			node.next = current;
+			if (prev == null) {
+				buckets[index] = node;
+			} else {
+				prev.next = node;
+			}
+		}
+		size++;
+	}
+
+	/**
+	 * Finds the bucket holding the first event and moves the current day to the day of that event.
+	 * The queue must not be empty.
+	 *
+	 * @return the index of the bucket
+	 */
+	private int findFirst() {
+		int index = (int) (currentDay & mask);
+		for (int i = 0; i < buckets.length; i++) {
+			Node head = buckets[index];
+			if (head != null && head.day == currentDay) {
+				return index;
+			}
+			index = (index + 1) & mask;
+			currentDay++;
+		}
+
+		// no event within a whole year: search the minimum directly
+		Node min = null;
+		for (Node head : buckets) {
+			if (head != null && (min == null || less(head, min))) {
+				min = head;
+			}
+		}
+		currentDay = min.day;
+		return (int) (currentDay & mask);
+	}
+
+	/**
+	 * Removes the first node of a bucket.
+	 *
+	 * @param index the bucket
+	 * @return the node
+	 */
+	private Node unlinkFirst(int index) {
+		Node head = buckets[index];
+		buckets[index] = head.next;
+		if (head.next == null) {
+			tails[index] = null;
+		}
+		head.next = null;
+		size--;
+		return head;
+	}
+
+	/**
+	 * Changes the number of buckets and estimates a new bucket width from the first events.
+	 *
+	 * @param newSize the new number of buckets, a power of two
+	 */
+	private void resize(int newSize) {
+		double newWidth = estimateWidth();
+		Node[] nodes = toArray();
+		allocate(newSize);
+		if (newWidth > 0.0) {
+			width = newWidth;
+		}
+		size = 0;
+		for (Node node : nodes) {
+			insert(node);
+		}
+	}
+
+	/**
+	 * Estimates the bucket width as three times the average separation between the first events,
+	 * ignoring unusually large separations.
+	 *
+	 * @return the width, or 0 if it cannot be estimated
+	 */
+	private double estimateWidth() {
+		int samples = Math.min(size, SAMPLE_SIZE);
+		if (samples < 2) {
+			return 0.0;
+		}
+		Node[] first = new Node[samples];
+		for (int i = 0; i < samples; i++) {
+			first[i] = unlinkFirst(findFirst());
+		}
+		double total = first[samples - 1].event.eventTime() - first[0].event.eventTime();
+		double average = total / (samples - 1);
+		double sum = 0.0;
+		int count = 0;
+		for (int i = 1; i < samples; i++) {
+			double separation = first[i].event.eventTime() - first[i - 1].event.eventTime();
+			if (separation <= average * 2) {
+				sum += separation;
+				count++;
+			}
+		}
+		for (Node node : first) {
+			insert(node);
+		}
+		if (count == 0 || sum <= 0.0 || Double.isNaN(sum) || Double.isInfinite(sum)) {
+			return 0.0;
+		}
+		return 3.0 * sum / count;
+	}
+
+	/**
+	 * Allocates empty buckets.
+	 *
+	 * @param count the number of buckets, a power of two
+	 */
+	private void allocate(int count) {
+		buckets = new Node[count];
+		tails = new Node[count];
+		mask = count - 1;
+	}
+
+	/**
+	 * Collects all the nodes of the queue.
+	 *
+	 * @return the nodes, unordered
+	 */
+	private Node[] toArray() {
+		Node[] nodes = new Node[size];
+		int i = 0;
+		for (Node head : buckets) {
+			for (Node node = head; node != null; node = node.next) {
+				nodes[i++] = node;
+			}
+		}
+		return nodes;
+	}
+
+	/**
+	 * Gets the day (bucket number in an unbounded calendar) of a time.
+	 *
+	 * @param time the time
+	 * @return the day
+	 */
+	private long dayOf(double time) {
+		return (long) (time / width);
+	}
+
+	/**
+	 * Compares two nodes by time, serial and insertion order.
+	 */
+	private static boolean less(Node a, Node b) {
+		double aTime = a.event.eventTime();
+		double bTime = b.event.eventTime();
+		if (aTime != bTime) {
+			return aTime < bTime;
+		}
+		long aSerial = a.event.getSerial();
+		long bSerial = b.event.getSerial();
+		if (aSerial != bSerial) {
+			return aSerial < bSerial;
+		}
+		return a.order < b.order;
+	}
+
+	/** Orders nodes as the queue does. */
+	private static final Comparator<Node> NODE_ORDER = new Comparator<Node>() {
+
+		@Override
+		public int compare(Node a, Node b) {
+			if (less(a, b)) {
+				return -1;
+			}
+			return less(b, a) ? 1 : 0;
+		}
+	};
+
+	/**
+	 * An entry of a bucket.
+	 */
+	private static final class Node {
+
+		private final SimEvent event;
+
+		private final long order;
+
+		private long day;
+
+		private Node next;
+
+		private Node(SimEvent event, long order) {
+			this.event = event;
+			this.order = order;
+		}
+	}
+
+}
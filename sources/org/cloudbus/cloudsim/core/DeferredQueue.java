@@ -8,15 +8,19 @@
 
 package org.cloudbus.cloudsim.core;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.NoSuchElementException;
 
 /**
- * This class implements the deferred event queue used by {@link Simulation}. The event queue uses a
- * linked list to store the events.
- * 
+ * This class implements the deferred event queue used by {@link Simulation}. The events are kept in
+ * one linked list per destination entity, so that an entity looking for its next event only visits
+ * the events sent to it.
+ *
  * @author Marcos Dias de Assuncao
  * @since CloudSim Toolkit 1.0
  * @see Simulation
@@ -24,65 +28,184 @@ import java.util.ListIterator;
  */
 public class DeferredQueue {
 
-	/** The list. */
-	private final List<SimEvent> list = new LinkedList<SimEvent>();
+	/** The events of each destination, indexed by the id of the destination entity. */
+	private final List<Bucket> buckets = new ArrayList<Bucket>();
 
-	/** The max time. */
-	private double maxTime = -1;
+	/** The number of events in the queue. */
+	private int size = 0;
 
 	/**
 	 * Adds a new event to the queue. Adding a new event to the queue preserves the temporal order
 	 * of the events.
-	 * 
+	 *
 	 * @param newEvent The event to be added to the queue.
 	 */
 	public void addEvent(SimEvent newEvent) {
-		// The event has to be inserted as the last of all events
-		// with the same event_time(). Yes, this matters.
-		double eventTime = newEvent.eventTime();
-		if (eventTime >= maxTime) {
-			list.add(newEvent);
-			maxTime = eventTime;
-			return;
+		int destination = newEvent.getDestination();
+		if (destination < 0) {
+			throw new IllegalArgumentException("Attempt to defer an event to a null entity.");
+		}
+		while (buckets.size() <= destination) {
+			buckets.add(null);
+		}
+		Bucket bucket = buckets.get(destination);
+		if (bucket == null) {
+			bucket = new Bucket();
+			buckets.set(destination, bucket);
 		}
+		bucket.addEvent(newEvent);
+		size++;
+	}
 
-		ListIterator<SimEvent> iterator = list.listIterator();
-		SimEvent event;
-		while (iterator.hasNext()) {
-			event = iterator.next();
-			if (event.eventTime() > eventTime) {
-				iterator.previous();
-				iterator.add(newEvent);
-				return;
+	/**
+	 * Returns an iterator to the events in the queue. The events are grouped by destination and
+	 * ordered by time within each destination.
+	 *
+	 * @return the iterator
+	 */
+	public Iterator<SimEvent> iterator() {
+		return new Iterator<SimEvent>() {
+
+			private int destination = -1;
+
+			private Iterator<SimEvent> current = Collections.<SimEvent> emptyList().iterator();
+
+			@Override
+			public boolean hasNext() {
+				while (!current.hasNext()) {
+					if (++destination >= buckets.size()) {
+						return false;
+					}
+					current = iterator(destination);
+				}
+				return true;
+			}
+
+			@Override
+			public SimEvent next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return current.next();
 			}
-		}
 
-		list.add(newEvent);
+			@Override
+			public void remove() {
+				current.remove();
+			}
+		};
 	}
 
 	/**
-	 * Returns an iterator to the events in the queue.
-	 * 
+	 * Returns an iterator to the events sent to an entity, in temporal order. Removing an event
+	 * through the iterator removes it from the queue.
+	 *
+	 * @param destination the id of the destination entity
 	 * @return the iterator
 	 */
-	public Iterator<SimEvent> iterator() {
-		return list.iterator();
+	public Iterator<SimEvent> iterator(int destination) {
+		if (destination < 0 || destination >= buckets.size() || buckets.get(destination) == null) {
+			return Collections.<SimEvent> emptyList().iterator();
+		}
+		final Iterator<SimEvent> it = buckets.get(destination).list.iterator();
+		return new Iterator<SimEvent>() {
+
+			@Override
+			public boolean hasNext() {
+				return it.hasNext();
+			}
+
+			@Override
+			public SimEvent next() {
+				return it.next();
+			}
+
+			@Override
+			public void remove() {
+				it.remove();
+				size--;
+			}
+		};
 	}
 
 	/**
 	 * Returns the size of this event queue.
-	 * 
+	 *
 	 * @return the number of events in the queue.
 	 */
 	public int size() {
-		return list.size();
+		return size;
+	}
+
+	/**
+	 * Returns the number of events sent to an entity.
+	 *
+	 * @param destination the id of the destination entity
+	 * @return the number of events in the queue for this entity
+	 */
+	public int size(int destination) {
+		if (destination < 0 || destination >= buckets.size() || buckets.get(destination) == null) {
+			return 0;
+		}
+		return buckets.get(destination).list.size();
+	}
+
+	/**
+	 * Removes the first event sent to an entity.
+	 *
+	 * @param destination the id of the destination entity
+	 * @return the event, or <tt>null</tt> if there is none
+	 */
+	public SimEvent pollFirst(int destination) {
+		if (size(destination) == 0) {
+			return null;
+		}
+		size--;
+		return buckets.get(destination).list.removeFirst();
 	}
 
 	/**
 	 * Clears the queue.
 	 */
 	public void clear() {
-		list.clear();
+		buckets.clear();
+		size = 0;
+	}
+
+	/**
+	 * The events sent to one entity.
+	 */
+	private static class Bucket {
+
+		/** The list. */
+		private final LinkedList<SimEvent> list = new LinkedList<SimEvent>();
+
+		/** The max time. */
+		private double maxTime = -1;
+
+		private void addEvent(SimEvent newEvent) {
+			// The event has to be inserted as the last of all events
+			// with the same event_time(). Yes, this matters.
+			double eventTime = newEvent.eventTime();
+			if (eventTime >= maxTime) {
+				list.add(newEvent);
+				maxTime = eventTime;
+				return;
+			}
+
+			ListIterator<SimEvent> iterator = list.listIterator();
+			SimEvent event;
+			while (iterator.hasNext()) {
+				event = iterator.next();
+				if (event.eventTime() > eventTime) {
+					iterator.previous();
+					iterator.add(newEvent);
+					return;
+				}
+			}
+
+			list.add(newEvent);
+		}
 	}
 
-}
\ No newline at end of file
+}
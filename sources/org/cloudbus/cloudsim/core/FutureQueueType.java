@@ -0,0 +1,44 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+/**
+ * The implementations of the future event queue that can be selected with
+ * {@link CloudSim#setFutureQueueType(FutureQueueType)}.
+ *
+ * @since CloudSim Toolkit 3.0
+ */
+public enum FutureQueueType {
+
+	/** A {@link java.util.TreeSet} of events ({@link FutureQueue}). This is the default. */
+	TREESET,
+
+	/** A calendar queue ({@link CalendarFutureQueue}). */
+	CALENDAR,
+
+	/** An array-backed 4-ary heap ({@link HeapFutureQueue}). */
+	HEAP;
+
+	/**
+	 * Creates an empty queue of this type.
+	 *
+	 * @return the queue
+	 */
+	public FutureEventQueue newQueue() {
+		switch (this) {
+			case CALENDAR:
+				return new CalendarFutureQueue();
+			case HEAP:
+				return new HeapFutureQueue();
+			default:
+				return new FutureQueue();
+		}
+	}
+
+}
@@ -0,0 +1,290 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * This class implements the future event queue as an array-backed 4-ary min-heap. Compared to the
+ * {@link FutureQueue}, adding and polling events do not allocate tree nodes and touch fewer cache
+ * lines, since the heap is shallower than a binary tree.
+ * <p>
+ * Events are ordered by time, then by serial number and finally by insertion order, which gives the
+ * same order as the {@link FutureQueue}.
+ *
+ * @since CloudSim Toolkit 3.0
+ * @see FutureEventQueue
+ */
+public class HeapFutureQueue implements FutureEventQueue {
+
+	/** The arity of the heap. */
+	private static final int D = 4;
+
+	/** The initial capacity. */
+	private static final int INITIAL_CAPACITY = 64;
+
+	/** The heap of events. */
+	private SimEvent[] heap = new SimEvent[INITIAL_CAPACITY];
+
+	/** The insertion order of the events, stored at the same position as the event. */
+	private long[] order = new long[INITIAL_CAPACITY];
+
+	/** The number of events in the heap. */
+	private int size = 0;
+
+	/** The serial. */
+	private long serial = 0;
+
+	/** The insertion counter, used to break ties between events with the same serial. */
+	private long inserted = 0;
+
+	/**
+	 * Add a new event to the queue. Adding a new event to the queue preserves the temporal order of
+	 * the events in the queue.
+	 *
+	 * @param newEvent The event to be put in the queue.
+	 */
+	@Override
+	public void addEvent(SimEvent newEvent) {
+		newEvent.setSerial(serial++);
+		offer(newEvent);
+	}
+
+	/**
+	 * Add a new event to the head of the queue.
+	 *
+	 * @param newEvent The event to be put in the queue.
+	 */
+	@Override
+	public void addEventFirst(SimEvent newEvent) {
+		newEvent.setSerial(0);
+		offer(newEvent);
+	}
+
+	@Override
+	public SimEvent peek() {
+		return size == 0 ? null : heap[0];
+	}
+
+	@Override
+	public SimEvent poll() {
+		if (size == 0) {
+			return null;
+		}
+		SimEvent first = heap[0];
+		removeAt(0);
+		return first;
+	}
+
+	@Override
+	public int pollAllAt(double time, List<SimEvent> batch) {
+		int count = 0;
+		while (size > 0 && heap[0].eventTime() == time) {
+			batch.add(heap[0]);
+			removeAt(0);
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Returns an iterator to the queue. The events are returned in order; the iterator works on a
+	 * copy of the heap, so it costs O(n) to create and O(log n) per event.
+	 *
+	 * @return the iterator
+	 */
+	@Override
+	public Iterator<SimEvent> iterator() {
+		return new OrderedIterator();
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean remove(SimEvent event) {
+		for (int i = 0; i < size; i++) {
+			if (heap[i] == event) {
+				removeAt(i);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public boolean removeAll(Collection<SimEvent> events) {
+		boolean changed = false;
+		for (SimEvent event : events) {
+			changed |= remove(event);
+		}
+		return changed;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(heap, 0, size, null);
+		size = 0;
+	}
+
+	/**
+	 * Inserts an event whose serial has already been set.
+	 *
+	 * @param event the event
+	 */
+	private void offer(SimEvent event) {
+		if (size == heap.length) {
+			heap = Arrays.copyOf(heap, size * 2);
+			order = Arrays.copyOf(order, size * 2);
+		}
+		siftUp(size++, event, inserted++);
+	}
+
+	/**
+	 * Removes the event at the given position of the heap.
+	 *
+	 * @param index the position
+	 */
+	private void removeAt(int index) {
+		int last = --size;
+		SimEvent moved = heap[last];
+		long movedOrder = order[last];
+		heap[last] = null;
+		if (index == last) {
+			return;
+		}
+		siftDown(index, moved, movedOrder);
+		if (heap[index] == moved) {
+			siftUp(index, moved, movedOrder);
+		}
+	}
+
+	private void siftUp(int index, SimEvent event, long eventOrder) {
+		while (index > 0) {
+			int parent = (index - 1) / D;
+			if (!less(event, eventOrder, heap[parent], order[parent])) {
+				break;
+			}
+			heap[index] = heap[parent];
+			order[index] = order[parent];
+			index = parent;
+		}
+		heap[index] = event;
+		order[index] = eventOrder;
+	}
+
+	private void siftDown(int index, SimEvent event, long eventOrder) {
+		while (true) {
+			int child = index * D + 1;
+			if (child >= size) {
+				break;
+			}
+			int end = Math.min(child + D, size);
+			int min = child;
+			for (int c = child + 1; c < end; c++) {
+				if (less(heap[c], order[c], heap[min], order[min])) {
+					min = c;
+				}
+			}
+			if (!less(heap[min], order[min], event, eventOrder)) {
+				break;
+			}
+			heap[index] = heap[min];
+			order[index] = order[min];
+			index = min;
+		}
+		heap[index] = event;
+		order[index] = eventOrder;
+	}
+
+	/**
+	 * Compares two events by time, serial and insertion order.
+	 */
+	private static boolean less(SimEvent a, long aOrder, SimEvent b, long bOrder) {
+		if (a.eventTime() != b.eventTime()) {
+			return a.eventTime() < b.eventTime();
+		}
+		if (a.getSerial() != b.getSerial()) {
+			return a.getSerial() < b.getSerial();
+		}
+		return aOrder < bOrder;
+	}
+
+	/**
+	 * Iterates a private copy of the heap in order. Removing an event removes it from this queue.
+	 */
+	private class OrderedIterator implements Iterator<SimEvent> {
+
+		private final SimEvent[] copy = Arrays.copyOf(heap, size);
+
+		private final long[] copyOrder = Arrays.copyOf(order, size);
+
+		private int remaining = size;
+
+		private SimEvent last;
+
+		@Override
+		public boolean hasNext() {
+			return remaining > 0;
+		}
+
+		@Override
+		public SimEvent next() {
+			if (remaining == 0) {
+				throw new NoSuchElementException();
+			}
+			last = copy[0];
+			int n = --remaining;
+			SimEvent moved = copy[n];
+			long movedOrder = copyOrder[n];
+			copy[n] = null;
+			if (n > 0) {
+				int index = 0;
+				while (true) {
+					int child = index * D + 1;
+					if (child >= n) {
+						break;
+					}
+					int end = Math.min(child + D, n);
+					int min = child;
+					for (int c = child + 1; c < end; c++) {
+						if (less(copy[c], copyOrder[c], copy[min], copyOrder[min])) {
+							min = c;
+						}
+					}
+					if (!less(copy[min], copyOrder[min], moved, movedOrder)) {
+						break;
+					}
+					copy[index] = copy[min];
+					copyOrder[index] = copyOrder[min];
+					index = min;
+				}
+				copy[index] = moved;
+				copyOrder[index] = movedOrder;
+			}
+			return last;
+		}
+
+		@Override
+		public void remove() {
+			if (last == null) {
+				throw new IllegalStateException();
+			}
+			HeapFutureQueue.this.remove(last);
+			last = null;
+		}
+	}
+
+}
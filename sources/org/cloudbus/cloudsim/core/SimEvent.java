@@ -86,6 +86,16 @@ public class SimEvent implements Cloneable, Comparable<SimEvent> {
 		this.serial = serial;
 	}
 
+	/**
+	 * Gets the serial number assigned by the future event queue. Used to break ties between events
+	 * scheduled at the same time.
+	 * 
+	 * @return the serial
+	 */
+	protected long getSerial() {
+		return serial;
+	}
+
 	/**
 	 * Used to set the time at which this event finished waiting in the event
 	 * 
@@ -0,0 +1,227 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.cloudbus.cloudsim.core.predicates.Predicate;
+
+/**
+ * A simulation context holds the state of one simulation: the clock, the future and deferred event
+ * queues, the entities and, through {@link Key keys}, the state of other static APIs such as
+ * {@link org.cloudbus.cloudsim.Log} or the catalogs and parameters of an extension. The static
+ * methods of {@link CloudSim} work on the context of the calling thread, which is the default
+ * context unless another one has been bound with {@link #run(Runnable)} or {@link #call(Callable)}.
+ * <p>
+ * Since simulations that run in different contexts share no state, several of them can run at the
+ * same time in one JVM, one per thread. A context must not be used by two threads at the same
+ * time; threads started by a simulation (e.g. to parse files in parallel) must bind the context
+ * of the simulation, see {@link #current()}.
+ *
+ * @since CloudSim Toolkit 3.0
+ */
+public class SimulationContext {
+
+	/** The context used by the threads that have not bound one. */
+	private static final SimulationContext DEFAULT = new SimulationContext();
+
+	/** The context bound to each thread, if any. */
+	private static final ThreadLocal<SimulationContext> BOUND = new ThreadLocal<SimulationContext>();
+
+	/** Whether a context has ever been bound, so that the default one can be returned directly. */
+	private static volatile boolean anyBound = false;
+
+	/** The number of keys created so far. */
+	private static final AtomicInteger keyCount = new AtomicInteger();
+
+	/** The values of the keys, by key index, null if not initialised. */
+	private Object[] values = new Object[8];
+
+	// The state of CloudSim, see the fields of the same names there
+
+	/** The id of CIS entity. */
+	int cisId = -1;
+
+	/** The id of CloudSimShutdown entity. */
+	int shutdownId = -1;
+
+	/** The CIS object. */
+	CloudInformationService cis = null;
+
+	/** The trace flag. */
+	boolean traceFlag = false;
+
+	/** The calendar. */
+	Calendar calendar = null;
+
+	/** The termination time. */
+	double terminateAt = -1;
+
+	/** The minimal time between events. */
+	double minTimeBetweenEvents = 0.1;
+
+	/** The implementation of the future event queue used by the next simulation. */
+	FutureQueueType futureQueueType = FutureQueueType.TREESET;
+
+	/** The entities. */
+	List<SimEntity> entities;
+
+	/** The future event queue. */
+	FutureEventQueue future;
+
+	/** The events processed in the current clock tick, reused between ticks. */
+	List<SimEvent> batch;
+
+	/** The deferred event queue. */
+	DeferredQueue deferred;
+
+	/** The simulation clock. */
+	double clock;
+
+	/** The number of events processed since the simulation was initialised. */
+	long eventsProcessed;
+
+	/** Flag for checking if the simulation is running. */
+	boolean running;
+
+	/** The entities by name. */
+	Map<String, SimEntity> entitiesByName;
+
+	/** The wait predicates. */
+	Map<Integer, Predicate> waitPredicates;
+
+	/** The paused. */
+	boolean paused = false;
+
+	/** The pause at. */
+	long pauseAt = -1;
+
+	/** The abrupt terminate. */
+	boolean abruptTerminate = false;
+
+	/**
+	 * Gets the context of the calling thread.
+	 *
+	 * @return the context bound to the thread, or the default context if none
+	 */
+	public static SimulationContext current() {
+		if (!anyBound) {
+			return DEFAULT;
+		}
+		SimulationContext context = BOUND.get();
+		return context == null ? DEFAULT : context;
+	}
+
+	/**
+	 * Gets the default context, used by the threads that have not bound one.
+	 *
+	 * @return the default context
+	 */
+	public static SimulationContext getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * Runs a task with this context bound to the calling thread. The previous context of the
+	 * thread is restored afterwards.
+	 *
+	 * @param task the task
+	 */
+	public void run(Runnable task) {
+		SimulationContext previous = bind(this);
+		try {
+			task.run();
+		} finally {
+			bind(previous);
+		}
+	}
+
+	/**
+	 * Calls a task with this context bound to the calling thread. The previous context of the
+	 * thread is restored afterwards.
+	 *
+	 * @param task the task
+	 * @param <V> the type of the result
+	 * @return the result of the task
+	 * @throws Exception if the task throws it
+	 */
+	public <V> V call(Callable<V> task) throws Exception {
+		SimulationContext previous = bind(this);
+		try {
+			return task.call();
+		} finally {
+			bind(previous);
+		}
+	}
+
+	/**
+	 * Binds a context to the calling thread.
+	 *
+	 * @param context the context, null to use the default one
+	 * @return the context bound before, null if none
+	 */
+	private static SimulationContext bind(SimulationContext context) {
+		SimulationContext previous = BOUND.get();
+		if (context == null || context == DEFAULT) {
+			BOUND.remove();
+		} else {
+			anyBound = true;
+			BOUND.set(context);
+		}
+		return previous;
+	}
+
+	/**
+	 * Gets the value of a key in this context, initialising it on first use.
+	 *
+	 * @param key the key
+	 * @param <T> the type of the value
+	 * @return the value
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T get(Key<T> key) {
+		int index = key.index;
+		if (index >= values.length) {
+			values = Arrays.copyOf(values, Math.max(index + 1, values.length * 2));
+		}
+		Object value = values[index];
+		if (value == null) {
+			value = key.initialValue();
+			values[index] = value;
+		}
+		return (T) value;
+	}
+
+	/**
+	 * A key of a value held by each context, such as the state of a class with a static API. Like
+	 * a {@link ThreadLocal}, a key is meant to be a static field, and its value is created by
+	 * {@link #initialValue()} the first time it is read in a context.
+	 *
+	 * @param <T> the type of the value
+	 */
+	public abstract static class Key<T> {
+
+		/** The index of the value in the contexts. */
+		private final int index = keyCount.getAndIncrement();
+
+		/**
+		 * Creates the value of this key in a new context.
+		 *
+		 * @return the value, not null
+		 */
+		protected abstract T initialValue();
+
+	}
+
+}
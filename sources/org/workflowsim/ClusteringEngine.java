@@ -203,14 +203,12 @@ public final class ClusteringEngine extends SimEntity {
          * WorkflowSim will transfers them when this job is executed
          */
         List<FileItem> fileList = new ArrayList<>();
-        for (FileItem file : list) {
+        for (FileItem file : FileItem.getRealInputFiles(list)) {
             /**
              * To avoid duplicate files
              */
-            if (file.isRealInputFile(list)) {
-                ReplicaCatalog.addFileToStorage(file.getName(), Parameters.SOURCE);
-                fileList.add(file);
-            }
+            ReplicaCatalog.addFileToStorage(file.getName(), Parameters.SOURCE);
+            fileList.add(file);
         }
         job.setFileList(fileList);
         job.setClassType(ClassType.STAGE_IN.value);
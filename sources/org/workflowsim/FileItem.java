@@ -15,7 +15,10 @@
  */
 package org.workflowsim;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import org.workflowsim.utils.Parameters.FileType;
 
 /**
@@ -91,4 +94,27 @@ public class FileItem {
         }
         return false;
     }
+
+    /**
+     * Gets the files of a list that are real input files (see
+     * isRealInputFile), in order, in a single pass over the list
+     *
+     * @param list the files
+     * @return the real input files
+     */
+    public static List<FileItem> getRealInputFiles(List<FileItem> list) {
+        Set<String> outputs = new HashSet<>();
+        for (FileItem file : list) {
+            if (file.getType() == FileType.OUTPUT) {
+                outputs.add(file.getName());
+            }
+        }
+        List<FileItem> inputs = new ArrayList<>();
+        for (FileItem file : list) {
+            if (file.getType() == FileType.INPUT && !outputs.contains(file.getName())) {
+                inputs.add(file);
+            }
+        }
+        return inputs;
+    }
 }
@@ -16,7 +16,9 @@
 package org.workflowsim;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import org.workflowsim.utils.Parameters.FileType;
 
 /**
  * Job is an extention to Task. It is basically a group of tasks. In
@@ -35,6 +37,14 @@ public class Job extends Task {
      */
     private List<Task> taskList;
 
+    /*
+     * The real input files (see FileItem.isRealInputFile) and the output files
+     * of the file list, null until they are classified or after the file list
+     * changes.
+     */
+    private List<FileItem> inputFiles;
+    private List<FileItem> outputFiles;
+
     /**
      * Allocates a new Job object. The job length should be greater than or
      * equal to 1.
@@ -95,4 +105,77 @@ public class Job extends Task {
     public List getParentList() {
         return super.getParentList();
     }
+
+    /**
+     * Sets a file list and clears the classification of the files
+     *
+     * @param list, the file list
+     */
+    @Override
+    public void setFileList(List<FileItem> list) {
+        super.setFileList(list);
+        invalidateFileClassification();
+    }
+
+    /**
+     * Adds a file to existing file list and clears the classification of the
+     * files
+     *
+     * @param file, the file to be added
+     */
+    @Override
+    public void addFile(FileItem file) {
+        super.addFile(file);
+        invalidateFileClassification();
+    }
+
+    /**
+     * Clears the classification of the files, so that it is computed again
+     * when it is next read. It must be called after the file list is changed
+     * in place through getFileList().
+     */
+    public void invalidateFileClassification() {
+        this.inputFiles = null;
+        this.outputFiles = null;
+    }
+
+    /**
+     * Gets the real input files of this job, i.e. the input files that are not
+     * produced within the job (see FileItem.isRealInputFile)
+     *
+     * @return the real input files, in the order of the file list
+     */
+    public List<FileItem> getInputFiles() {
+        classifyFiles();
+        return this.inputFiles;
+    }
+
+    /**
+     * Gets the output files of this job
+     *
+     * @return the output files, in the order of the file list
+     */
+    public List<FileItem> getOutputFiles() {
+        classifyFiles();
+        return this.outputFiles;
+    }
+
+    /**
+     * Classifies the files of this job once, until the file list changes (see
+     * invalidateFileClassification).
+     */
+    private void classifyFiles() {
+        if (this.inputFiles != null) {
+            return;
+        }
+        List<FileItem> fileList = getFileList();
+        List<FileItem> outputs = new ArrayList<>();
+        for (FileItem file : fileList) {
+            if (file.getType() == FileType.OUTPUT) {
+                outputs.add(file);
+            }
+        }
+        this.inputFiles = Collections.unmodifiableList(FileItem.getRealInputFiles(fileList));
+        this.outputFiles = Collections.unmodifiableList(outputs);
+    }
 }
@@ -0,0 +1,256 @@
+/**
+ * Copyright 2012-2013 University Of Southern California
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.workflowsim;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * JobReadinessTracker keeps the jobs of a WorkflowEngine that have not been
+ * submitted yet and tells which of them are ready, i.e. all their parents have
+ * returned. Each pending job has a counter of the parents it still waits for;
+ * when a job returns only its waiting children are visited, and a child whose
+ * counter drops to zero is pushed to the ready queue. Ready jobs are handed out
+ * in the order they were added to the tracker, which is the order of the old
+ * job list.
+ *
+ * @since WorkflowSim Toolkit 1.1
+ * @date Oct 18, 2026
+ */
+public class JobReadinessTracker {
+
+    /**
+     * The ids of the jobs that have returned.
+     */
+    private final BitSet received;
+    /**
+     * The pending jobs, in the order they were added.
+     */
+    private final Map<Job, Entry> pending;
+    /**
+     * The pending jobs waiting for a job, indexed by the id of that job.
+     */
+    private final Map<Integer, List<Entry>> waitingOn;
+    /**
+     * The pending jobs whose parents have all returned.
+     */
+    private final TreeSet<Entry> ready;
+    /**
+     * The sequence number of the next job added.
+     */
+    private long sequence;
+
+    /**
+     * Creates an empty tracker.
+     */
+    public JobReadinessTracker() {
+        this.received = new BitSet();
+        this.pending = new LinkedHashMap<>();
+        this.waitingOn = new HashMap<>();
+        this.ready = new TreeSet<>(new Comparator<Entry>() {
+            @Override
+            public int compare(Entry a, Entry b) {
+                return Long.compare(a.sequence, b.sequence);
+            }
+        });
+        this.sequence = 0;
+    }
+
+    /**
+     * Adds a job to the pending jobs
+     *
+     * @param job the job
+     */
+    public void add(Job job) {
+        if (pending.containsKey(job)) {
+            return;
+        }
+        Entry entry = new Entry(job, sequence++);
+        pending.put(job, entry);
+        registerParents(entry);
+    }
+
+    /**
+     * Adds jobs to the pending jobs
+     *
+     * @param list the jobs
+     */
+    public void addAll(List<? extends Job> list) {
+        for (Job job : list) {
+            add(job);
+        }
+    }
+
+    /**
+     * Removes all the pending jobs. The returned jobs are kept.
+     */
+    public void clearPending() {
+        pending.clear();
+        waitingOn.clear();
+        ready.clear();
+    }
+
+    /**
+     * Takes into account the parents appended to the parent list of a pending
+     * job since it was added (ReclusteringEngine appends retry jobs to the
+     * parent list of the children of a failed job).
+     *
+     * @param task the job
+     */
+    public void refreshParents(Task task) {
+        Entry entry = pending.get(task);
+        if (entry != null) {
+            registerParents(entry);
+        }
+    }
+
+    /**
+     * Marks a job as returned and wakes up the pending jobs that were only
+     * waiting for it.
+     *
+     * @param id the id of the job
+     */
+    public void markReceived(int id) {
+        if (received.get(id)) {
+            return;
+        }
+        received.set(id);
+        List<Entry> waiters = waitingOn.remove(id);
+        if (waiters == null) {
+            return;
+        }
+        for (Entry entry : waiters) {
+            entry.remaining--;
+            if (entry.remaining == 0 && pending.get(entry.job) == entry) {
+                ready.add(entry);
+            }
+        }
+    }
+
+    /**
+     * Checks whether a job has returned
+     *
+     * @param id the id of the job
+     * @return whether it has returned
+     */
+    public boolean isReceived(int id) {
+        return id >= 0 && received.get(id);
+    }
+
+    /**
+     * Removes the ready jobs from the pending jobs. A job that has itself
+     * returned already is never submitted again and stays pending.
+     *
+     * @param list the list the ready jobs are appended to, in order
+     * @return the number of jobs appended
+     */
+    public int pollReady(List<Job> list) {
+        int count = 0;
+        for (Entry entry : ready) {
+            if (!isReceived(entry.job.getCloudletId())) {
+                pending.remove(entry.job);
+                list.add(entry.job);
+                count++;
+            }
+        }
+        ready.clear();
+        return count;
+    }
+
+    /**
+     * Gets the number of pending jobs
+     *
+     * @return the number of pending jobs
+     */
+    public int size() {
+        return pending.size();
+    }
+
+    /**
+     * Checks whether there is no pending job
+     *
+     * @return whether there is no pending job
+     */
+    public boolean isEmpty() {
+        return pending.isEmpty();
+    }
+
+    /**
+     * Gets the pending jobs
+     *
+     * @return a copy of the pending jobs, in order
+     */
+    public List<Job> getPendingJobs() {
+        return new ArrayList<>(pending.keySet());
+    }
+
+    /**
+     * Counts the parents of a job that have not returned, starting from the
+     * first parent not counted yet.
+     *
+     * @param entry the entry of the job
+     */
+    private void registerParents(Entry entry) {
+        // Job.getParentList is raw, the parents as tasks are enough for their ids
+        List<Task> parentList = ((Task) entry.job).getParentList();
+        for (int i = entry.registered; i < parentList.size(); i++) {
+            int parentId = parentList.get(i).getCloudletId();
+            if (!isReceived(parentId)) {
+                entry.remaining++;
+                List<Entry> waiters = waitingOn.get(parentId);
+                if (waiters == null) {
+                    waiters = new ArrayList<>();
+                    waitingOn.put(parentId, waiters);
+                }
+                waiters.add(entry);
+            }
+        }
+        entry.registered = parentList.size();
+        if (entry.remaining == 0) {
+            ready.add(entry);
+        } else {
+            ready.remove(entry);
+        }
+    }
+
+    /**
+     * The readiness state of a pending job
+     */
+    private static final class Entry {
+
+        private final Job job;
+        private final long sequence;
+        /**
+         * The number of parents (with repetitions) that have not returned.
+         */
+        private int remaining;
+        /**
+         * The number of entries of the parent list already counted.
+         */
+        private int registered;
+
+        private Entry(Job job, long sequence) {
+            this.job = job;
+            this.sequence = sequence;
+        }
+    }
+}
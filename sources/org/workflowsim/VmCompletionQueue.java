@@ -0,0 +1,157 @@
+/**
+ * Copyright 2012-2013 University Of Southern California
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.workflowsim;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * VmCompletionQueue is an indexed min-heap of the time each VM of a datacenter
+ * expects its next cloudlet to finish. The VMs are numbered from 0 and the
+ * time of a VM can be changed in O(log n), so a datacenter only has to update
+ * the VMs that have changed or whose next completion is due.
+ *
+ * @since WorkflowSim Toolkit 1.1
+ * @date Oct 18, 2026
+ */
+class VmCompletionQueue {
+
+    /**
+     * The VMs, ordered as a binary heap on their times.
+     */
+    private final int[] heap;
+    /**
+     * The position of each VM in the heap.
+     */
+    private final int[] position;
+    /**
+     * The next completion time of each VM, Double.MAX_VALUE if none.
+     */
+    private final double[] time;
+
+    /**
+     * Creates a queue where no VM expects a completion
+     *
+     * @param size the number of VMs
+     */
+    VmCompletionQueue(int size) {
+        this.heap = new int[size];
+        this.position = new int[size];
+        this.time = new double[size];
+        for (int i = 0; i < size; i++) {
+            heap[i] = i;
+            position[i] = i;
+        }
+        Arrays.fill(time, Double.MAX_VALUE);
+    }
+
+    /**
+     * Gets the earliest completion time
+     *
+     * @return the time, Double.MAX_VALUE if no VM expects a completion
+     */
+    double peekTime() {
+        return heap.length == 0 ? Double.MAX_VALUE : time[heap[0]];
+    }
+
+    /**
+     * Gets the next completion time of a VM
+     *
+     * @param vm the VM
+     * @return the time, Double.MAX_VALUE if none
+     */
+    double getTime(int vm) {
+        return time[vm];
+    }
+
+    /**
+     * Sets the next completion time of a VM
+     *
+     * @param vm the VM
+     * @param newTime the time, Double.MAX_VALUE if none
+     */
+    void update(int vm, double newTime) {
+        double oldTime = time[vm];
+        time[vm] = newTime;
+        if (newTime < oldTime) {
+            siftUp(position[vm]);
+        } else if (newTime > oldTime) {
+            siftDown(position[vm]);
+        }
+    }
+
+    /**
+     * Adds the VMs whose next completion is at or before a time to a set
+     *
+     * @param now the time
+     * @param due the set
+     */
+    void collectDue(double now, BitSet due) {
+        collectDue(0, now, due);
+    }
+
+    private void collectDue(int pos, double now, BitSet due) {
+        if (pos < heap.length && time[heap[pos]] <= now) {
+            due.set(heap[pos]);
+            collectDue(2 * pos + 1, now, due);
+            collectDue(2 * pos + 2, now, due);
+        }
+    }
+
+    private void siftUp(int pos) {
+        int vm = heap[pos];
+        while (pos > 0) {
+            int parent = (pos - 1) / 2;
+            if (!less(vm, heap[parent])) {
+                break;
+            }
+            place(heap[parent], pos);
+            pos = parent;
+        }
+        place(vm, pos);
+    }
+
+    private void siftDown(int pos) {
+        int vm = heap[pos];
+        while (true) {
+            int child = 2 * pos + 1;
+            if (child >= heap.length) {
+                break;
+            }
+            if (child + 1 < heap.length && less(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!less(heap[child], vm)) {
+                break;
+            }
+            place(heap[child], pos);
+            pos = child;
+        }
+        place(vm, pos);
+    }
+
+    /**
+     * Orders the VMs by time, then by number
+     */
+    private boolean less(int a, int b) {
+        return time[a] < time[b] || (time[a] == time[b] && a < b);
+    }
+
+    private void place(int vm, int pos) {
+        heap[pos] = vm;
+        position[vm] = pos;
+    }
+}
@@ -0,0 +1,374 @@
+/**
+ * Copyright 2012-2013 University Of Southern California
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.workflowsim;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.workflowsim.utils.Parameters;
+import org.workflowsim.utils.Parameters.FileType;
+
+/**
+ * WorkflowCache stores parsed DAX files in a compact binary format, so that
+ * later runs on the same DAX can skip the XML parsing. A compiled workflow
+ * holds the tasks (length, cores, runtime, depth, type), the files they use
+ * with a table of interned names, and the parent/child edges in compressed
+ * sparse row form. It is written the first time a DAX is parsed and memory
+ * mapped on the next runs. An entry is keyed by the path of the DAX, its last
+ * modification time and size, and the runtime scale, since task lengths are
+ * scaled when they are parsed.
+ *
+ * @since WorkflowSim Toolkit 1.1
+ * @date Oct 18, 2026
+ */
+public class WorkflowCache {
+
+    /**
+     * The magic number of a compiled workflow ("WFC1").
+     */
+    private static final int MAGIC = 0x57464331;
+    /**
+     * The suffix of compiled workflows.
+     */
+    private static final String SUFFIX = ".wfc";
+    /**
+     * The directory of the compiled workflows.
+     */
+    private final File directory;
+
+    /**
+     * Creates a cache in a directory
+     *
+     * @param directory the directory, created if needed
+     */
+    public WorkflowCache(String directory) {
+        this.directory = new File(directory);
+    }
+
+    /**
+     * Gets the file holding the compiled version of a DAX file
+     *
+     * @param daxPath the DAX file
+     * @return the compiled workflow file
+     */
+    public File getCacheFile(String daxPath) {
+        String path = new File(daxPath).getAbsolutePath();
+        String name = new File(daxPath).getName() + "-" + Integer.toHexString(path.hashCode())
+                + "-" + Long.toHexString(Double.doubleToLongBits(Parameters.getRuntimeScale())) + SUFFIX;
+        return new File(directory, name);
+    }
+
+    /**
+     * Loads the compiled version of a DAX file
+     *
+     * @param daxPath the DAX file
+     * @return the compiled workflow, or null if there is none or it is stale
+     */
+    public Snapshot load(String daxPath) {
+        File dax = new File(daxPath);
+        File file = getCacheFile(daxPath);
+        if (!dax.isFile() || !file.isFile()) {
+            return null;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+                FileChannel channel = raf.getChannel()) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC
+                    || !readString(buffer).equals(dax.getAbsolutePath())
+                    || buffer.getLong() != dax.lastModified()
+                    || buffer.getLong() != dax.length()
+                    || buffer.getDouble() != Parameters.getRuntimeScale()) {
+                return null;
+            }
+            Snapshot snapshot = new Snapshot();
+            snapshot.names = new String[buffer.getInt()];
+            for (int i = 0; i < snapshot.names.length; i++) {
+                snapshot.names[i] = readString(buffer);
+            }
+            int tasks = buffer.getInt();
+            snapshot.length = readLongs(buffer, tasks);
+            snapshot.cores = readDoubles(buffer, tasks);
+            snapshot.execTime = readDoubles(buffer, tasks);
+            snapshot.depth = readInts(buffer, tasks);
+            snapshot.type = readInts(buffer, tasks);
+            snapshot.fileOffset = readInts(buffer, tasks + 1);
+            int files = snapshot.fileOffset[tasks];
+            snapshot.fileName = readInts(buffer, files);
+            snapshot.fileSize = readDoubles(buffer, files);
+            snapshot.fileType = new byte[files];
+            buffer.get(snapshot.fileType);
+            snapshot.parentOffset = readInts(buffer, tasks + 1);
+            snapshot.parentIndex = readInts(buffer, snapshot.parentOffset[tasks]);
+            snapshot.childOffset = readInts(buffer, tasks + 1);
+            snapshot.childIndex = readInts(buffer, snapshot.childOffset[tasks]);
+            return snapshot;
+        } catch (IOException | RuntimeException e) {
+            // a truncated or corrupted entry is parsed again
+            return null;
+        }
+    }
+
+    /**
+     * Stores the compiled version of a DAX file. The entry is written to a
+     * temporary file first, so that concurrent runs never read a partial
+     * entry.
+     *
+     * @param daxPath the DAX file
+     * @param snapshot the compiled workflow
+     * @throws IOException if the entry cannot be written
+     */
+    public void store(String daxPath, Snapshot snapshot) throws IOException {
+        File dax = new File(daxPath);
+        if (!directory.isDirectory() && !directory.mkdirs() && !directory.isDirectory()) {
+            throw new IOException("Cannot create " + directory);
+        }
+        File file = getCacheFile(daxPath);
+        File tmp = File.createTempFile(file.getName(), ".tmp", directory);
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                writeString(out, dax.getAbsolutePath());
+                out.writeLong(dax.lastModified());
+                out.writeLong(dax.length());
+                out.writeDouble(Parameters.getRuntimeScale());
+                out.writeInt(snapshot.names.length);
+                for (String name : snapshot.names) {
+                    writeString(out, name);
+                }
+                int tasks = snapshot.length.length;
+                out.writeInt(tasks);
+                for (long value : snapshot.length) {
+                    out.writeLong(value);
+                }
+                writeDoubles(out, snapshot.cores);
+                writeDoubles(out, snapshot.execTime);
+                writeInts(out, snapshot.depth);
+                writeInts(out, snapshot.type);
+                writeInts(out, snapshot.fileOffset);
+                writeInts(out, snapshot.fileName);
+                writeDoubles(out, snapshot.fileSize);
+                out.write(snapshot.fileType);
+                writeInts(out, snapshot.parentOffset);
+                writeInts(out, snapshot.parentIndex);
+                writeInts(out, snapshot.childOffset);
+                writeInts(out, snapshot.childIndex);
+            }
+            try {
+                Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            if (tmp.exists()) {
+                tmp.delete();
+            }
+        }
+    }
+
+    private static String readString(MappedByteBuffer buffer) {
+        int size = buffer.getInt();
+        if (size < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[size];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int[] readInts(MappedByteBuffer buffer, int size) {
+        int[] values = new int[size];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + size * 4);
+        return values;
+    }
+
+    private static long[] readLongs(MappedByteBuffer buffer, int size) {
+        long[] values = new long[size];
+        buffer.asLongBuffer().get(values);
+        buffer.position(buffer.position() + size * 8);
+        return values;
+    }
+
+    private static double[] readDoubles(MappedByteBuffer buffer, int size) {
+        double[] values = new double[size];
+        buffer.asDoubleBuffer().get(values);
+        buffer.position(buffer.position() + size * 8);
+        return values;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    private static void writeDoubles(DataOutputStream out, double[] values) throws IOException {
+        for (double value : values) {
+            out.writeDouble(value);
+        }
+    }
+
+    /**
+     * A compiled workflow. Tasks are numbered from 0 in the order they were
+     * parsed; files are the uses of files by the tasks, in order, with the
+     * size and type declared in the DAX.
+     */
+    public static class Snapshot {
+
+        /**
+         * The interned file names and task types.
+         */
+        String[] names;
+        long[] length;
+        double[] cores;
+        double[] execTime;
+        int[] depth;
+        /**
+         * The type of each task, as an index in names (-1 if none).
+         */
+        int[] type;
+        /**
+         * The files of task i are fileOffset[i] to fileOffset[i + 1] - 1.
+         */
+        int[] fileOffset;
+        int[] fileName;
+        double[] fileSize;
+        byte[] fileType;
+        int[] parentOffset;
+        int[] parentIndex;
+        int[] childOffset;
+        int[] childIndex;
+
+        /**
+         * Gets the number of tasks
+         *
+         * @return the number of tasks
+         */
+        public int size() {
+            return length.length;
+        }
+
+        /**
+         * Compiles the tasks parsed from a DAX file
+         *
+         * @param tasks the tasks, in the order they were parsed
+         * @param sizes the size declared by each use of a file, in order
+         * @param types the type declared by each use of a file, in order
+         * @return the compiled workflow
+         */
+        public static Snapshot of(List<Task> tasks, List<Double> sizes, List<FileType> types) {
+            Snapshot snapshot = new Snapshot();
+            int n = tasks.size();
+            Map<Task, Integer> index = new IdentityHashMap<>(n);
+            for (int i = 0; i < n; i++) {
+                index.put(tasks.get(i), i);
+            }
+            Map<String, Integer> names = new HashMap<>();
+            snapshot.length = new long[n];
+            snapshot.cores = new double[n];
+            snapshot.execTime = new double[n];
+            snapshot.depth = new int[n];
+            snapshot.type = new int[n];
+            snapshot.fileOffset = new int[n + 1];
+            snapshot.parentOffset = new int[n + 1];
+            snapshot.childOffset = new int[n + 1];
+            for (int i = 0; i < n; i++) {
+                Task task = tasks.get(i);
+                snapshot.length[i] = task.getCloudletLength();
+                snapshot.cores[i] = task.getCores();
+                snapshot.execTime[i] = task.getExecTime();
+                snapshot.depth[i] = task.getDepth();
+                snapshot.type[i] = intern(names, task.getType());
+                snapshot.fileOffset[i + 1] = snapshot.fileOffset[i] + task.getFileList().size();
+                snapshot.parentOffset[i + 1] = snapshot.parentOffset[i] + task.getParentList().size();
+                snapshot.childOffset[i + 1] = snapshot.childOffset[i] + task.getChildList().size();
+            }
+            int files = snapshot.fileOffset[n];
+            snapshot.fileName = new int[files];
+            snapshot.fileSize = new double[files];
+            snapshot.fileType = new byte[files];
+            snapshot.parentIndex = new int[snapshot.parentOffset[n]];
+            snapshot.childIndex = new int[snapshot.childOffset[n]];
+            int f = 0;
+            for (int i = 0; i < n; i++) {
+                Task task = tasks.get(i);
+                for (FileItem file : task.getFileList()) {
+                    snapshot.fileName[f] = intern(names, file.getName());
+                    snapshot.fileSize[f] = sizes.get(f);
+                    snapshot.fileType[f] = (byte) types.get(f).ordinal();
+                    f++;
+                }
+                int p = snapshot.parentOffset[i];
+                for (Task parent : task.getParentList()) {
+                    snapshot.parentIndex[p++] = indexOf(index, parent);
+                }
+                int c = snapshot.childOffset[i];
+                for (Task child : task.getChildList()) {
+                    snapshot.childIndex[c++] = indexOf(index, child);
+                }
+            }
+            snapshot.names = new String[names.size()];
+            for (Map.Entry<String, Integer> entry : names.entrySet()) {
+                snapshot.names[entry.getValue()] = entry.getKey();
+            }
+            return snapshot;
+        }
+
+        private static int indexOf(Map<Task, Integer> index, Task task) {
+            Integer id = index.get(task);
+            if (id == null) {
+                throw new IllegalArgumentException("Task " + task.getCloudletId() + " is not part of the workflow");
+            }
+            return id;
+        }
+
+        private static int intern(Map<String, Integer> names, String name) {
+            if (name == null) {
+                return -1;
+            }
+            Integer id = names.get(name);
+            if (id == null) {
+                id = names.size();
+                names.put(name, id);
+            }
+            return id;
+        }
+    }
+}
@@ -15,8 +15,11 @@
  */
 package org.workflowsim;
 
-import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import org.cloudbus.cloudsim.Cloudlet;
 import org.cloudbus.cloudsim.CloudletScheduler;
 import org.cloudbus.cloudsim.Consts;
@@ -45,6 +48,76 @@ import org.workflowsim.utils.Parameters.FileType;
  */
 public class WorkflowDatacenter extends Datacenter {
 
+    /**
+     * The VMs of the hosts, in the order of the hosts, null until they are
+     * indexed.
+     */
+    private List<Vm> vms;
+    /**
+     * The position of each VM in vms.
+     */
+    private Map<Vm, Integer> vmIndex;
+    /**
+     * The next completion time of each VM.
+     */
+    private VmCompletionQueue completions;
+    /**
+     * The VMs that got a cloudlet since they were last updated.
+     */
+    private BitSet dirtyVms;
+    /**
+     * The VMs updated or given a cloudlet since the last completion check.
+     */
+    private BitSet touchedVms;
+    /**
+     * Whether the VMs or their cloudlets may have changed in a way the index
+     * does not track, in which case all of them are updated and checked.
+     */
+    private boolean vmIndexStale = true;
+    /**
+     * The pending update event, null if there is none. The event carries its
+     * timer, so the events of the timers that were replaced are ignored.
+     */
+    private UpdateTimer timer;
+    /**
+     * The earliest update requested for a time after the pending timer,
+     * including the times of the timers it replaced, Double.MAX_VALUE if none.
+     * It is requested again once the timer fires, in case the update is
+     * skipped at that time.
+     */
+    private double deferredUpdateTime = Double.MAX_VALUE;
+    /**
+     * The number of update events scheduled.
+     */
+    private long updateEventsScheduled;
+    /**
+     * The number of updates requested that the pending timer already covered.
+     */
+    private long updateEventsMerged;
+    /**
+     * The number of update events cancelled because an earlier one was needed.
+     */
+    private long updateEventsCancelled;
+    /**
+     * The number of update events processed.
+     */
+    private long updateEventsProcessed;
+
+    /**
+     * The data of an update event sent by the timer of this datacenter.
+     */
+    private static final class UpdateTimer {
+
+        /**
+         * The time the event happens.
+         */
+        private final double time;
+
+        UpdateTimer(double time) {
+            this.time = time;
+        }
+    }
+
     public WorkflowDatacenter(String name,
             DatacenterCharacteristics characteristics,
             VmAllocationPolicy vmAllocationPolicy,
@@ -53,6 +126,153 @@ public class WorkflowDatacenter extends Datacenter {
         super(name, characteristics, vmAllocationPolicy, storageList, schedulingInterval);
     }
 
+    /**
+     * Processes events. The events other than cloudlet submissions, status
+     * queries and updates may change the VMs or their cloudlets, so the next
+     * update visits all of them. The update events of cancelled timers are
+     * dropped.
+     *
+     * @param ev a SimEvent object
+     */
+    @Override
+    public void processEvent(SimEvent ev) {
+        switch (ev.getTag()) {
+            case CloudSimTags.VM_DATACENTER_EVENT:
+                if (ev.getData() instanceof UpdateTimer) {
+                    processUpdateTimer(ev);
+                    return;
+                }
+                updateEventsProcessed++;
+                break;
+            case CloudSimTags.CLOUDLET_SUBMIT:
+            case CloudSimTags.CLOUDLET_SUBMIT_ACK:
+            case CloudSimTags.CLOUDLET_STATUS:
+            case CloudSimTags.RESOURCE_CHARACTERISTICS:
+            case CloudSimTags.RESOURCE_DYNAMICS:
+            case CloudSimTags.RESOURCE_NUM_PE:
+            case CloudSimTags.RESOURCE_NUM_FREE_PE:
+                break;
+            default:
+                vmIndexStale = true;
+                break;
+        }
+        super.processEvent(ev);
+    }
+
+    /**
+     * Processes the event of an update timer. If the timer has not been
+     * cancelled, the VMs are updated and the updates deferred while it was
+     * pending are requested again.
+     *
+     * @param ev the update event
+     */
+    private void processUpdateTimer(SimEvent ev) {
+        if (ev.getData() != timer) {
+            return;
+        }
+        timer = null;
+        double deferred = deferredUpdateTime;
+        deferredUpdateTime = Double.MAX_VALUE;
+        updateEventsProcessed++;
+        super.processEvent(ev);
+        if (deferred != Double.MAX_VALUE && deferred > CloudSim.clock()) {
+            scheduleUpdate(deferred - CloudSim.clock());
+        }
+    }
+
+    /**
+     * Requests an update of the VMs after a delay. Without deduplicated
+     * update events (see Parameters.setDeduplicatedUpdates()), every request
+     * sends its own VM_DATACENTER_EVENT. Otherwise the datacenter keeps a
+     * single timer, which is only replaced when the update is needed earlier.
+     *
+     * @param delay the delay
+     */
+    private void scheduleUpdate(double delay) {
+        if (!Parameters.isDeduplicatedUpdates()) {
+            updateEventsScheduled++;
+            schedule(getId(), delay, CloudSimTags.VM_DATACENTER_EVENT);
+            return;
+        }
+        double time = CloudSim.clock() + delay;
+        if (timer != null) {
+            if (timer.time <= time) {
+                updateEventsMerged++;
+                if (timer.time < time && time < deferredUpdateTime) {
+                    deferredUpdateTime = time;
+                }
+                return;
+            }
+            updateEventsCancelled++;
+            if (timer.time < deferredUpdateTime) {
+                deferredUpdateTime = timer.time;
+            }
+        }
+        timer = new UpdateTimer(time);
+        updateEventsScheduled++;
+        schedule(getId(), delay, CloudSimTags.VM_DATACENTER_EVENT, timer);
+    }
+
+    /**
+     * Requests an update at the next completion of a VM that got a cloudlet.
+     * The cloudlet schedulers do not agree on whether the estimated finish
+     * time of a submitted cloudlet is a time or a delay, so the VM is updated
+     * to the current time and gives its next completion time instead.
+     *
+     * @param vm the VM
+     */
+    private void scheduleVmUpdate(Vm vm) {
+        double time = vm.updateVmProcessing(CloudSim.clock(),
+                vm.getHost().getVmScheduler().getAllocatedMipsForVm(vm));
+        Integer i = vmIndex == null || vmIndexStale ? null : vmIndex.get(vm);
+        if (i != null) {
+            completions.update(i, time > 0.0 ? time : Double.MAX_VALUE);
+        }
+        if (time > 0.0 && time != Double.MAX_VALUE) {
+            scheduleUpdate(Math.max(time - CloudSim.clock(), CloudSim.getMinTimeBetweenEvents()));
+        }
+    }
+
+    /**
+     * Gets the number of VM_DATACENTER_EVENTs this datacenter scheduled for
+     * itself
+     *
+     * @return the number of update events scheduled
+     */
+    public long getUpdateEventsScheduled() {
+        return updateEventsScheduled;
+    }
+
+    /**
+     * Gets the number of update requests that did not schedule an event
+     * because the pending one was early enough
+     *
+     * @return the number of update requests merged
+     */
+    public long getUpdateEventsMerged() {
+        return updateEventsMerged;
+    }
+
+    /**
+     * Gets the number of update events cancelled because an earlier one was
+     * needed
+     *
+     * @return the number of update events cancelled
+     */
+    public long getUpdateEventsCancelled() {
+        return updateEventsCancelled;
+    }
+
+    /**
+     * Gets the number of VM_DATACENTER_EVENTs processed, including the ones
+     * sent by other entities
+     *
+     * @return the number of update events processed
+     */
+    public long getUpdateEventsProcessed() {
+        return updateEventsProcessed;
+    }
+
     /**
      * Processes a Cloudlet submission. The cloudlet is actually a job which can
      * be cast to org.workflowsim.Job
@@ -73,11 +293,10 @@ public class WorkflowDatacenter extends Datacenter {
             Job job = (Job) ev.getData();
 
             if (job.isFinished()) {
-                String name = CloudSim.getEntityName(job.getUserId());
-                Log.printLine(getName() + ": Warning - Cloudlet #" + job.getCloudletId() + " owned by " + name
-                        + " is already completed/finished.");
-                Log.printLine("Therefore, it is not being executed again");
-                Log.printLine();
+                Log.formatLine(Log.Level.WARN, "%s: Warning - Cloudlet #%d owned by %s is already completed/finished.",
+                        getName(), job.getCloudletId(), CloudSim.getEntityName(job.getUserId()));
+                Log.printLine(Log.Level.WARN, "Therefore, it is not being executed again");
+                Log.printLine(Log.Level.WARN, "");
 
                 // NOTE: If a Cloudlet has finished, then it won't be processed.
                 // So, if ack is required, this method sends back a result.
@@ -102,8 +321,7 @@ public class WorkflowDatacenter extends Datacenter {
 
             int userId = job.getUserId();
             int vmId = job.getVmId();
-            Host host = getVmAllocationPolicy().getHost(vmId, userId);
-            CondorVM vm = (CondorVM) host.getVm(vmId, userId);
+            CondorVM vm = (CondorVM) getVmAllocationPolicy().getVm(vmId, userId);
 
             switch (Parameters.getCostModel()) {
                 case DATACENTER:
@@ -134,14 +352,20 @@ public class WorkflowDatacenter extends Datacenter {
             }
 
             CloudletScheduler scheduler = vm.getCloudletScheduler();
+            catchUpVm(vm);
             double estimatedFinishTime = scheduler.cloudletSubmit(job, fileTransferTime);
             updateTaskExecTime(job, vm);
+            markVmDirty(vm);
 
             // if this cloudlet is in the exec queue
             if (estimatedFinishTime > 0.0 && !Double.isInfinite(estimatedFinishTime)) {
-                send(getId(), estimatedFinishTime, CloudSimTags.VM_DATACENTER_EVENT);
+                if (Parameters.isDeduplicatedUpdates()) {
+                    scheduleVmUpdate(vm);
+                } else {
+                    scheduleUpdate(estimatedFinishTime);
+                }
             } else {
-                Log.printLine("Warning: You schedule cloudlet to a busy VM");
+                Log.printLine(Log.Level.WARN, "Warning: You schedule cloudlet to a busy VM");
             }
 
             if (ack) {
@@ -154,9 +378,9 @@ public class WorkflowDatacenter extends Datacenter {
                 sendNow(job.getUserId(), tag, data);
             }
         } catch (ClassCastException c) {
-            Log.printLine(getName() + ".processCloudletSubmit(): " + "ClassCastException error.");
+            Log.formatLine(Log.Level.ERROR, "%s.processCloudletSubmit(): ClassCastException error.", getName());
         } catch (Exception e) {
-            Log.printLine(getName() + ".processCloudletSubmit(): " + "Exception error.");
+            Log.formatLine(Log.Level.ERROR, "%s.processCloudletSubmit(): Exception error.", getName());
             e.printStackTrace();
         }
         checkCloudletCompletion();
@@ -227,84 +451,82 @@ public class WorkflowDatacenter extends Datacenter {
      */
     protected double processDataStageInForComputeJob(List<FileItem> requiredFiles, Job job) throws Exception {
         double time = 0.0;
-        for (FileItem file : requiredFiles) {
-            //The input file is not an output File 
-            if (file.isRealInputFile(requiredFiles)) {
-                double maxBwth = 0.0;
-                List siteList = ReplicaCatalog.getStorageList(file.getName());
-                if (siteList.isEmpty()) {
-                    throw new Exception(file.getName() + " does not exist");
-                }
-                switch (ReplicaCatalog.getFileSystem()) {
-                    case SHARED:
-                        //stage-in job
-                        /**
-                         * Picks up the site that is closest
-                         */
-                        double maxRate = Double.MIN_VALUE;
-                        for (Storage storage : getStorageList()) {
-                            double rate = storage.getMaxTransferRate();
-                            if (rate > maxRate) {
-                                maxRate = rate;
-                            }
+        //The input files that are not output files
+        List<FileItem> inputFiles = requiredFiles == job.getFileList()
+                ? job.getInputFiles() : FileItem.getRealInputFiles(requiredFiles);
+        for (FileItem file : inputFiles) {
+            double maxBwth = 0.0;
+            int fileId = ReplicaCatalog.getFileId(file.getName());
+            if (!ReplicaCatalog.hasReplica(fileId)) {
+                throw new Exception(file.getName() + " does not exist");
+            }
+            switch (ReplicaCatalog.getFileSystem()) {
+                case SHARED:
+                    //stage-in job
+                    /**
+                     * Picks up the site that is closest
+                     */
+                    double maxRate = Double.MIN_VALUE;
+                    for (Storage storage : getStorageList()) {
+                        double rate = storage.getMaxTransferRate();
+                        if (rate > maxRate) {
+                            maxRate = rate;
                         }
-                        //Storage storage = getStorageList().get(0);
-                        time += file.getSize() / (double) Consts.MILLION / maxRate;
-                        break;
-                    case LOCAL:
-                        int vmId = job.getVmId();
-                        int userId = job.getUserId();
-                        Host host = getVmAllocationPolicy().getHost(vmId, userId);
-                        Vm vm = host.getVm(vmId, userId);
-
-                        boolean requiredFileStagein = true;
-                        for (Iterator it = siteList.iterator(); it.hasNext();) {
-                            //site is where one replica of this data is located at
-                            String site = (String) it.next();
-                            if (site.equals(this.getName())) {
-                                continue;
-                            }
-                            /**
-                             * This file is already in the local vm and thus it
-                             * is no need to transfer
-                             */
-                            if (site.equals(Integer.toString(vmId))) {
-                                requiredFileStagein = false;
-                                break;
-                            }
-                            double bwth;
-                            if (site.equals(Parameters.SOURCE)) {
-                                //transfers from the source to the VM is limited to the VM bw only
-                                bwth = vm.getBw();
-                                //bwth = dcStorage.getBaseBandwidth();
-                            } else {
-                                //transfers between two VMs is limited to both VMs
-                                bwth = Math.min(vm.getBw(), getVmAllocationPolicy().getHost(Integer.parseInt(site), userId).getVm(Integer.parseInt(site), userId).getBw());
-                                //bwth = dcStorage.getBandwidth(Integer.parseInt(site), vmId);
-                            }
+                    }
+                    //Storage storage = getStorageList().get(0);
+                    time += file.getSize() / (double) Consts.MILLION / maxRate;
+                    break;
+                case LOCAL:
+                    int vmId = job.getVmId();
+                    int userId = job.getUserId();
+                    Vm vm = getVmAllocationPolicy().getVm(vmId, userId);
+
+                    /**
+                     * This file is already in the local vm and thus it is
+                     * no need to transfer
+                     */
+                    boolean requiredFileStagein = !ReplicaCatalog.isFileOnVm(fileId, vmId);
+                    if (requiredFileStagein) {
+                        //a replica is either at the source, in a datacenter or in another vm
+                        if (ReplicaCatalog.isFileAtSite(fileId, Parameters.SOURCE)) {
+                            //transfers from the source to the VM is limited to the VM bw only
+                            maxBwth = vm.getBw();
+                            //bwth = dcStorage.getBaseBandwidth();
+                        }
+                        BitSet vms = ReplicaCatalog.getVmsOfFile(fileId);
+                        for (int site = vms.nextSetBit(0); site >= 0; site = vms.nextSetBit(site + 1)) {
+                            //transfers between two VMs is limited to both VMs
+                            double bwth = Math.min(vm.getBw(), getVmAllocationPolicy().getVm(site, userId).getBw());
+                            //bwth = dcStorage.getBandwidth(site, vmId);
                             if (bwth > maxBwth) {
                                 maxBwth = bwth;
                             }
                         }
-                        if (requiredFileStagein && maxBwth > 0.0) {
-                            time += file.getSize() / (double) Consts.MILLION / maxBwth;
-                        }
+                    }
+                    if (requiredFileStagein && maxBwth > 0.0) {
+                        time += file.getSize() / (double) Consts.MILLION / maxBwth;
+                    }
 
-                        /**
-                         * For the case when storage is too small it is not
-                         * handled here
-                         */
-                        //We should add but since CondorVm has a small capability it often fails
-                        //We currently don't use this storage to do anything meaningful. It is left for future. 
-                        //condorVm.addLocalFile(file);
-                        ReplicaCatalog.addFileToStorage(file.getName(), Integer.toString(vmId));
-                        break;
-                }
+                    /**
+                     * For the case when storage is too small it is not
+                     * handled here
+                     */
+                    //We should add but since CondorVm has a small capability it often fails
+                    //We currently don't use this storage to do anything meaningful. It is left for future. 
+                    //condorVm.addLocalFile(file);
+                    ReplicaCatalog.addFileToVm(file.getName(), vmId);
+                    break;
             }
         }
         return time;
     }
 
+    /**
+     * Updates the processing of the VMs and schedules the next update at the
+     * earliest completion of all VMs. With incremental VM updates, only the
+     * VMs that got a cloudlet since their last update and those whose next
+     * cloudlet is due are updated.
+     */
     @Override
     protected void updateCloudletProcessing() {
         // if some time passed since last processing
@@ -312,15 +534,34 @@ public class WorkflowDatacenter extends Datacenter {
         // simulation step is skipped and schedulers are not properly initialized
         //this is a bug of CloudSim if the runtime is smaller than 0.1 (now is 0.01) it doesn't work at all
         if (CloudSim.clock() < 0.111 || CloudSim.clock() > getLastProcessTime() + 0.01) {
-            List<? extends Host> list = getVmAllocationPolicy().getHostList();
-            double smallerTime = Double.MAX_VALUE;
-            // for each host...
-            for (Host host : list) {
-                // inform VMs to update processing
-                double time = host.updateVmsProcessing(CloudSim.clock());
-                // what time do we expect that the next cloudlet will finish?
-                if (time < smallerTime) {
-                    smallerTime = time;
+            double smallerTime;
+            if (indexVms()) {
+                BitSet update = (BitSet) dirtyVms.clone();
+                /**
+                 * The events are scheduled with a delay, so they may happen
+                 * a little before the time they were computed for.
+                 */
+                completions.collectDue(CloudSim.clock() + CloudSim.getMinTimeBetweenEvents(), update);
+                dirtyVms.clear();
+                for (int i = update.nextSetBit(0); i >= 0; i = update.nextSetBit(i + 1)) {
+                    Vm vm = vms.get(i);
+                    double time = vm.updateVmProcessing(CloudSim.clock(),
+                            vm.getHost().getVmScheduler().getAllocatedMipsForVm(vm));
+                    completions.update(i, time > 0.0 ? time : Double.MAX_VALUE);
+                }
+                touchedVms.or(update);
+                smallerTime = completions.peekTime();
+            } else {
+                List<? extends Host> list = getVmAllocationPolicy().getHostList();
+                smallerTime = Double.MAX_VALUE;
+                // for each host...
+                for (Host host : list) {
+                    // inform VMs to update processing
+                    double time = host.updateVmsProcessing(CloudSim.clock());
+                    // what time do we expect that the next cloudlet will finish?
+                    if (time < smallerTime) {
+                        smallerTime = time;
+                    }
                 }
             }
             // gurantees a minimal interval before scheduling the event
@@ -328,32 +569,117 @@ public class WorkflowDatacenter extends Datacenter {
                 smallerTime = CloudSim.clock() + 0.11;
             }
             if (smallerTime != Double.MAX_VALUE) {
-                schedule(getId(), (smallerTime - CloudSim.clock()), CloudSimTags.VM_DATACENTER_EVENT);
+                scheduleUpdate(smallerTime - CloudSim.clock());
             }
             setLastProcessTime(CloudSim.clock());
         }
     }
 
+    /**
+     * Indexes the VMs of the hosts if they may have changed. The index is only
+     * used with Parameters.isIncrementalVmUpdates(), and not if a host has its
+     * own way to update its VMs.
+     *
+     * @return whether the VMs are indexed
+     */
+    private boolean indexVms() {
+        if (!vmIndexStale) {
+            return vms != null;
+        }
+        vmIndexStale = false;
+        if (!Parameters.isIncrementalVmUpdates()) {
+            vms = null;
+            return false;
+        }
+        vms = new ArrayList<>();
+        for (Host host : getVmAllocationPolicy().getHostList()) {
+            if (host.getClass() != Host.class) {
+                vms = null;
+                return false;
+            }
+            vms.addAll(host.getVmList());
+        }
+        vmIndex = new IdentityHashMap<>(vms.size());
+        for (int i = 0; i < vms.size(); i++) {
+            vmIndex.put(vms.get(i), i);
+        }
+        completions = new VmCompletionQueue(vms.size());
+        // all the VMs are updated and checked once
+        dirtyVms = new BitSet(vms.size());
+        dirtyVms.set(0, vms.size());
+        touchedVms = new BitSet(vms.size());
+        return true;
+    }
+
+    /**
+     * Brings a VM that has not been updated with the others up to the last
+     * update, as if all VMs had been updated then, before it gets a cloudlet:
+     * the progress of the cloudlet is counted from the last update of its VM.
+     *
+     * @param vm the VM
+     */
+    private void catchUpVm(Vm vm) {
+        Integer i = vmIndex == null || vmIndexStale ? null : vmIndex.get(vm);
+        if (i != null && vm.getCloudletScheduler().getPreviousTime() < getLastProcessTime()) {
+            double time = vm.updateVmProcessing(getLastProcessTime(),
+                    vm.getHost().getVmScheduler().getAllocatedMipsForVm(vm));
+            completions.update(i, time > 0.0 ? time : Double.MAX_VALUE);
+            touchedVms.set(i);
+        }
+    }
+
+    /**
+     * Marks a VM that got a cloudlet, so that it is updated and checked
+     *
+     * @param vm the VM
+     */
+    private void markVmDirty(Vm vm) {
+        Integer i = vmIndex == null ? null : vmIndex.get(vm);
+        if (i == null) {
+            vmIndexStale = true;
+        } else {
+            dirtyVms.set(i);
+            touchedVms.set(i);
+        }
+    }
+
     /**
      * Verifies if some cloudlet inside this PowerDatacenter already finished.
-     * If yes, send it to the User/Broker
+     * If yes, send it to the User/Broker. Only the VMs updated or given a
+     * cloudlet since the last check are visited, in the order of the hosts.
      *
      * @pre $none
      * @post $none
      */
     @Override
     protected void checkCloudletCompletion() {
-        List<? extends Host> list = getVmAllocationPolicy().getHostList();
-        for (Host host : list) {
-            for (Vm vm : host.getVmList()) {
-                while (vm.getCloudletScheduler().isFinishedCloudlets()) {
-                    Cloudlet cl = vm.getCloudletScheduler().getNextFinishedCloudlet();
-                    if (cl != null) {
-                        sendNow(cl.getUserId(), CloudSimTags.CLOUDLET_RETURN, cl);
-                        register(cl);
-                    }
+        if (vmIndexStale || vms == null) {
+            List<? extends Host> list = getVmAllocationPolicy().getHostList();
+            for (Host host : list) {
+                for (Vm vm : host.getVmList()) {
+                    returnFinishedCloudlets(vm);
                 }
             }
+            return;
+        }
+        for (int i = touchedVms.nextSetBit(0); i >= 0; i = touchedVms.nextSetBit(i + 1)) {
+            returnFinishedCloudlets(vms.get(i));
+        }
+        touchedVms.clear();
+    }
+
+    /**
+     * Sends the finished cloudlets of a VM back to their users
+     *
+     * @param vm the VM
+     */
+    private void returnFinishedCloudlets(Vm vm) {
+        while (vm.getCloudletScheduler().isFinishedCloudlets()) {
+            Cloudlet cl = vm.getCloudletScheduler().getNextFinishedCloudlet();
+            if (cl != null) {
+                sendNow(cl.getUserId(), CloudSimTags.CLOUDLET_RETURN, cl);
+                register(cl);
+            }
         }
     }
     /*
@@ -366,7 +692,8 @@ public class WorkflowDatacenter extends Datacenter {
 
     private void register(Cloudlet cl) {
         Task tl = (Task) cl;
-        List<FileItem> fList = tl.getFileList();
+        //a job keeps its output files classified
+        List<FileItem> fList = tl instanceof Job ? ((Job) tl).getOutputFiles() : tl.getFileList();
         for (FileItem file : fList) {
             if (file.getType() == FileType.OUTPUT)//output file
             {
@@ -377,12 +704,11 @@ public class WorkflowDatacenter extends Datacenter {
                     case LOCAL:
                         int vmId = cl.getVmId();
                         int userId = cl.getUserId();
-                        Host host = getVmAllocationPolicy().getHost(vmId, userId);
                         /**
                          * Left here for future work
                          */
-                        CondorVM vm = (CondorVM) host.getVm(vmId, userId);
-                        ReplicaCatalog.addFileToStorage(file.getName(), Integer.toString(vmId));
+                        CondorVM vm = (CondorVM) getVmAllocationPolicy().getVm(vmId, userId);
+                        ReplicaCatalog.addFileToVm(file.getName(), vmId);
                         break;
                 }
             }
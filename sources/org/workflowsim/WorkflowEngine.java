@@ -17,7 +17,6 @@ package org.workflowsim;
 
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import org.cloudbus.cloudsim.Cloudlet;
@@ -41,9 +40,9 @@ import org.workflowsim.utils.Parameters;
 public final class WorkflowEngine extends SimEntity {
 
     /**
-     * The job list.
+     * The jobs that have not been submitted yet.
      */
-    protected List<? extends Cloudlet> jobsList;
+    private JobReadinessTracker readiness;
     /**
      * The job submitted list.
      */
@@ -79,7 +78,7 @@ public final class WorkflowEngine extends SimEntity {
     public WorkflowEngine(String name, int schedulers) throws Exception {
         super(name);
 
-        setJobsList(new ArrayList<>());
+        readiness = new JobReadinessTracker();
         setJobsSubmittedList(new ArrayList<>());
         setJobsReceivedList(new ArrayList<>());
 
@@ -132,7 +131,9 @@ public final class WorkflowEngine extends SimEntity {
      * @param list the list
      */
     public void submitCloudletList(List<? extends Cloudlet> list) {
-        getJobsList().addAll(list);
+        for (Cloudlet cloudlet : list) {
+            readiness.add((Job) cloudlet);
+        }
     }
 
     /**
@@ -202,8 +203,9 @@ public final class WorkflowEngine extends SimEntity {
      * @param ev a SimEvent object
      */
     protected void processJobSubmit(SimEvent ev) {
-        List<? extends Cloudlet> list = (List) ev.getData();
-        setJobsList(list);
+        List<Job> list = (List) ev.getData();
+        readiness.clearPending();
+        readiness.addAll(list);
     }
 
     /**
@@ -218,13 +220,18 @@ public final class WorkflowEngine extends SimEntity {
         Job job = (Job) ev.getData();
         if (job.getCloudletStatus() == Cloudlet.FAILED) {
             // Reclusteringengine will add retry job to jobList
-            int newId = getJobsList().size() + getJobsSubmittedList().size();
-            getJobsList().addAll(ReclusteringEngine.process(job, newId));
+            int newId = readiness.size() + getJobsSubmittedList().size();
+            readiness.addAll(ReclusteringEngine.process(job, newId));
+            // the retry jobs have been appended to the parent lists of the children
+            for (Task child : job.getChildList()) {
+                readiness.refreshParents(child);
+            }
         }
 
         getJobsReceivedList().add(job);
+        readiness.markReceived(job.getCloudletId());
         jobsSubmitted--;
-        if (getJobsList().isEmpty() && jobsSubmitted == 0) {
+        if (readiness.isEmpty() && jobsSubmitted == 0) {
             //send msg to all the schedulers
             for (int i = 0; i < getSchedulerIds().size(); i++) {
                 sendNow(getSchedulerId(i), CloudSimTags.END_OF_SIMULATION, null);
@@ -249,23 +256,6 @@ public final class WorkflowEngine extends SimEntity {
                 + "Error - event unknown by this DatacenterBroker.");
     }
 
-    /**
-     * Checks whether a job list contains a id
-     *
-     * @param jobList the job list
-     * @param id the job id
-     * @return
-     */
-    private boolean hasJobListContainsID(List jobList, int id) {
-        for (Iterator it = jobList.iterator(); it.hasNext();) {
-            Job job = (Job) it.next();
-            if (job.getCloudletId() == id) {
-                return true;
-            }
-        }
-        return false;
-    }
-
     /**
      * Submit jobs to the created VMs.
      *
@@ -274,41 +264,22 @@ public final class WorkflowEngine extends SimEntity {
      */
     protected void submitJobs() {
 
-        List<Job> list = getJobsList();
         Map<Integer, List> allocationList = new HashMap<>();
         for (int i = 0; i < getSchedulers().size(); i++) {
             List<Job> submittedList = new ArrayList<>();
             allocationList.put(getSchedulerId(i), submittedList);
         }
-        int num = list.size();
-        for (int i = 0; i < num; i++) {
-            //at the beginning
-            Job job = list.get(i);
-            //Dont use job.isFinished() it is not right
-            if (!hasJobListContainsID(this.getJobsReceivedList(), job.getCloudletId())) {
-                List<Job> parentList = job.getParentList();
-                boolean flag = true;
-                for (Job parent : parentList) {
-                    if (!hasJobListContainsID(this.getJobsReceivedList(), parent.getCloudletId())) {
-                        flag = false;
-                        break;
-                    }
-                }
-                /**
-                 * This job's parents have all completed successfully. Should
-                 * submit.
-                 */
-                if (flag) {
-                    List submittedList = allocationList.get(job.getUserId());
-                    submittedList.add(job);
-                    jobsSubmitted++;
-                    getJobsSubmittedList().add(job);
-                    list.remove(job);
-                    i--;
-                    num--;
-                }
-            }
-
+        /**
+         * These jobs' parents have all completed successfully. Should submit.
+         * Dont use job.isFinished() it is not right
+         */
+        List<Job> readyList = new ArrayList<>();
+        readiness.pollReady(readyList);
+        for (Job job : readyList) {
+            List submittedList = allocationList.get(job.getUserId());
+            submittedList.add(job);
+            jobsSubmitted++;
+            getJobsSubmittedList().add(job);
         }
         /**
          * If we have multiple schedulers. Divide them equally.
@@ -369,24 +340,14 @@ public final class WorkflowEngine extends SimEntity {
     }
 
     /**
-     * Gets the job list.
+     * Gets the jobs that have not been submitted yet.
      *
      * @param <T> the generic type
-     * @return the job list
+     * @return a copy of the job list
      */
     @SuppressWarnings("unchecked")
     public <T extends Cloudlet> List<T> getJobsList() {
-        return (List<T>) jobsList;
-    }
-
-    /**
-     * Sets the job list.
-     *
-     * @param <T> the generic type
-     * @param cloudletList the new job list
-     */
-    private <T extends Cloudlet> void setJobsList(List<T> jobsList) {
-        this.jobsList = jobsList;
+        return (List<T>) readiness.getPendingJobs();
     }
 
     /**
@@ -0,0 +1,162 @@
+/**
+ * Copyright 2012-2013 University Of Southern California
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.workflowsim;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * WorkflowGraph is a read-only snapshot of the dependencies among a list of
+ * tasks, for planners that walk them many times. The tasks are numbered by
+ * their position in the list and the parents and children of each task are
+ * kept in compressed sparse row arrays: the parents of task i are
+ * parentIndex[parentOffset[i]] to parentIndex[parentOffset[i + 1] - 1], in the
+ * order of its parent list. A parent or child that is not in the list is kept
+ * as -1, so that the positions still match the lists of the task.
+ *
+ * The tasks keep their own lists; the graph is not updated when they change.
+ *
+ * @since WorkflowSim Toolkit 1.1
+ * @date Oct 18, 2026
+ */
+public class WorkflowGraph {
+
+    /**
+     * The parents of each task, in compressed sparse row format.
+     */
+    private final int[] parentOffset;
+    private final int[] parentIndex;
+    /**
+     * The children of each task, in compressed sparse row format.
+     */
+    private final int[] childOffset;
+    private final int[] childIndex;
+
+    private WorkflowGraph(int size, int parentEdges, int childEdges) {
+        this.parentOffset = new int[size + 1];
+        this.parentIndex = new int[parentEdges];
+        this.childOffset = new int[size + 1];
+        this.childIndex = new int[childEdges];
+    }
+
+    /**
+     * Builds the graph of a list of tasks from their parent and child lists.
+     * A task listed twice is numbered by its last position.
+     *
+     * @param list the tasks
+     * @return the graph
+     */
+    public static WorkflowGraph of(List<? extends Task> list) {
+        Map<Task, Integer> index = new IdentityHashMap<>(list.size());
+        int parentEdges = 0;
+        int childEdges = 0;
+        for (int i = 0; i < list.size(); i++) {
+            Task task = list.get(i);
+            index.put(task, i);
+            parentEdges += task.getParentList().size();
+            childEdges += task.getChildList().size();
+        }
+
+        WorkflowGraph graph = new WorkflowGraph(list.size(), parentEdges, childEdges);
+        int p = 0;
+        int c = 0;
+        for (int i = 0; i < list.size(); i++) {
+            Task task = list.get(i);
+            graph.parentOffset[i] = p;
+            for (Task parent : task.getParentList()) {
+                graph.parentIndex[p++] = indexOf(index, parent);
+            }
+            graph.childOffset[i] = c;
+            for (Task child : task.getChildList()) {
+                graph.childIndex[c++] = indexOf(index, child);
+            }
+        }
+        graph.parentOffset[list.size()] = p;
+        graph.childOffset[list.size()] = c;
+        return graph;
+    }
+
+    /**
+     * Gets the position of a parent or child of a task
+     *
+     * @param index the position of each task
+     * @param neighbour the parent or child
+     * @return the position of the neighbour, -1 if it is not in the graph
+     */
+    private static int indexOf(Map<Task, Integer> index, Task neighbour) {
+        Integer position = index.get(neighbour);
+        return position == null ? -1 : position;
+    }
+
+    /**
+     * Gets the number of tasks
+     *
+     * @return the number of tasks
+     */
+    public int size() {
+        return parentOffset.length - 1;
+    }
+
+    /**
+     * Gets the number of parents of a task, as it was when the graph was built
+     *
+     * @param i the position of the task
+     * @return the number of parents
+     */
+    public int getParentCount(int i) {
+        return parentOffset[i + 1] - parentOffset[i];
+    }
+
+    /**
+     * Gets a parent of a task
+     *
+     * @param i the position of the task
+     * @param k the position of the parent in the parent list of the task
+     * @return the position of the parent, -1 if it is not in the graph
+     */
+    public int getParent(int i, int k) {
+        if (k < 0 || k >= getParentCount(i)) {
+            throw new IndexOutOfBoundsException("Index: " + k + ", Size: " + getParentCount(i));
+        }
+        return parentIndex[parentOffset[i] + k];
+    }
+
+    /**
+     * Gets the number of children of a task, as it was when the graph was
+     * built
+     *
+     * @param i the position of the task
+     * @return the number of children
+     */
+    public int getChildCount(int i) {
+        return childOffset[i + 1] - childOffset[i];
+    }
+
+    /**
+     * Gets a child of a task
+     *
+     * @param i the position of the task
+     * @param k the position of the child in the child list of the task
+     * @return the position of the child, -1 if it is not in the graph
+     */
+    public int getChild(int i, int k) {
+        if (k < 0 || k >= getChildCount(i)) {
+            throw new IndexOutOfBoundsException("Index: " + k + ", Size: " + getChildCount(i));
+        }
+        return childIndex[childOffset[i] + k];
+    }
+}
@@ -15,18 +15,29 @@
  */
 package org.workflowsim;
 
+import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.core.SimulationContext;
 import org.jdom2.Document;
 import org.jdom2.Element;
 import org.jdom2.JDOMException;
 import org.jdom2.input.SAXBuilder;
+import org.workflowsim.utils.DagAnalysis;
 import org.workflowsim.utils.Parameters;
 import org.workflowsim.utils.Parameters.FileType;
 import org.workflowsim.utils.ReplicaCatalog;
@@ -86,6 +97,29 @@ public final class WorkflowParser {
      */
     protected Map<String, Task> mName2Task;
 
+    /**
+     * The size and type declared by each use of a file in the DAX file being
+     * parsed, recorded only when the workflow is cached.
+     */
+    private List<Double> declaredSizes;
+    private List<FileType> declaredTypes;
+
+    /**
+     * The input files of the DAX file being compiled by a worker of a parallel
+     * parse, which does not touch the ReplicaCatalog. Null otherwise.
+     */
+    private Map<String, FileItem> fileTable;
+    /**
+     * The messages of the DAX file being compiled by a worker of a parallel
+     * parse, printed when its tasks are merged. Null otherwise.
+     */
+    private StringBuilder messages;
+    /**
+     * The DAX file compiled by a worker of a parallel parse, null if it could
+     * not be compiled.
+     */
+    private WorkflowCache.Snapshot snapshot;
+
     /**
      * Initialize a WorkflowParser
      *
@@ -103,37 +137,208 @@ public final class WorkflowParser {
     }
 
     /**
-     * Start to parse a workflow which is a xml file(s).
+     * Initialize a worker of a parallel parse
+     *
+     * @param userId the user id
+     * @param worker unused, distinguishes this constructor
+     */
+    private WorkflowParser(int userId, boolean worker) {
+        this(userId);
+        this.fileTable = new HashMap<>();
+        this.messages = new StringBuilder();
+    }
+
+    /**
+     * Start to parse a workflow which is a xml file(s). Multiple DAX files are
+     * parsed in parallel if it is set in Parameters.
      */
     public void parse() {
         if (this.daxPath != null) {
             parseXmlFile(this.daxPath);
         } else if (this.daxPaths != null) {
-            for (String path : this.daxPaths) {
-                parseXmlFile(path);
+            if (Parameters.isParallelDaxParsing() && this.daxPaths.size() > 1) {
+                parseXmlFilesInParallel(this.daxPaths);
+            } else {
+                for (String path : this.daxPaths) {
+                    parseXmlFile(path);
+                }
+            }
+        }
+    }
+
+    /**
+     * Parse a DAX file with the parser selected in Parameters. If a workflow
+     * cache is set, the compiled version of the DAX is loaded instead when it
+     * is up to date, and written after parsing otherwise.
+     */
+    private void parseXmlFile(String path) {
+        WorkflowCache cache = null;
+        if (Parameters.getWorkflowCacheDir() != null) {
+            cache = new WorkflowCache(Parameters.getWorkflowCacheDir());
+            WorkflowCache.Snapshot snapshot = cache.load(path);
+            if (snapshot != null) {
+                loadSnapshot(snapshot);
+                return;
+            }
+            declaredSizes = new ArrayList<>();
+            declaredTypes = new ArrayList<>();
+        }
+        int first = getTaskList().size();
+        boolean parsed;
+        switch (Parameters.getDaxParser()) {
+            case STAX:
+                parsed = parseXmlFileWithStax(path);
+                break;
+            default:
+                parsed = parseXmlFileWithJdom(path);
+                break;
+        }
+        if (cache != null) {
+            if (parsed) {
+                List<Task> tasks = getTaskList().subList(first, getTaskList().size());
+                try {
+                    cache.store(path, WorkflowCache.Snapshot.of(tasks, declaredSizes, declaredTypes));
+                } catch (IOException | IllegalArgumentException e) {
+                    printLine("Cannot cache " + path + ": " + e.getMessage());
+                }
             }
+            declaredSizes = null;
+            declaredTypes = null;
         }
     }
 
     /**
-     * Sets the depth of a task
+     * Parses DAX files on a fork-join pool. Each DAX file is compiled by a
+     * worker into a WorkflowCache.Snapshot, without creating ids or touching
+     * the ReplicaCatalog; the snapshots are then loaded one after the other in
+     * the order of the paths. Task ids, shared files and messages are
+     * therefore the same as with a sequential parse, whatever the timing of
+     * the workers.
      *
-     * @param task the task
-     * @param depth the depth
+     * @param paths the DAX files
+     */
+    private void parseXmlFilesInParallel(List<String> paths) {
+        ForkJoinPool pool = new ForkJoinPool();
+        // the workers read the parameters of the simulation of this thread
+        final SimulationContext context = SimulationContext.current();
+        try {
+            List<ForkJoinTask<WorkflowParser>> workers = new ArrayList<>(paths.size());
+            for (final String path : paths) {
+                final Callable<WorkflowParser> compile = new Callable<WorkflowParser>() {
+                    @Override
+                    public WorkflowParser call() {
+                        WorkflowParser worker = new WorkflowParser(userId, true);
+                        worker.compileXmlFile(path);
+                        return worker;
+                    }
+                };
+                workers.add(pool.submit(new Callable<WorkflowParser>() {
+                    @Override
+                    public WorkflowParser call() throws Exception {
+                        return context.call(compile);
+                    }
+                }));
+            }
+            for (ForkJoinTask<WorkflowParser> task : workers) {
+                WorkflowParser worker = task.join();
+                if (worker.messages.length() > 0) {
+                    Log.print(worker.messages.toString());
+                }
+                if (worker.snapshot != null) {
+                    loadSnapshot(worker.snapshot);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Compiles a DAX file into a snapshot, from the workflow cache if it is
+     * set and up to date. Used by the workers of a parallel parse.
+     *
+     * @param path the DAX file
+     */
+    private void compileXmlFile(String path) {
+        WorkflowCache cache = null;
+        if (Parameters.getWorkflowCacheDir() != null) {
+            cache = new WorkflowCache(Parameters.getWorkflowCacheDir());
+            snapshot = cache.load(path);
+            if (snapshot != null) {
+                return;
+            }
+        }
+        declaredSizes = new ArrayList<>();
+        declaredTypes = new ArrayList<>();
+        boolean parsed;
+        switch (Parameters.getDaxParser()) {
+            case STAX:
+                parsed = parseXmlFileWithStax(path);
+                break;
+            default:
+                parsed = parseXmlFileWithJdom(path);
+                break;
+        }
+        try {
+            // the tasks read before an error are kept, as in a sequential parse
+            snapshot = WorkflowCache.Snapshot.of(getTaskList(), declaredSizes, declaredTypes);
+        } catch (IllegalArgumentException e) {
+            printLine("Parsing Exception");
+            return;
+        }
+        if (cache != null && parsed) {
+            try {
+                cache.store(path, snapshot);
+            } catch (IOException e) {
+                printLine("Cannot cache " + path + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Creates the tasks of a compiled workflow, as parsing its DAX would.
+     *
+     * @param snapshot the compiled workflow
      */
-    private void setDepth(Task task, int depth) {
-        if (depth > task.getDepth()) {
-            task.setDepth(depth);
+    private void loadSnapshot(WorkflowCache.Snapshot snapshot) {
+        String[] names = snapshot.names;
+        FileType[] fileTypes = FileType.values();
+        Task[] tasks = new Task[snapshot.size()];
+        for (int i = 0; i < tasks.length; i++) {
+            Task task;
+            //In case of multiple workflow submission. Make sure the jobIdStartsFrom is consistent.
+            synchronized (this) {
+                task = new Task(this.jobIdStartsFrom, snapshot.length[i], snapshot.cores[i]);
+                task.setExecTime(snapshot.execTime[i]);
+                this.jobIdStartsFrom++;
+            }
+            task.setType(snapshot.type[i] < 0 ? null : names[snapshot.type[i]]);
+            task.setUserId(userId);
+            task.setDepth(snapshot.depth[i]);
+            List<FileItem> mFileList = new ArrayList<>(snapshot.fileOffset[i + 1] - snapshot.fileOffset[i]);
+            for (int f = snapshot.fileOffset[i]; f < snapshot.fileOffset[i + 1]; f++) {
+                String fileName = snapshot.fileName[f] < 0 ? null : names[snapshot.fileName[f]];
+                mFileList.add(getFileItem(fileName, snapshot.fileSize[f], fileTypes[snapshot.fileType[f]]));
+            }
+            addTask(task, mFileList);
+            tasks[i] = task;
         }
-        for (Task cTask : task.getChildList()) {
-            setDepth(cTask, task.getDepth() + 1);
+        for (int i = 0; i < tasks.length; i++) {
+            for (int p = snapshot.parentOffset[i]; p < snapshot.parentOffset[i + 1]; p++) {
+                tasks[i].addParent(tasks[snapshot.parentIndex[p]]);
+            }
+            for (int c = snapshot.childOffset[i]; c < snapshot.childOffset[i + 1]; c++) {
+                tasks[i].addChild(tasks[snapshot.childIndex[c]]);
+            }
         }
     }
 
     /**
      * Parse a DAX file with jdom
+     *
+     * @return whether the DAX file has been parsed without error
      */
-    private void parseXmlFile(String path) {
+    private boolean parseXmlFileWithJdom(String path) {
 
         try {
 
@@ -145,38 +350,10 @@ public final class WorkflowParser {
             for (Element node : list) {
                 switch (node.getName().toLowerCase()) {
                     case "job":
-                        long length = 0;
                         String nodeName = node.getAttributeValue("id");
                         String nodeType = node.getAttributeValue("name");
-                        /**
-                         * capture runtime. If not exist, by default the runtime
-                         * is 0.1. Otherwise CloudSim would ignore this task.
-                         * BUG/#11
-                         */
-                        double cores = 0;
-                        if (node.getAttributeValue("cores") != null) {
-                            String nodeCore = node.getAttributeValue("cores");
-                            cores = Double.parseDouble(nodeCore);
-                            if (cores < 0) {
-                                cores = 1;
-                            }
-                        } else {
-                            Log.printLine("Cannot find runtime for " + nodeName + ",set it to be 0");
-                        }
-                        double runtime;
-                        double execTime = 0;
-                        if (node.getAttributeValue("runtime") != null) {
-                            String nodeTime = node.getAttributeValue("runtime");
-                            execTime = Double.parseDouble(nodeTime);
-                            runtime = 1000 * Double.parseDouble(nodeTime);
-                            if (runtime < 100) {
-                                runtime = 100;
-                            }
-                            length = (long) runtime;
-                        } else {
-                            Log.printLine("Cannot find runtime for " + nodeName + ",set it to be 0");
-                        }   //multiple the scale, by default it is 1.0
-                        length *= Parameters.getRuntimeScale();
+                        double cores = parseCores(nodeName, node.getAttributeValue("cores"));
+                        Task task = createTask(nodeName, nodeType, cores, node.getAttributeValue("runtime"));
                         List<Element> fileList = node.getChildren();
                         List<FileItem> mFileList = new ArrayList<>();
                         for (Element file : fileList) {
@@ -185,147 +362,363 @@ public final class WorkflowParser {
                                 if (fileName == null) {
                                     fileName = file.getAttributeValue("file");//DAX version 3.0
                                 }
-                                if (fileName == null) {
-                                    Log.print("Error in parsing xml");
-                                }
-
-                                String inout = file.getAttributeValue("link");
-                                double size = 0.0;
-
-                                String fileSize = file.getAttributeValue("size");
-                                if (fileSize != null) {
-                                    size = Double.parseDouble(fileSize) /*/ 1024*/;
-                                } else {
-                                    Log.printLine("File Size not found for " + fileName);
-                                }
-
-                                /**
-                                 * a bug of cloudsim, size 0 causes a problem. 1
-                                 * is ok.
-                                 */
-                                if (size == 0) {
-                                    size++;
-                                }
-                                /**
-                                 * Sets the file type 1 is input 2 is output
-                                 */
-                                FileType type = FileType.NONE;
-                                switch (inout) {
-                                    case "input":
-                                        type = FileType.INPUT;
-                                        break;
-                                    case "output":
-                                        type = FileType.OUTPUT;
-                                        break;
-                                    default:
-                                        Log.printLine("Parsing Error");
-                                        break;
-                                }
-                                FileItem tFile;
-                                /*
-                                 * Already exists an input file (forget output file)
-                                 */
-                                if (size < 0) {
-                                    /*
-                                     * Assuming it is a parsing error
-                                     */
-                                    size = 0 - size;
-                                    Log.printLine("Size is negative, I assume it is a parser error");
-                                }
-                                /*
-                                 * Note that CloudSim use size as MB, in this case we use it as Byte
-                                 */
-                                if (type == FileType.OUTPUT) {
-                                    /**
-                                     * It is good that CloudSim does tell
-                                     * whether a size is zero
-                                     */
-                                    tFile = new FileItem(fileName, size);
-                                } else if (ReplicaCatalog.containsFile(fileName)) {
-                                    tFile = ReplicaCatalog.getFile(fileName);
-                                } else {
-
-                                    tFile = new FileItem(fileName, size);
-                                    ReplicaCatalog.setFile(fileName, tFile);
-                                }
-
-                                tFile.setType(type);
-                                mFileList.add(tFile);
-
+                                mFileList.add(createFileItem(fileName,
+                                        file.getAttributeValue("link"), file.getAttributeValue("size")));
                             }
                         }
-                        Task task;
-                        //In case of multiple workflow submission. Make sure the jobIdStartsFrom is consistent.
-                        synchronized (this) {
-                            task = new Task(this.jobIdStartsFrom, length, cores);
-                            task.setExecTime(execTime);
-                            this.jobIdStartsFrom++;
-                        }
-                        task.setType(nodeType);
-                        task.setUserId(userId);
-                        mName2Task.put(nodeName, task);
-                        for (FileItem file : mFileList) {
-                            task.addRequiredFile(file.getName());
-                        }
-                        task.setFileList(mFileList);
-                        this.getTaskList().add(task);
-
-                        /**
-                         * Add dependencies info.
-                         */
+                        addTask(task, mFileList);
                         break;
                     case "child":
                         List<Element> pList = node.getChildren();
                         String childName = node.getAttributeValue("ref");
-                        if (mName2Task.containsKey(childName)) {
+                        for (Element parent : pList) {
+                            addDependency(childName, parent.getAttributeValue("ref"));
+                        }
+                        break;
+                }
+            }
+            setDepths();
+            return true;
+
+        } catch (JDOMException jde) {
+            printLine("JDOM Exception;Please make sure your dax file is valid");
 
-                            Task childTask = (Task) mName2Task.get(childName);
+        } catch (IOException ioe) {
+            printLine("IO Exception;Please make sure dax.path is correctly set in your config file");
 
-                            for (Element parent : pList) {
-                                String parentName = parent.getAttributeValue("ref");
-                                if (mName2Task.containsKey(parentName)) {
-                                    Task parentTask = (Task) mName2Task.get(parentName);
-                                    parentTask.addChild(childTask);
-                                    childTask.addParent(parentTask);
+        } catch (Exception e) {
+            e.printStackTrace();
+            printLine("Parsing Exception");
+        }
+        return false;
+    }
+
+    /**
+     * Parse a DAX file with StAX. Tasks, files and dependencies are created
+     * while the file is read, so that the document is never held in memory.
+     *
+     * @return whether the DAX file has been parsed without error
+     */
+    private boolean parseXmlFileWithStax(String path) {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        XMLStreamReader reader = null;
+        try (InputStream in = new BufferedInputStream(new FileInputStream(path))) {
+            reader = factory.createXMLStreamReader(in);
+            /**
+             * The depth of the current element. The root is at depth 0, jobs
+             * and dependencies at depth 1 and their uses and parents at depth
+             * 2.
+             */
+            int depth = -1;
+            /**
+             * The job or child element being read
+             */
+            String current = null;
+            String nodeName = null;
+            Task task = null;
+            List<FileItem> mFileList = null;
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT:
+                        depth++;
+                        String name = reader.getLocalName().toLowerCase();
+                        if (depth == 1) {
+                            current = name;
+                            switch (name) {
+                                case "job":
+                                    nodeName = reader.getAttributeValue(null, "id");
+                                    String nodeType = reader.getAttributeValue(null, "name");
+                                    double cores = parseCores(nodeName, reader.getAttributeValue(null, "cores"));
+                                    task = createTask(nodeName, nodeType, cores,
+                                            reader.getAttributeValue(null, "runtime"));
+                                    mFileList = new ArrayList<>();
+                                    break;
+                                case "child":
+                                    nodeName = reader.getAttributeValue(null, "ref");
+                                    break;
+                            }
+                        } else if (depth == 2 && current != null) {
+                            if (current.equals("job") && name.equals("uses")) {
+                                String fileName = reader.getAttributeValue(null, "name");//DAX version 3.3
+                                if (fileName == null) {
+                                    fileName = reader.getAttributeValue(null, "file");//DAX version 3.0
                                 }
+                                mFileList.add(createFileItem(fileName,
+                                        reader.getAttributeValue(null, "link"),
+                                        reader.getAttributeValue(null, "size")));
+                            } else if (current.equals("child")) {
+                                addDependency(nodeName, reader.getAttributeValue(null, "ref"));
+                            }
+                        }
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        if (depth == 1) {
+                            if ("job".equals(current)) {
+                                addTask(task, mFileList);
                             }
+                            current = null;
+                            task = null;
+                            mFileList = null;
                         }
+                        depth--;
                         break;
                 }
             }
-            /**
-             * If a task has no parent, then it is root task.
-             */
-            ArrayList roots = new ArrayList<>();
-            for (Task task : mName2Task.values()) {
-                task.setDepth(0);
-                if (task.getParentList().isEmpty()) {
-                    roots.add(task);
+            setDepths();
+            return true;
+
+        } catch (XMLStreamException xse) {
+            printLine("StAX Exception;Please make sure your dax file is valid");
+
+        } catch (IOException ioe) {
+            printLine("IO Exception;Please make sure dax.path is correctly set in your config file");
+
+        } catch (Exception e) {
+            e.printStackTrace();
+            printLine("Parsing Exception");
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException xse) {
+                    // the input stream is closed anyway
                 }
             }
+        }
+        return false;
+    }
 
-            /**
-             * Add depth from top to bottom.
-             */
-            for (Iterator it = roots.iterator(); it.hasNext();) {
-                Task task = (Task) it.next();
-                setDepth(task, 1);
+    /**
+     * Parses the number of cores of a job
+     *
+     * @param nodeName the name of the job
+     * @param nodeCore the cores attribute, may be null
+     * @return the number of cores, 0 if it is not specified
+     */
+    private double parseCores(String nodeName, String nodeCore) {
+        /**
+         * capture runtime. If not exist, by default the runtime is 0.1.
+         * Otherwise CloudSim would ignore this task. BUG/#11
+         */
+        double cores = 0;
+        if (nodeCore != null) {
+            cores = Double.parseDouble(nodeCore);
+            if (cores < 0) {
+                cores = 1;
             }
+        } else {
+            printLine("Cannot find runtime for " + nodeName + ",set it to be 0");
+        }
+        return cores;
+    }
+
+    /**
+     * Creates a file used by a job. Input files are shared through the
+     * ReplicaCatalog.
+     *
+     * @param fileName the file name
+     * @param inout the link attribute (input or output)
+     * @param fileSize the size attribute, may be null
+     * @return the file
+     */
+    private FileItem createFileItem(String fileName, String inout, String fileSize) {
+        if (fileName == null) {
+            print("Error in parsing xml");
+        }
+
+        double size = 0.0;
+
+        if (fileSize != null) {
+            size = Double.parseDouble(fileSize) /*/ 1024*/;
+        } else {
+            printLine("File Size not found for " + fileName);
+        }
+
+        /**
+         * a bug of cloudsim, size 0 causes a problem. 1 is ok.
+         */
+        if (size == 0) {
+            size++;
+        }
+        /**
+         * Sets the file type 1 is input 2 is output
+         */
+        FileType type = FileType.NONE;
+        switch (inout) {
+            case "input":
+                type = FileType.INPUT;
+                break;
+            case "output":
+                type = FileType.OUTPUT;
+                break;
+            default:
+                printLine("Parsing Error");
+                break;
+        }
+        if (size < 0) {
+            /*
+             * Assuming it is a parsing error
+             */
+            size = 0 - size;
+            printLine("Size is negative, I assume it is a parser error");
+        }
+        if (declaredSizes != null) {
+            declaredSizes.add(size);
+            declaredTypes.add(type);
+        }
+        return getFileItem(fileName, size, type);
+    }
+
+    /**
+     * Gets the file used by a job. Input files are shared through the
+     * ReplicaCatalog.
+     *
+     * @param fileName the file name
+     * @param size the size of the file
+     * @param type the type of the file for this job
+     * @return the file
+     */
+    private FileItem getFileItem(String fileName, double size, FileType type) {
+        FileItem tFile;
+        /*
+         * Already exists an input file (forget output file)
+         * Note that CloudSim use size as MB, in this case we use it as Byte
+         */
+        if (type == FileType.OUTPUT) {
             /**
-             * Clean them so as to save memory. Parsing workflow may take much
-             * memory
+             * It is good that CloudSim does tell whether a size is zero
              */
-            this.mName2Task.clear();
+            tFile = new FileItem(fileName, size);
+        } else if (fileTable != null) {
+            tFile = fileTable.get(fileName);
+            if (tFile == null) {
+                tFile = new FileItem(fileName, size);
+                fileTable.put(fileName, tFile);
+            }
+        } else if (ReplicaCatalog.containsFile(fileName)) {
+            tFile = ReplicaCatalog.getFile(fileName);
+        } else {
 
-        } catch (JDOMException jde) {
-            Log.printLine("JDOM Exception;Please make sure your dax file is valid");
+            tFile = new FileItem(fileName, size);
+            ReplicaCatalog.setFile(fileName, tFile);
+        }
 
-        } catch (IOException ioe) {
-            Log.printLine("IO Exception;Please make sure dax.path is correctly set in your config file");
+        tFile.setType(type);
+        return tFile;
+    }
 
-        } catch (Exception e) {
-            e.printStackTrace();
-            Log.printLine("Parsing Exception");
+    /**
+     * Creates a task from a job of the DAX
+     *
+     * @param nodeName the id of the job
+     * @param nodeType the name (transformation) of the job
+     * @param cores the number of cores
+     * @param nodeTime the runtime attribute, may be null
+     * @return the task
+     */
+    private Task createTask(String nodeName, String nodeType, double cores, String nodeTime) {
+        long length = 0;
+        double runtime;
+        double execTime = 0;
+        if (nodeTime != null) {
+            execTime = Double.parseDouble(nodeTime);
+            runtime = 1000 * Double.parseDouble(nodeTime);
+            if (runtime < 100) {
+                runtime = 100;
+            }
+            length = (long) runtime;
+        } else {
+            printLine("Cannot find runtime for " + nodeName + ",set it to be 0");
+        }   //multiple the scale, by default it is 1.0
+        length *= Parameters.getRuntimeScale();
+        Task task;
+        //In case of multiple workflow submission. Make sure the jobIdStartsFrom is consistent.
+        synchronized (this) {
+            task = new Task(this.jobIdStartsFrom, length, cores);
+            task.setExecTime(execTime);
+            this.jobIdStartsFrom++;
+        }
+        task.setType(nodeType);
+        task.setUserId(userId);
+        mName2Task.put(nodeName, task);
+        return task;
+    }
+
+    /**
+     * Sets the files of a task and adds it to the task list
+     *
+     * @param task the task
+     * @param mFileList the files used by the task
+     */
+    private void addTask(Task task, List<FileItem> mFileList) {
+        for (FileItem file : mFileList) {
+            task.addRequiredFile(file.getName());
+        }
+        task.setFileList(mFileList);
+        this.getTaskList().add(task);
+    }
+
+    /**
+     * Adds a dependency between two tasks that have been parsed
+     *
+     * @param childName the id of the child job
+     * @param parentName the id of the parent job
+     */
+    private void addDependency(String childName, String parentName) {
+        Task childTask = mName2Task.get(childName);
+        Task parentTask = mName2Task.get(parentName);
+        if (childTask != null && parentTask != null) {
+            parentTask.addChild(childTask);
+            childTask.addParent(parentTask);
+        }
+    }
+
+    /**
+     * Sets the depth of the tasks of the workflow just parsed
+     */
+    private void setDepths() {
+        /**
+         * Add depth from top to bottom. A task without parent is a root task
+         * and has depth 1.
+         */
+        DagAnalysis<Task> analysis = new DagAnalysis<>(mName2Task.values(), DagAnalysis.TASK_ADJACENCY);
+        for (Task task : mName2Task.values()) {
+            task.setDepth(analysis.getDepth(task));
+        }
+        /**
+         * Clean them so as to save memory. Parsing workflow may take much
+         * memory
+         */
+        this.mName2Task.clear();
+    }
+
+    /**
+     * Prints a message, or keeps it until the tasks are merged in a worker of
+     * a parallel parse
+     *
+     * @param message the message
+     */
+    private void print(String message) {
+        if (messages != null) {
+            messages.append(message);
+        } else {
+            Log.print(message);
+        }
+    }
+
+    /**
+     * Prints a line, or keeps it until the tasks are merged in a worker of a
+     * parallel parse
+     *
+     * @param message the message
+     */
+    private void printLine(String message) {
+        if (messages != null) {
+            messages.append(message).append(System.lineSeparator());
+        } else {
+            Log.printLine(message);
         }
     }
 }
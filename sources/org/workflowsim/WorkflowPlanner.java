@@ -17,6 +17,7 @@ package org.workflowsim;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.core.CloudSimTags;
 import org.cloudbus.cloudsim.core.SimEntity;
@@ -25,6 +26,7 @@ import org.workflowsim.planning.BasePlanningAlgorithm;
 import org.workflowsim.planning.DHEFTPlanningAlgorithm;
 import org.workflowsim.planning.HEFTPlanningAlgorithm;
 import org.workflowsim.planning.RandomPlanningAlgorithm;
+import org.workflowsim.utils.DagAnalysis;
 import org.workflowsim.utils.Parameters;
 import org.workflowsim.utils.Parameters.PlanningAlgorithm;
 
@@ -204,33 +206,10 @@ public final class WorkflowPlanner extends SimEntity {
      * @param taskList all the tasks
      */
     private void processImpactFactors(List<Task> taskList) {
-        List<Task> exits = new ArrayList<>();
+        DagAnalysis<Task> analysis = new DagAnalysis<>(taskList, DagAnalysis.TASK_ADJACENCY);
+        Map<Task, Double> impacts = analysis.getImpactFactors(analysis.getExits());
         for (Task task : taskList) {
-            if (task.getChildList().isEmpty()) {
-                exits.add(task);
-            }
-        }
-        double avg = 1.0 / exits.size();
-        for (Task task : exits) {
-            addImpact(task, avg);
-        }
-    }
-
-    /**
-     * Add impact factor for one particular task
-     *
-     * @param task, the task
-     * @param impact , the impact factor
-     */
-    private void addImpact(Task task, double impact) {
-
-        task.setImpact(task.getImpact() + impact);
-        int size = task.getParentList().size();
-        if (size > 0) {
-            double avg = impact / size;
-            for (Task parent : task.getParentList()) {
-                addImpact(parent, avg);
-            }
+            task.setImpact(task.getImpact() + impacts.get(task));
         }
     }
 
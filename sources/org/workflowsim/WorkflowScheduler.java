@@ -20,10 +20,11 @@ import java.util.List;
 import org.cloudbus.cloudsim.Cloudlet;
 import org.cloudbus.cloudsim.DatacenterBroker;
 import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Vm;
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.CloudSimTags;
 import org.cloudbus.cloudsim.core.SimEvent;
-import org.cloudbus.cloudsim.lists.VmList;
+import org.cloudbus.cloudsim.util.LongKeyMap;
 import org.workflowsim.failure.FailureGenerator;
 import org.workflowsim.scheduling.DataAwareSchedulingAlgorithm;
 import org.workflowsim.scheduling.BaseSchedulingAlgorithm;
@@ -52,6 +53,41 @@ public class WorkflowScheduler extends DatacenterBroker {
      */
     private int workflowEngineId;
 
+    /**
+     * The scheduling algorithm, reused by every scheduling round as long as
+     * the algorithm set in Parameters does not change.
+     */
+    private BaseSchedulingAlgorithm scheduler;
+    /**
+     * The name of the scheduling algorithm.
+     */
+    private SchedulingAlgorithm schedulerName;
+    /**
+     * Whether a scheduling round (CLOUDLET_UPDATE) has been scheduled and has
+     * not run yet. Only used when rounds are coalesced.
+     */
+    private boolean roundPending;
+    /**
+     * The number of scheduling rounds requested.
+     */
+    private long roundsRequested;
+    /**
+     * The number of scheduling rounds that have run.
+     */
+    private long roundsRun;
+    /**
+     * The VMs of the VM list by id, the first one if an id is repeated.
+     */
+    private final LongKeyMap<Vm> vmsById = new LongKeyMap<>();
+    /**
+     * The VM list indexed in vmsById, null if none.
+     */
+    private List<Vm> indexedVmList;
+    /**
+     * The size of the VM list when it was indexed.
+     */
+    private int indexedVmCount;
+
     /**
      * Created a new WorkflowScheduler object.
      *
@@ -191,15 +227,15 @@ public class WorkflowScheduler extends DatacenterBroker {
              * Fix a bug of cloudsim Don't add a null to getVmsCreatedList()
              * June 15, 2013
              */
-            if (VmList.getById(getVmList(), vmId) != null) {
-                getVmsCreatedList().add(VmList.getById(getVmList(), vmId));
-                Log.printLine(CloudSim.clock() + ": " + getName() + ": VM #" + vmId
-                        + " has been created in Datacenter #" + datacenterId + ", Host #"
-                        + VmList.getById(getVmsCreatedList(), vmId).getHost().getId());
+            Vm vm = getVmById(vmId);
+            if (vm != null) {
+                getVmsCreatedList().add(vm);
+                Log.formatLine(Log.Level.INFO, "%s: %s: VM #%d has been created in Datacenter #%d, Host #%d",
+                        CloudSim.clock(), getName(), vmId, datacenterId, vm.getHost().getId());
             }
         } else {
-            Log.printLine(CloudSim.clock() + ": " + getName() + ": Creation of VM #" + vmId
-                    + " failed in Datacenter #" + datacenterId);
+            Log.formatLine(Log.Level.WARN, "%s: %s: Creation of VM #%d failed in Datacenter #%d",
+                    CloudSim.clock(), getName(), vmId, datacenterId);
         }
 
         incrementVmsAcks();
@@ -222,22 +258,50 @@ public class WorkflowScheduler extends DatacenterBroker {
                 if (getVmsCreatedList().size() > 0) { // if some vm were created
                     submitCloudlets();
                 } else { // no vms created. abort
-                    Log.printLine(CloudSim.clock() + ": " + getName()
-                            + ": none of the required VMs could be created. Aborting");
+                    Log.formatLine(Log.Level.ERROR, "%s: %s: none of the required VMs could be created. Aborting",
+                            CloudSim.clock(), getName());
                     finishExecution();
                 }
             }
         }
     }
 
+    /**
+     * Gets a VM of the VM list by id. The VM list is indexed again whenever
+     * it is replaced or its size changes.
+     *
+     * @param vmId the VM id
+     * @return the first VM with this id, null if none
+     */
+    private Vm getVmById(int vmId) {
+        List<Vm> vmList = getVmList();
+        if (vmList != indexedVmList || vmList.size() != indexedVmCount) {
+            vmsById.clear();
+            for (Vm vm : vmList) {
+                if (!vmsById.containsKey(vm.getId())) {
+                    vmsById.put(vm.getId(), vm);
+                }
+            }
+            indexedVmList = vmList;
+            indexedVmCount = vmList.size();
+        }
+        return vmsById.get(vmId);
+    }
+
     /**
      * Update a cloudlet (job)
      *
      * @param ev a simEvent object
      */
     protected void processCloudletUpdate(SimEvent ev) {
+        roundPending = false;
+        roundsRun++;
 
-        BaseSchedulingAlgorithm scheduler = getScheduler(Parameters.getSchedulingAlgorithm());
+        if (scheduler == null || schedulerName != Parameters.getSchedulingAlgorithm()) {
+            schedulerName = Parameters.getSchedulingAlgorithm();
+            scheduler = getScheduler(schedulerName);
+        }
+        scheduler.getScheduledList().clear();
         scheduler.setCloudletList(getCloudletList());
         scheduler.setVmList(getVmsCreatedList());
 
@@ -262,6 +326,50 @@ public class WorkflowScheduler extends DatacenterBroker {
         cloudletsSubmitted += scheduledList.size();
     }
 
+    /**
+     * Requests a scheduling round. If scheduling rounds are coalesced (see
+     * Parameters.setSchedulingWindow), the round runs at the end of the window
+     * and the requests made until then are served by the same round;
+     * otherwise every request runs its own round right away.
+     */
+    protected void requestSchedulingRound() {
+        roundsRequested++;
+        double window = Parameters.getSchedulingWindow();
+        if (window < 0) {
+            schedule(this.getId(), 0.0, WorkflowSimTags.CLOUDLET_UPDATE);
+        } else if (!roundPending) {
+            roundPending = true;
+            schedule(this.getId(), window, WorkflowSimTags.CLOUDLET_UPDATE);
+        }
+    }
+
+    /**
+     * Gets the number of scheduling rounds requested
+     *
+     * @return the number of requests
+     */
+    public long getSchedulingRoundsRequested() {
+        return roundsRequested;
+    }
+
+    /**
+     * Gets the number of scheduling rounds that have run
+     *
+     * @return the number of rounds
+     */
+    public long getSchedulingRoundsRun() {
+        return roundsRun;
+    }
+
+    /**
+     * Gets the number of scheduling rounds saved by coalescing requests
+     *
+     * @return the number of requests served by another round
+     */
+    public long getSchedulingRoundsSaved() {
+        return roundsRequested - roundsRun - (roundPending ? 1 : 0);
+    }
+
     /**
      * Process a cloudlet (job) return event.
      *
@@ -293,8 +401,7 @@ public class WorkflowScheduler extends DatacenterBroker {
         schedule(this.workflowEngineId, delay, CloudSimTags.CLOUDLET_RETURN, cloudlet);
 
         cloudletsSubmitted--;
-        //not really update right now, should wait 1 s until many jobs have returned
-        schedule(this.getId(), 0.0, WorkflowSimTags.CLOUDLET_UPDATE);
+        requestSchedulingRound();
 
     }
 
@@ -347,7 +454,7 @@ public class WorkflowScheduler extends DatacenterBroker {
         List<Job> list = (List) ev.getData();
         getCloudletList().addAll(list);
 
-        sendNow(this.getId(), WorkflowSimTags.CLOUDLET_UPDATE);
+        requestSchedulingRound();
         if (!processCloudletSubmitHasShown) {
             processCloudletSubmitHasShown = true;
         }
@@ -363,8 +470,8 @@ public class WorkflowScheduler extends DatacenterBroker {
     @Override
     protected void processResourceCharacteristicsRequest(SimEvent ev) {
         setDatacenterCharacteristicsList(new HashMap<>());
-        Log.printLine(CloudSim.clock() + ": " + getName() + ": Cloud Resource List received with "
-                + getDatacenterIdsList().size() + " resource(s)");
+        Log.formatLine(Log.Level.INFO, "%s: %s: Cloud Resource List received with %d resource(s)",
+                CloudSim.clock(), getName(), getDatacenterIdsList().size());
         for (Integer datacenterId : getDatacenterIdsList()) {
             sendNow(datacenterId, CloudSimTags.RESOURCE_CHARACTERISTICS, getId());
         }
@@ -17,8 +17,11 @@ package org.workflowsim.clustering;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import org.cloudbus.cloudsim.Log;
 import org.workflowsim.FileItem;
 import org.workflowsim.Job;
 import org.workflowsim.Task;
@@ -51,6 +54,10 @@ public class BasicClustering implements ClusteringInterface {
      * All the files.
      */
     private final List<FileItem> allFileList;
+    /**
+     * The files in allFileList, to avoid duplicate input files.
+     */
+    private final Set<FileItem> allFileSet;
     /**
      * The root task.
      */
@@ -78,6 +85,7 @@ public class BasicClustering implements ClusteringInterface {
         this.taskList = new ArrayList<>();
         this.mTask2Job = new HashMap<>();
         this.allFileList = new ArrayList<>();
+        this.allFileSet = new HashSet<>();
         this.idIndex = 0;
         this.root = null;
     }
@@ -169,6 +177,12 @@ public class BasicClustering implements ClusteringInterface {
             /// a bug of cloudsim makes it final of input file size and output file size
             Job job = new Job(idIndex, length, cores/*, inputFileSize, outputFileSize*/);
             job.setClassType(ClassType.COMPUTE.value);
+            /**
+             * The files and required files already in the job, so that
+             * building a job is linear in the number of files
+             */
+            Set<FileItem> jobFiles = new HashSet<>(job.getFileList());
+            Set<String> jobRequiredFiles = new HashSet<>(job.getRequiredFiles());
             for (Task task : taskList) {
                 length += task.getCloudletLength();
                 cores += task.getCores();
@@ -180,26 +194,28 @@ public class BasicClustering implements ClusteringInterface {
 
                 getTask2Job().put(task, job);
                 for (FileItem file : fileList) {
-                    boolean hasFile = job.getFileList().contains(file);
+                    boolean hasFile = !jobFiles.add(file);
                     if (!hasFile) {
                         job.getFileList().add(file);
                         if (file.getType() == FileType.INPUT) {
                             //for stag-in jobs to be used
-                            if (!this.allFileList.contains(file)) {
+                            if (this.allFileSet.add(file)) {
                                 this.allFileList.add(file);
                             }
                         } else if (file.getType() == FileType.OUTPUT) {
+                            this.allFileSet.add(file);
                             this.allFileList.add(file);
                         }
                     }
                 }
                 for (String fileName : task.getRequiredFiles()) {
-                    if (!job.getRequiredFiles().contains(fileName)) {
+                    if (jobRequiredFiles.add(fileName)) {
                         job.getRequiredFiles().add(fileName);
                     }
                 }
             }
 
+            job.invalidateFileClassification();
             job.setCloudletLength(length);
             job.setUserId(userId);
             job.setDepth(depth);
@@ -233,26 +249,43 @@ public class BasicClustering implements ClusteringInterface {
      * Update the dependency issues between tasks/jobs
      */
     protected final void updateDependencies() {
+        /**
+         * The parents and children of each job so far, to avoid duplicate
+         * edges in a single pass over the task dependencies
+         */
+        Map<Job, Set<Task>> parentSets = new HashMap<>();
+        Map<Job, Set<Task>> childSets = new HashMap<>();
         for (Task task : getTaskList()) {
             Job job = (Job) getTask2Job().get(task);
+            Set<Task> parentSet = parentSets.get(job);
+            if (parentSet == null) {
+                List<Task> parents = ((Task) job).getParentList();
+                parentSet = new HashSet<>(parents);
+                parentSets.put(job, parentSet);
+            }
             for (Task parentTask : task.getParentList()) {
                 Job parentJob = (Job) getTask2Job().get(parentTask);
-                if (!job.getParentList().contains(parentJob) && parentJob != job) {//avoid dublicate
+                if (parentJob != job && parentSet.add(parentJob)) {//avoid dublicate
                     job.addParent(parentJob);
                 }
             }
+            Set<Task> childSet = childSets.get(job);
+            if (childSet == null) {
+                childSet = new HashSet<>(job.getChildList());
+                childSets.put(job, childSet);
+            }
             for (Task childTask : task.getChildList()) {
 
                 Job childJob = (Job) getTask2Job().get(childTask);
 
-                if (!job.getChildList().contains(childJob) && childJob != job) {//avoid dublicate
+                if (childJob != job && childSet.add(childJob)) {//avoid dublicate
                     job.addChild(childJob);
                 }
 
             }
 
         }
-        System.out.println("from update dependencies");
+        Log.printLine(Log.Level.DEBUG, "from update dependencies");
         getTask2Job().clear();
         getTaskList().clear();
     }
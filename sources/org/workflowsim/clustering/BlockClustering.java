@@ -17,8 +17,10 @@ package org.workflowsim.clustering;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.workflowsim.Task;
 
 /**
@@ -94,13 +96,15 @@ public class BlockClustering extends BasicClustering {
 
         // level by level
         if (clusterNum > 0 || clusterSize > 0) {
+            // a task has a single depth, so a task already grouped is in its level
+            Set<Task> grouped = new HashSet<>();
             for (Task task : getTaskList()) {
                 int depth = task.getDepth();
                 if (!mDepth2Task.containsKey(depth)) {
                     mDepth2Task.put(depth, new ArrayList<>());
                 }
                 List list = mDepth2Task.get(depth);
-                if (!list.contains(task)) {
+                if (grouped.add(task)) {
                     list.add(task);
                 }
             }
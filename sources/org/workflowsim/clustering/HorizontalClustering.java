@@ -17,6 +17,7 @@ package org.workflowsim.clustering;
 
 import java.util.*;
 
+import org.cloudbus.cloudsim.Log;
 import org.workflowsim.Job;
 import org.workflowsim.Task;
 
@@ -63,29 +64,31 @@ public class HorizontalClustering extends BasicClustering {
     @Override
     public void run() {
         if (clusterNum > 0 || clusterSize > 0) {
+            // a task has a single depth, so a task already grouped is in its level
+            Set<Task> grouped = new HashSet<>();
             for (Iterator it = getTaskList().iterator(); it.hasNext();) {
                 Task task = (Task) it.next();
-                System.out.println(task.getDepth());
+                Log.formatLine(Log.Level.DEBUG, "%d", task.getDepth());
                 int depth = task.getDepth();
                 if (!mDepth2Task.containsKey(depth)) {
                     mDepth2Task.put(depth, new ArrayList<>());
                 }
                 List list = mDepth2Task.get(depth);
-                if (!list.contains(task)) {
+                if (grouped.add(task)) {
                     list.add(task);
                 }
-                System.out.println(task.getDepth());
+                Log.formatLine(Log.Level.DEBUG, "%d", task.getDepth());
 
             }
         }
 
         List<Task> list = mDepth2Task.get(1);
 
-        System.out.println(list.get(0).getCloudletLength());
+        Log.formatLine(Log.Level.DEBUG, "%d", list.get(0).getCloudletLength());
 
         sortTasksByLongestParent(list);
 
-        System.out.println(list.get(0).getCloudletLength());
+        Log.formatLine(Log.Level.DEBUG, "%d", list.get(0).getCloudletLength());
 
 
         /**
@@ -22,7 +22,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Stack;
 import org.workflowsim.Task;
+import org.workflowsim.utils.DagAnalysis;
 import org.workflowsim.utils.Parameters;
+import org.workflowsim.utils.Reachability;
 
 /**
  * VerticalClustering merges tasks at the same pipeline
@@ -89,6 +91,8 @@ public class VerticalClustering extends BasicClustering {
              */
             if (Parameters.getReduceMethod().equals("montage")) {
                 removeDuplicateMontage();
+            } else if (Parameters.getReduceMethod().equals("transitive")) {
+                removeRedundantDependencies();
             }
             Task root = super.addRoot();
             Task node;
@@ -159,6 +163,22 @@ public class VerticalClustering extends BasicClustering {
         addClustDelay();
     }
 
+    /**
+     * Remove the dependencies that are implied by others (the transitive
+     * reduction of the workflow) in reducer.method. It is the generic
+     * version of removeDuplicateMontage.
+     */
+    public void removeRedundantDependencies() {
+        List<Task> taskList = getTaskList();
+        Reachability<Task> reachability = new Reachability<>(taskList, DagAnalysis.TASK_ADJACENCY);
+        for (Task node : taskList) {
+            for (Task parent : reachability.getRedundantParents(node)) {
+                node.getParentList().remove(parent);
+                parent.getChildList().remove(node);
+            }
+        }
+    }
+
     /**
      * Remove duplicate just for Montage Set in reducer.method
      */
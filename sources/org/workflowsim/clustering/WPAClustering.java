@@ -2,6 +2,7 @@ package org.workflowsim.clustering;
 
 import java.util.*;
 
+import org.cloudbus.cloudsim.Log;
 import org.workflowsim.Job;
 import org.workflowsim.Task;
 
@@ -237,7 +238,7 @@ public class WPAClustering extends BasicClustering
                 if(getSumOfClusterRunTime(cluster)+tsk.getCloudletLength()<maxRunTime){
                     cluster.add(tsk);
                     tsk.setAssigned(true);
-                    System.out.println("working");
+                    Log.printLine(Log.Level.DEBUG, "working");
                 }else {
                     Job job = addTasks2Job(cluster);
                     cluster = new ArrayList<Task>();
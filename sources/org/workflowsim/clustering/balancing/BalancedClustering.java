@@ -18,9 +18,11 @@ package org.workflowsim.clustering.balancing;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import org.cloudbus.cloudsim.Log;
 import org.workflowsim.Task;
 import org.workflowsim.clustering.BasicClustering;
@@ -30,7 +32,9 @@ import org.workflowsim.clustering.balancing.metrics.DistanceVariance;
 import org.workflowsim.clustering.balancing.metrics.HorizontalRuntimeVariance;
 import org.workflowsim.clustering.balancing.metrics.ImpactFactorVariance;
 import org.workflowsim.clustering.balancing.metrics.PipelineRuntimeVariance;
+import org.workflowsim.utils.DagAnalysis;
 import org.workflowsim.utils.Parameters;
+import org.workflowsim.utils.Reachability;
 
 /**
  * BalancedClustering is a clustering method that aims balancing task runtime
@@ -51,9 +55,14 @@ public class BalancedClustering extends BasicClustering {
      */
     private final Map<Task, TaskSet> mTask2TaskSet;
     /**
-     * Map from taskSet to its depth.
+     * The adjacency of task sets.
      */
-    private final Map<TaskSet, Integer> mTaskSet2Depth;
+    private static final DagAnalysis.Adjacency<TaskSet> TASKSET_ADJACENCY = new DagAnalysis.Adjacency<TaskSet>() {
+        @Override
+        public List<TaskSet> getParentList(TaskSet node) {
+            return node.getParentList();
+        }
+    };
 
     /**
      * Initialize a BalancedClustering method
@@ -64,7 +73,6 @@ public class BalancedClustering extends BasicClustering {
         super();
         this.clusterNum = clusterNum;
         this.mTask2TaskSet = new HashMap<>();
-        mTaskSet2Depth = new HashMap<>();
     }
 
     /**
@@ -78,47 +86,25 @@ public class BalancedClustering extends BasicClustering {
         }
     }
 
-    /**
-     * Add impact factor to a TaskSet
-     *
-     * @param set TaskSet
-     * @param impact Impact Factor
-     */
-    private void addImpact(TaskSet set, double impact) {
-        /*
-         * follow the path from set
-         */
-        set.setImpactFafctor(set.getImpactFactor() + impact);
-        int size = set.getParentList().size();
-        if (size > 0) {
-            double avg = impact / size;
-            for (TaskSet parent : set.getParentList()) {
-                addImpact(parent, avg);
-            }
-        }
-    }
-
     /**
      * Print out all the balancing metrics
      */
     public void printMetrics() {
-        Map<Integer, List<TaskSet>> map = getCurrentTaskSetAtLevels();
+        List<TaskSet> sets = getCurrentTaskSets();
+        DagAnalysis<TaskSet> analysis = new DagAnalysis<>(sets, TASKSET_ADJACENCY);
+        Map<Integer, List<TaskSet>> map = getTaskSetAtLevels(sets, analysis);
         for (TaskSet set : mTask2TaskSet.values()) {
             set.setImpactFafctor(0.0);
         }
 
-        int maxDepth = 0;
-        for (Entry<Integer, List<TaskSet>> entry : map.entrySet()) {
-            int depth = entry.getKey();
-            if (depth > maxDepth) {
-                maxDepth = depth;
-            }
-        }
-        List<TaskSet> exits = map.get(maxDepth);
-        double avg = 1.0 / exits.size();
-        for (TaskSet set : exits) {
-            //set.setImpactFafctor(avg);
-            addImpact(set, avg);
+        /**
+         * follow the paths from the sets at the last level
+         */
+        List<TaskSet> exits = map.get(analysis.getMaxDepth());
+        Map<TaskSet, Double> impacts = analysis.getImpactFactors(exits);
+        for (Entry<TaskSet, Double> entry : impacts.entrySet()) {
+            TaskSet set = entry.getKey();
+            set.setImpactFafctor(set.getImpactFactor() + entry.getValue());
         }
 
         for (Entry<Integer, List<TaskSet>> entry : map.entrySet()) {
@@ -140,10 +126,9 @@ public class BalancedClustering extends BasicClustering {
              * Distance Variance.
              */
             double dv = new DistanceVariance().getMetric(list);
-            Log.printLine("HRV " + depth + " " + list.size()
-                    + " " + hrv + "\nIFV " + depth + " "
-                    + list.size() + " " + ifv + "\nPRV " + depth
-                    + " " + list.size() + " " + prv + "\nDV " + depth + " " + list.size() + " " + dv);
+            Log.formatLine(Log.Level.INFO, "HRV %d %d %s\nIFV %d %d %s\nPRV %d %d %s\nDV %d %d %s",
+                    depth, list.size(), hrv, depth, list.size(), ifv,
+                    depth, list.size(), prv, depth, list.size(), dv);
 
         }
     }
@@ -154,77 +139,49 @@ public class BalancedClustering extends BasicClustering {
      * @return tasks list per level
      */
     public Map<Integer, List<TaskSet>> getCurrentTaskSetAtLevels() {
-        //makesure it is updated 
+        List<TaskSet> sets = getCurrentTaskSets();
+        return getTaskSetAtLevels(sets, new DagAnalysis<>(sets, TASKSET_ADJACENCY));
+    }
 
+    /**
+     * Gets the current task sets, each one once
+     *
+     * @return the task sets
+     */
+    private List<TaskSet> getCurrentTaskSets() {
         //makesure Taskset.hasChecked is false
-        Map<Integer, List<TaskSet>> map = new HashMap<>();
+        List<TaskSet> list = new ArrayList<>();
         Collection<TaskSet> sets = mTask2TaskSet.values();
         for (TaskSet set : sets) {
             if (!set.hasChecked) {
                 set.hasChecked = true;
-                int depth = getDepth(set);
-                if (!map.containsKey(depth)) {
-                    map.put(depth, new ArrayList<>());
-                }
-                List list = map.get(depth);
                 list.add(set);
-
             }
         }
-        mTaskSet2Depth.clear();
         //must do
         cleanTaskSetChecked();
-        return map;
+        return list;
     }
 
     /**
-     * Gets the depth of a TaskSet
+     * Groups task sets per level
      *
-     * @param set TaskSet
-     * @return depth
+     * @param sets the task sets
+     * @param analysis the analysis of the task sets
+     * @return tasks list per level
      */
-    private int getDepth(TaskSet set) {
-        if (mTaskSet2Depth.containsKey(set)) {
-            return mTaskSet2Depth.get(set);
-        } else {
-            int depth = 0;
-            for (TaskSet parent : set.getParentList()) {
-                int curDepth = getDepth(parent);
-                if (curDepth > depth) {
-                    depth = curDepth;
-                }
+    private Map<Integer, List<TaskSet>> getTaskSetAtLevels(List<TaskSet> sets, DagAnalysis<TaskSet> analysis) {
+        Map<Integer, List<TaskSet>> map = new HashMap<>();
+        for (TaskSet set : sets) {
+            int depth = analysis.getDepth(set);
+            if (!map.containsKey(depth)) {
+                map.put(depth, new ArrayList<>());
             }
-            depth++;
-            mTaskSet2Depth.put(set, depth);
-            return depth;
-
+            map.get(depth).add(set);
         }
-
+        return map;
     }
 
-    /**
-     * Check whether a task is an ancestor of another set
-     *
-     * @param ancestor ancestor
-     * @param set child
-     * @return
-     */
-    private boolean check(Task ancestor, Task set) {
-        if (ancestor == null || set == null) {
-            return false;
-        }
-        if (ancestor == set) {
-            return true;
-        }
-        for (Task parent : set.getParentList()) {
-            if (check(ancestor, parent)) {
-                return true;
-            } else {
-                //parent.hasChecked = true;
-            }
-        }
-        return false;
-    }
     /**
      * used for recover.
      */
@@ -234,7 +191,11 @@ public class BalancedClustering extends BasicClustering {
      * Add pairs that needs to remove to mRecover.
      */
     private void remove() {
-
+        /**
+         * The removed edges are implied by the others, so the index stays
+         * valid while they are removed.
+         */
+        Reachability<Task> reachability = new Reachability<>(getTaskList(), DagAnalysis.TASK_ADJACENCY);
         for (Task set : this.getTaskList()) {
             if (set.getChildList().size() >= 2) {
                 for (int i = 0; i < set.getChildList().size(); i++) {
@@ -243,7 +204,7 @@ public class BalancedClustering extends BasicClustering {
                         Task another = (Task) set.getChildList().get(j);
                         // avoid unnecessary checks
                         if (children.getDepth() > another.getDepth()) {
-                            if (check(another, children)) {
+                            if (reachability.reaches(another, children)) {
                                 //remove i
                                 set.getChildList().remove(children);
                                 children.getParentList().remove(set);
@@ -256,7 +217,7 @@ public class BalancedClustering extends BasicClustering {
                             }
                         }
                         if (another.getDepth() > children.getDepth()) {
-                            if (check(children, another)) {
+                            if (reachability.reaches(children, another)) {
                                 set.getChildList().remove(another);
                                 another.getParentList().remove(set);
                                 i--;
@@ -386,7 +347,7 @@ public class BalancedClustering extends BasicClustering {
 
                 Log.printLine("Job");
                 for (Task task : set.getTaskList()) {
-                    Log.printLine("Task " + task.getCloudletId() + " " + task.getImpact() + " " + task.getCloudletLength());
+                    Log.formatLine(Log.Level.INFO, "Task %d %s %d", task.getCloudletId(), task.getImpact(), task.getCloudletLength());
                 }
             }
         }
@@ -405,16 +366,18 @@ public class BalancedClustering extends BasicClustering {
                 set.hasChecked = true;
                 set.getChildList().clear();
                 set.getParentList().clear();
+                Set<TaskSet> parentSets = new HashSet<>();
+                Set<TaskSet> childSets = new HashSet<>();
                 for (Task task : set.getTaskList()) {
                     for (Task parent : task.getParentList()) {
                         TaskSet parentSet = mTask2TaskSet.get(parent);
-                        if (!set.getParentList().contains(parentSet) && set != parentSet) {
+                        if (set != parentSet && parentSets.add(parentSet)) {
                             set.getParentList().add(parentSet);
                         }
                     }
                     for (Task child : task.getChildList()) {
                         TaskSet childSet = mTask2TaskSet.get(child);
-                        if (!set.getChildList().contains(childSet) && set != childSet) {
+                        if (set != childSet && childSets.add(childSet)) {
                             set.getChildList().add(childSet);
                         }
                     }
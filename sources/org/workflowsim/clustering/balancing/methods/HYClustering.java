@@ -1,5 +1,6 @@
 package org.workflowsim.clustering.balancing.methods;
 
+import org.cloudbus.cloudsim.Log;
 import org.workflowsim.Task;
 import org.workflowsim.clustering.TaskSet;
 
@@ -63,7 +64,7 @@ public class HYClustering extends HorizontalImpactBalancing {
                 while (true){
                     if(newtskset.getChildList().size()==1  &&  newtskset.getChildList().get(0).getParentList().size()==1) {
                         if(newtskset.getImpactFactor()==newtskset.getChildList().get(0).getImpactFactor()){
-                            System.out.println("tesi");
+                            Log.printLine(Log.Level.DEBUG, "tesi");
                             set = newtskset.getChildList().get(0);
                             newtskset = new TaskSet();
                             newtskset.addTask(set.getTaskList());
@@ -19,12 +19,20 @@ package org.workflowsim.clustering.balancing.methods;
 
 import java.util.*;
 
+import org.cloudbus.cloudsim.Log;
 import org.workflowsim.Task;
 import org.workflowsim.clustering.TaskSet;
 
 /**
  * HorizontalDistanceBalancing is a method that merges tasks based on distance
- * metric
+ * metric. The distance of two taskSets is measured to their closest common
+ * descendant (their lowest common ancestor in the reversed workflow): it is
+ * found from the descendants of the taskSets at each step, so no distance
+ * matrix is built. The taskSets of a level that have the same children have
+ * the same descendants: they share them, and the farthest taskSets are
+ * searched among these classes, so the memory and the number of distances
+ * computed grow with the number of classes rather than with the number of
+ * taskSets.
  *
  * @author Weiwei Chen
  * @since WorkflowSim Toolkit 1.0
@@ -42,8 +50,38 @@ public class HorizontalDistanceBalancing extends HorizontalImpactBalancing {
 
     private static double wastage = 0;
 
+    /**
+     * The id of each taskSet met while indexing descendants.
+     */
+    private final Map<TaskSet, Integer> setIds;
+    /**
+     * The descendants of the taskSets (and jobs) of the current level met so
+     * far, per step.
+     */
+    private final Map<TaskSet, Frontiers> frontiers;
+    /**
+     * The descendants shared by the taskSets of the current level with the
+     * same children, by the ids of these children.
+     */
+    private final Map<ChildIds, Frontiers> classes;
+    /**
+     * The jobs of the current level, whose children change as taskSets are
+     * merged in them, so their descendants are not shared.
+     */
+    private final Set<TaskSet> jobs;
+    /**
+     * The length of the longest path below each taskSet, -1 while it is
+     * being computed and Integer.MAX_VALUE on a cycle.
+     */
+    private final Map<TaskSet, Integer> heights;
+
     public HorizontalDistanceBalancing(Map levelMap, Map taskMap, int clusterNum) {
         super(levelMap, taskMap, clusterNum);
+        this.setIds = new IdentityHashMap<>();
+        this.frontiers = new IdentityHashMap<>();
+        this.classes = new HashMap<>();
+        this.jobs = Collections.newSetFromMap(new IdentityHashMap<TaskSet, Boolean>());
+        this.heights = new IdentityHashMap<>();
     }
 
     /**
@@ -55,12 +93,12 @@ public class HorizontalDistanceBalancing extends HorizontalImpactBalancing {
         for (List<TaskSet> taskList : map.values()) {
             process(taskList);
         }
-        System.out.println("Resource wastage "+wastage);
+        Log.formatLine(Log.Level.INFO, "Resource wastage %s", wastage);
     }
 
     /**
-     * Sort taskSet based on their impact factors and then merge similar taskSet
-     * together
+     * Merges the farthest taskSets in their own jobs, then each other taskSet
+     * in the closest job that is not full
      *
      * @param taskList
      */
@@ -68,10 +106,19 @@ public class HorizontalDistanceBalancing extends HorizontalImpactBalancing {
     public void process(List<TaskSet> taskList) {
 
         if (taskList.size() > getClusterNum()) {
+            /**
+             * The levels above have been merged, which changed the parents
+             * only: the descendants of this level are those of the workflow.
+             */
+            frontiers.clear();
+            classes.clear();
+            jobs.clear();
+            heights.clear();
             List<TaskSet> jobList = new ArrayList<>();
             for (int i = 0; i < getClusterNum(); i++) {
                 jobList.add(new TaskSet());
             }
+            jobs.addAll(jobList);
             int clusters_size = taskList.size() / getClusterNum();
             if (clusters_size * getClusterNum() < taskList.size()) {
                 clusters_size++;
@@ -81,15 +128,8 @@ public class HorizontalDistanceBalancing extends HorizontalImpactBalancing {
 
             for (TaskSet set : taskList) {
                 //sortListIncreasing(jobList);
-                TaskSet job = getCandidateTastSet(jobList, set, clusters_size);
-                addTaskSet2TaskSet(set, job);
-                job.addTask(set.getTaskList());
-                job.setImpactFafctor(set.getImpactFactor());
-                //update dependency
-                for (Task task : set.getTaskList()) {
-                    getTaskMap().put(task, job);//this is enough
-                    //impact factor is not updated
-                }
+                TaskSet job = getClosestJob(jobList, set, clusters_size);
+                merge(set, job);
             }
             wastage += calculateCoreHourWastage(jobList);
             taskList.clear();//you sure?
@@ -97,102 +137,166 @@ public class HorizontalDistanceBalancing extends HorizontalImpactBalancing {
     }
 
     /**
-     * Sort taskSet in an ascending order of impact factor
+     * Merges a taskSet in a job
      *
-     * @param taskList taskSets to be sorted
+     * @param set the taskSet
+     * @param job the job
      */
-    private List<Integer> sortDistanceIncreasing(int[][] distances, int size, int num) {
-        List<Integer> newList = new ArrayList<>();
-        //first two
-        int max = 0;
-        int max_i = 0;
-        int max_j = 0;
-        for (int i = 0; i < size; i++) {
-            for (int j = 0; j < i; j++) {
-                if (distances[i][j] > max) {
-                    max = distances[i][j];
-                    max_i = i;
-                    max_j = j;
-                }
-            }
-        }
-        newList.add(max_i);
-        newList.add(max_j);
-
-        double max_dist = 0;
-        max_i = 0;
-        for (int id = 0; id < num - 2; id++) {
-            max_dist = 0;//bug fixed here
-            for (int i = 0; i < size; i++) {
-                double dist = getAvgDistance(i, newList, distances);
-                if (max_dist < dist) {
-                    max_dist = dist;
-                    max_i = i;
-                }
-            }
-            if (max_dist == max) {
-                newList.add(max_i);
-            }
-        }
-        return newList;
-    }
-
-    private double getAvgDistance(int id, List<Integer> list, int[][] distances) {
-        if (list.isEmpty()) {
-            double avg = 0.0;
-            return avg;
-        }
-        double avg = 0.0;
-        for (int nId : list) {
-            if (nId > id) {
-                avg += distances[nId][id];
-            } else if (nId == id) {
-                avg += 0.0;
-            } else {
-                avg += distances[id][nId];
-            }
+    private void merge(TaskSet set, TaskSet job) {
+        addTaskSet2TaskSet(set, job);
+        job.addTask(set.getTaskList());
+        job.setImpactFafctor(set.getImpactFactor());
+        //update dependency
+        for (Task task : set.getTaskList()) {
+            getTaskMap().put(task, job);//this is enough
+            //impact factor is not updated
         }
-        //now it is not zero
-        avg = avg / list.size();
-        return avg;
+        // the children of the job have changed, and the taskSet is empty
+        frontiers.remove(job);
+        heights.remove(job);
+        frontiers.remove(set);
     }
 
+    /**
+     * Picks the taskSets that are the farthest from each other, starting with
+     * the first pair at the largest distance, and merges each of them in its
+     * own job
+     *
+     * @param taskList the taskSets of the level
+     * @param jobList the jobs
+     */
     private List<TaskSet> preprocessing(List<TaskSet> taskList, List<TaskSet> jobList) {
         int size = taskList.size();
+        int num = jobList.size();
         int[] record = new int[size];
         for (int i = 0; i < size; i++) {
             record[i] = -1;
         }
         int index_record = 0;
 
-        int[][] distances = new int[size][size];
+        /**
+         * The class of each taskSet, numbered in the order of their first
+         * taskSet. A taskSet without task is a class of its own.
+         */
+        int[] classOf = new int[size];
+        List<Integer> firsts = new ArrayList<>();
+        Map<Frontiers, Integer> classIds = new IdentityHashMap<>();
+        for (int i = 0; i < size; i++) {
+            TaskSet set = taskList.get(i);
+            Integer c = null;
+            if (!set.getTaskList().isEmpty()) {
+                c = classIds.get(getFrontiers(set));
+                if (c == null) {
+                    classIds.put(getFrontiers(set), firsts.size());
+                }
+            }
+            if (c == null) {
+                c = firsts.size();
+                firsts.add(i);
+            }
+            classOf[i] = c;
+        }
 
+        /**
+         * The largest distance a taskSet can have to another one, used to
+         * skip the pairs that cannot beat the current maximum.
+         */
+        int[] bound = new int[size];
+        int largest = Integer.MIN_VALUE;
+        int second = Integer.MIN_VALUE;
         for (int i = 0; i < size; i++) {
-            for (int j = 0; j < i; j++) {
-                TaskSet setA = (TaskSet) taskList.get(i);
-                TaskSet setB = (TaskSet) taskList.get(j);
-                int distance = calDistance(setA, setB);
+            TaskSet set = taskList.get(i);
+            int height = getHeight(set);
+            bound[i] = set.getTaskList().isEmpty() || height == Integer.MAX_VALUE
+                    ? Integer.MAX_VALUE : 2 * (height + 1);
+            if (bound[i] > largest) {
+                second = largest;
+                largest = bound[i];
+            } else if (bound[i] > second) {
+                second = bound[i];
+            }
+        }
 
-                distances[i][j] = distance;
+        /**
+         * First the pair at the largest distance, the first one in the order
+         * of the list. Any pair is at the distance of a pair made of the
+         * first taskSet of a class and the first taskSet of an earlier class,
+         * or the first two taskSets of a class, which comes first, so only
+         * those are compared.
+         */
+        int max = 0;
+        int max_i = 0;
+        int max_j = 0;
+        int[] met = new int[firsts.size()];
+        search:
+        for (int i = 0; i < size; i++) {
+            int c = classOf[i];
+            met[c]++;
+            if (met[c] > 2) {
+                continue;
+            }
+            int from = met[c] == 1 ? 0 : c;
+            int to = met[c] == 1 ? c : c + 1;
+            for (int k = from; k < to; k++) {
+                int j = firsts.get(k);
+                if (Math.min(bound[i], bound[j]) > max) {
+                    int distance = calDistance(taskList.get(i), taskList.get(j));
+                    if (distance > max) {
+                        max = distance;
+                        max_i = i;
+                        max_j = j;
+                        if (max == second) {
+                            break search;
+                        }
+                    }
+                }
+            }
+        }
+        List<Integer> idList = new ArrayList<>();
+        idList.add(max_i);
+        idList.add(max_j);
 
+        /**
+         * Then the taskSets whose average distance to those picked is the
+         * largest distance, as long as there are some. The sums of the
+         * distances to the picked taskSets are kept per class, so each pick
+         * costs one distance per class; a picked taskSet is at distance 0,
+         * not at the distance within its class, to itself.
+         */
+        if (num > 2) {
+            double[] sums = new double[firsts.size()];
+            int[] within = new int[firsts.size()];
+            for (int c = 0; c < firsts.size(); c++) {
+                within[c] = getClassDistance(taskList.get(firsts.get(c)));
+            }
+            int[] picked = new int[size];
+            for (int p : idList) {
+                pick(p, taskList, classOf, firsts, within, sums, picked);
+            }
+            for (int id = 0; id < num - 2; id++) {
+                double max_dist = 0;
+                for (int i = 0; i < size; i++) {
+                    double dist = (sums[classOf[i]] - picked[i] * (double) within[classOf[i]])
+                            / idList.size();
+                    if (max_dist < dist) {
+                        max_dist = dist;
+                        max_i = i;
+                    }
+                }
+                if (max_dist != max) {
+                    // nothing changes, so no later round would pick one either
+                    break;
+                }
+                idList.add(max_i);
+                pick(max_i, taskList, classOf, firsts, within, sums, picked);
             }
         }
+
         int job_index = 0;
-        //boolean [] popped = new boolean[size];
-        List<Integer> idList = sortDistanceIncreasing(distances, size, jobList.size());
-        for (int max_i : idList) {
-            record[index_record] = max_i;
+        for (int picked : idList) {
+            record[index_record] = picked;
             index_record++;
-            TaskSet set = (TaskSet) taskList.get(max_i);
-            TaskSet job = jobList.get(job_index);
-            addTaskSet2TaskSet(set, job);
-            job.addTask(set.getTaskList());
-            job.setImpactFafctor(set.getImpactFactor());
-            //update dependency
-            for (Task task : set.getTaskList()) {
-                getTaskMap().put(task, job);//this is enough
-                //impact factor is not updated
-            }
+            merge(taskList.get(picked), jobList.get(job_index));
             job_index++;
             if (job_index == jobList.size()) {
                 break;
@@ -210,95 +314,121 @@ public class HorizontalDistanceBalancing extends HorizontalImpactBalancing {
         return taskList;
     }
 
-    private List<TaskSet> getNextPotentialTaskSets(List<TaskSet> taskList,
-                                                   TaskSet checkSet, int clusters_size) {
-        int dis = Integer.MAX_VALUE;
-
-        Map<Integer, List<TaskSet>> map = new HashMap<>();
-        for (TaskSet set : taskList) {
-            int distance = calDistance(checkSet, set);
-            if (distance < dis) {
-                dis = distance;
-            }
-            if (!map.containsKey(distance)) {
-                map.put(distance, new ArrayList<>());
-            }
-            ArrayList<TaskSet> list = (ArrayList) map.get(distance);
-            if (!list.contains(set)) {
-                list.add(set);
-            }
-        }
-        List returnList = new ArrayList<>();
-        for (TaskSet set : map.get(dis)) {
-            if (set.getTaskList().size() < clusters_size) {
-                returnList.add(set);
-            }
+    /**
+     * Adds the distance of each class to a picked taskSet to the sums of the
+     * distances of the classes
+     *
+     * @param p the position of the picked taskSet
+     * @param taskList the taskSets
+     * @param classOf the class of each taskSet
+     * @param firsts the first taskSet of each class
+     * @param within the distance between two taskSets of each class
+     * @param sums the sums of the distances of each class
+     * @param picked the number of times each taskSet has been picked
+     */
+    private void pick(int p, List<TaskSet> taskList, int[] classOf, List<Integer> firsts,
+            int[] within, double[] sums, int[] picked) {
+        for (int c = 0; c < sums.length; c++) {
+            sums[c] += c == classOf[p] ? within[c]
+                    : calDistance(taskList.get(firsts.get(c)), taskList.get(p));
         }
+        picked[p]++;
+    }
 
-        if (returnList.isEmpty()) {
-            returnList.clear();
-            for (TaskSet set : taskList) {
-                if (set.getTaskList().isEmpty()) {
-                    returnList.add(set);
-                    return returnList;
-                }
-            }
-
-            //no empty available
-            while (returnList.isEmpty()) {
-                map.remove(dis);
-                List<Integer> keys = new ArrayList(map.keySet());
-                int min = Integer.MAX_VALUE;
-                for (int i : keys) {
-                    if (min > i) {
-                        min = i;
-                    }
-                }
-                dis = min;
+    /**
+     * Gets the distance between two different taskSets of the class of a
+     * taskSet
+     *
+     * @param set the taskSet
+     * @return the distance
+     */
+    private int getClassDistance(TaskSet set) {
+        if (set.getTaskList().isEmpty()) {
+            return Integer.MAX_VALUE;
+        }
+        return calDistance(getFrontiers(set), getFrontiers(set));
+    }
 
-                for (TaskSet set : map.get(dis)) {
-                    if (set.getTaskList().size() < clusters_size) {
-                        returnList.add(set);
+    /**
+     * Gets the job to merge a taskSet in: the job closest to the taskSet that
+     * is not full, the one with the lowest runtime first. If the closest jobs
+     * are all full, the first empty job, or else the next closest job that is
+     * not full.
+     *
+     * @param taskList the jobs
+     * @param checkSet the taskSet
+     * @param clusters_size the maximum number of tasks of a job
+     * @return the job
+     */
+    private TaskSet getClosestJob(List<TaskSet> taskList,
+                                  TaskSet checkSet,
+                                  int clusters_size) {
+        /**
+         * The candidate merges, the closest first, then the lowest runtime,
+         * then in the order of the list.
+         */
+        PriorityQueue<Candidate> candidates = new PriorityQueue<>();
+        for (int i = 0; i < taskList.size(); i++) {
+            TaskSet set = taskList.get(i);
+            candidates.add(new Candidate(set, calDistance(checkSet, set), set.getJobRuntime(), i));
+        }
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        int closest = candidates.peek().distance;
+        while (!candidates.isEmpty()) {
+            Candidate candidate = candidates.poll();
+            if (candidate.distance != closest && closest >= 0) {
+                // none of the closest is open: the first empty one wins
+                for (TaskSet set : taskList) {
+                    if (set.getTaskList().isEmpty()) {
+                        return set;
                     }
                 }
+                closest = -1;
+            }
+            if (candidate.set.getTaskList().size() < clusters_size) {
+                return candidate.set;
             }
         }
-        return returnList;
+        return taskList.get(0);
     }
 
     /**
-     * Gets the potential candidate taskSets to merge
-     *
-     * @param taskList
-     * @param checkSet
-     * @param clusters_size
-     * @return
+     * A job a taskSet may be merged in
      */
-    protected TaskSet getCandidateTastSet(ArrayList<TaskSet> taskList,
-                                          TaskSet checkSet,
-                                          int clusters_size) {
-
-        List<TaskSet> potential = getNextPotentialTaskSets(taskList, checkSet, clusters_size);
-        TaskSet task = null;
-        long min = Long.MAX_VALUE;
-        for (TaskSet set : potential) {
-            if (set.getJobRuntime() < min) {
-                min = set.getJobRuntime();
-                task = set;
-            }
+    private static class Candidate implements Comparable<Candidate> {
+
+        private final TaskSet set;
+        private final int distance;
+        private final long runtime;
+        private final int order;
+
+        private Candidate(TaskSet set, int distance, long runtime, int order) {
+            this.set = set;
+            this.distance = distance;
+            this.runtime = runtime;
+            this.order = order;
         }
 
-        if (task != null) {
-            return task;
-        } else {
-            return taskList.get(0);
+        @Override
+        public int compareTo(Candidate o) {
+            if (distance != o.distance) {
+                return Integer.compare(distance, o.distance);
+            }
+            if (runtime != o.runtime) {
+                return Long.compare(runtime, o.runtime);
+            }
+            return Integer.compare(order, o.order);
         }
     }
 
     /**
      * Calculate the distance between two taskSet one assumption here taskA and
      * taskB are at the same level because it is horizontal clustering does not
-     * work with arbitary workflows
+     * work with arbitary workflows. It is twice the number of steps to their
+     * closest common descendant, minus 2; or, if they have none, twice the
+     * length of the shorter of their longest paths, plus 2.
      *
      * @param taskA
      * @param taskB
@@ -308,47 +438,209 @@ public class HorizontalDistanceBalancing extends HorizontalImpactBalancing {
         if (taskA == null || taskB == null || taskA == taskB) {
             return 0;
         }
-        LinkedList<TaskSet> listA = new LinkedList<>();
-        LinkedList<TaskSet> listB = new LinkedList<>();
-        int distance = 0;
-        listA.add(taskA);
-        listB.add(taskB);
-
         if (taskA.getTaskList().isEmpty() || taskB.getTaskList().isEmpty()) {
             return Integer.MAX_VALUE;
         }
-        do {
+        return calDistance(getFrontiers(taskA), getFrontiers(taskB));
+    }
 
-            LinkedList<TaskSet> copyA = (LinkedList) listA.clone();
-            listA.clear();
-            for (TaskSet set : copyA) {
-                for (TaskSet child : set.getChildList()) {
-                    if (!listA.contains(child)) {
-                        listA.add(child);
-                    }
-                }
+    /**
+     * Calculates the distance between the taskSets of two classes
+     *
+     * @param a the descendants of a taskSet
+     * @param b the descendants of another one
+     * @return the distance
+     */
+    private static int calDistance(Frontiers a, Frontiers b) {
+        int k = 0;
+        while (true) {
+            int[] stepA = a.get(k);
+            int[] stepB = b.get(k);
+            if (stepA == null || stepB == null) {
+                return (k + 1) * 2;
             }
-            LinkedList<TaskSet> copyB = (LinkedList) listB.clone();
-            listB.clear();
-            for (TaskSet set : copyB) {
-                for (TaskSet child : set.getChildList()) {
-                    if (!listB.contains(child)) {
-                        listB.add(child);
-                    }
+            if (intersects(stepA, stepB)) {
+                return k * 2;
+            }
+            k++;
+        }
+    }
+
+    /**
+     * Gets the descendants of a taskSet per step, shared with the taskSets of
+     * the level that have the same children
+     *
+     * @param set the taskSet
+     * @return the descendants
+     */
+    private Frontiers getFrontiers(TaskSet set) {
+        Frontiers result = frontiers.get(set);
+        if (result == null) {
+            Set<TaskSet> children = Collections.newSetFromMap(new IdentityHashMap<TaskSet, Boolean>());
+            children.addAll(set.getChildList());
+            int[] ids = getSetIds(children);
+            if (jobs.contains(set)) {
+                result = new Frontiers(children, ids);
+            } else {
+                ChildIds key = new ChildIds(ids);
+                result = classes.get(key);
+                if (result == null) {
+                    result = new Frontiers(children, ids);
+                    classes.put(key, result);
                 }
             }
+            frontiers.put(set, result);
+        }
+        return result;
+    }
 
-            for (TaskSet set : listA) {
-                if (listB.contains(set)) {
-                    return distance * 2;
+    /**
+     * The sorted ids of the children of a taskSet, as a key
+     */
+    private static final class ChildIds {
+
+        private final int[] ids;
+        private final int hash;
+
+        private ChildIds(int[] ids) {
+            this.ids = ids;
+            this.hash = Arrays.hashCode(ids);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof ChildIds && Arrays.equals(ids, ((ChildIds) obj).ids);
+        }
+    }
+
+    /**
+     * The taskSets reached from a taskSet in exactly k + 1 steps, for each k,
+     * walked one step further each time a step is needed. It is not walked to
+     * the end at once since merged taskSets may be their own children.
+     */
+    private class Frontiers {
+
+        private final List<int[]> steps;
+        /**
+         * The taskSets of the last step walked, null once the walk is over.
+         */
+        private Collection<TaskSet> current;
+
+        /**
+         * Starts the walk from the children of a taskSet
+         *
+         * @param children the children, without repetition
+         * @param ids their sorted ids
+         */
+        private Frontiers(Collection<TaskSet> children, int[] ids) {
+            this.steps = new ArrayList<>();
+            if (ids.length > 0) {
+                this.steps.add(ids);
+                this.current = children;
+            }
+        }
+
+        /**
+         * Gets the sorted ids of the taskSets reached in exactly k + 1 steps
+         *
+         * @param k the step
+         * @return the ids, or null if there is no such taskSet
+         */
+        private int[] get(int k) {
+            while (steps.size() <= k && current != null) {
+                Set<TaskSet> next = Collections.newSetFromMap(new IdentityHashMap<TaskSet, Boolean>());
+                for (TaskSet node : current) {
+                    next.addAll(node.getChildList());
                 }
+                if (next.isEmpty()) {
+                    current = null;
+                    break;
+                }
+                steps.add(getSetIds(next));
+                current = next;
             }
+            return k < steps.size() ? steps.get(k) : null;
+        }
+    }
 
-            distance++;
+    /**
+     * Gets the length of the longest path below a taskSet, which is the
+     * number of steps before its descendants run out
+     *
+     * @param set the taskSet
+     * @return the length, or Integer.MAX_VALUE if a cycle is reached
+     */
+    private int getHeight(TaskSet set) {
+        Integer height = heights.get(set);
+        if (height != null) {
+            return height == -1 ? Integer.MAX_VALUE : height;
+        }
+        heights.put(set, -1);
+        int result = 0;
+        for (TaskSet child : set.getChildList()) {
+            int h = getHeight(child);
+            if (h == Integer.MAX_VALUE) {
+                result = Integer.MAX_VALUE;
+                break;
+            }
+            result = Math.max(result, h + 1);
+        }
+        heights.put(set, result);
+        return result;
+    }
+
+    /**
+     * Gets the id of a taskSet
+     *
+     * @param set the taskSet
+     * @return the id
+     */
+    private int getSetId(TaskSet set) {
+        Integer id = setIds.get(set);
+        if (id == null) {
+            id = setIds.size();
+            setIds.put(set, id);
+        }
+        return id;
+    }
 
-        } while (!listA.isEmpty() && !listB.isEmpty());
+    /**
+     * Gets the ids of taskSets
+     *
+     * @param sets the taskSets, without repetition
+     * @return the sorted ids
+     */
+    private int[] getSetIds(Collection<TaskSet> sets) {
+        int[] ids = new int[sets.size()];
+        int count = 0;
+        for (TaskSet node : sets) {
+            ids[count++] = getSetId(node);
+        }
+        Arrays.sort(ids);
+        return ids;
+    }
 
-        return distance * 2;
+    /**
+     * Checks whether two sorted arrays share a value, by looking up the values
+     * of the shorter one in the longer one
+     */
+    private static boolean intersects(int[] a, int[] b) {
+        if (a.length > b.length) {
+            int[] c = a;
+            a = b;
+            b = c;
+        }
+        for (int value : a) {
+            if (Arrays.binarySearch(b, value) >= 0) {
+                return true;
+            }
+        }
+        return false;
     }
 }
 /*
@@ -23,6 +23,7 @@ import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import org.cloudbus.cloudsim.Log;
 import org.workflowsim.Task;
 import org.workflowsim.clustering.TaskSet;
 
@@ -57,7 +58,7 @@ public class HorizontalImpactBalancing extends BalancingMethod {
         for (List<TaskSet> taskList : map.values()) {
             process(taskList);
         }
-        System.out.println("Resource wastage "+wastage);
+        Log.formatLine(Log.Level.INFO, "Resource wastage %s", wastage);
     }
 
     /**
@@ -1,5 +1,6 @@
 package org.workflowsim.clustering.balancing.methods;
 
+import org.cloudbus.cloudsim.Log;
 import org.workflowsim.Task;
 import org.workflowsim.clustering.TaskSet;
 
@@ -30,7 +31,7 @@ public class HorizontalResourceAwareBalancing extends BalancingMethod {
         for (List<TaskSet> taskList : map.values()) {
             process(taskList);
         }
-        System.out.println("Resource wastage "+wastage);
+        Log.formatLine(Log.Level.INFO, "Resource wastage %s", wastage);
     }
 
     /**
@@ -23,6 +23,7 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import org.cloudbus.cloudsim.Log;
 import org.workflowsim.Task;
 import org.workflowsim.clustering.TaskSet;
 
@@ -85,7 +86,7 @@ public class HorizontalRuntimeBalancing extends BalancingMethod {
 
 
         }
-        System.out.println("Resource wastage "+wastage);
+        Log.formatLine(Log.Level.INFO, "Resource wastage %s", wastage);
     }
     /**
      * Sort taskSets based on their runtime
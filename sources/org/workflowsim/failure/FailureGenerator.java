@@ -20,9 +20,11 @@ import org.apache.commons.math3.distribution.LogNormalDistribution;
 import org.apache.commons.math3.distribution.NormalDistribution;
 import org.apache.commons.math3.distribution.RealDistribution;
 import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.core.SimulationContext;
 import org.workflowsim.Job;
 import org.workflowsim.Task;
 import org.apache.commons.math3.distribution.WeibullDistribution;
+import org.workflowsim.utils.CumulativeSampleIndex;
 import org.workflowsim.utils.DistributionGenerator;
 
 /**
@@ -40,8 +42,40 @@ public class FailureGenerator {
      * is too high for this workflow
      */
     private static final int maxFailureSizeExtension = 50;
-    private static int failureSizeExtension = 0;
     private static final boolean hasChangeTime = false;
+
+    /**
+     * The number of extensions in each simulation context.
+     */
+    private static final SimulationContext.Key<State> STATE = new SimulationContext.Key<State>() {
+
+        @Override
+        protected State initialValue() {
+            return new State();
+        }
+    };
+
+    /**
+     * The state of this class in a simulation context.
+     */
+    private static class State {
+
+        /**
+         * The number of times the samples have been extended
+         */
+        int failureSizeExtension = 0;
+    }
+
+    /**
+     * Gets the state of this class in the simulation context of the
+     * calling thread
+     *
+     * @return the state
+     */
+    private static State state() {
+        return SimulationContext.current().get(STATE);
+    }
+
     /**
      *
      * @param alpha
@@ -118,31 +152,29 @@ public class FailureGenerator {
         double end = task.getTaskFinishTime();
         
         
-        double[] samples = generator.getCumulativeSamples();
+        CumulativeSampleIndex samples = generator.getCumulativeSampleIndex();
         
-        while (samples[samples.length - 1] < start) {
+        State state = state();
+        while (samples.getLast() < start) {
             generator.extendSamples();
-            samples = generator.getCumulativeSamples();
-            failureSizeExtension++;
-            if (failureSizeExtension >= maxFailureSizeExtension) {
+            state.failureSizeExtension++;
+            if (state.failureSizeExtension >= maxFailureSizeExtension) {
                 throw new Exception("Error rate is too high such that the simulator terminates");
 
             }
         }
 
-        for (int sampleId = 0; sampleId < samples.length; sampleId++) {
-            if (end < samples[sampleId]) {
-                //no failure
-                return false;
-            }
-            if (start <= samples[sampleId]) {
-                //has a failure
-                /** The idea is we need to update the cursor in generator**/
-                generator.getNextSample();
-                return true;
-            }
+        /**
+         * The first failure arrival in [start, end], found by binary search,
+         * unless an arrival after end comes first
+         */
+        if (samples.findInterval(start, end) >= 0) {
+            //has a failure
+            /** The idea is we need to update the cursor in generator**/
+            generator.getNextSample();
+            return true;
         }
-
+        //no failure
         return false;
     }
 
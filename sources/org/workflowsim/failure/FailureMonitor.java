@@ -15,14 +15,17 @@
  */
 package org.workflowsim.failure;
 
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimulationContext;
 
 /**
- * FailureMonitor collects failure information
+ * FailureMonitor collects failure information. The failure rates are kept up
+ * to date by a FailureRateEstimator per key as the records are posted, so the
+ * records themselves are not kept. The estimators are kept by the
+ * SimulationContext of the calling thread.
  *
  * @author Weiwei Chen
  * @since WorkflowSim Toolkit 1.0
@@ -31,34 +34,82 @@ import org.cloudbus.cloudsim.Log;
 public class FailureMonitor {
 
     /**
-     * VM ID to a Failure Record. *
+     * The records and estimators in each simulation context.
      */
-    protected static Map<Integer, List<FailureRecord>> vm2record;
+    private static final SimulationContext.Key<State> STATE = new SimulationContext.Key<State>() {
+
+        @Override
+        protected State initialValue() {
+            return new State();
+        }
+    };
+
     /**
-     * Type to a Failure Record. *
+     * The state of this class in a simulation context.
      */
-    protected static Map<Integer, List<FailureRecord>> type2record;
+    private static class State {
+
+        /**
+         * VM ID to a Failure Rate Estimator. *
+         */
+        Map<Integer, FailureRateEstimator> vm2estimator;
+        /**
+         * Type to a Failure Rate Estimator. *
+         */
+        Map<Integer, FailureRateEstimator> type2estimator;
+        /**
+         * The Failure Rate Estimator of the workflow (all jobs together), created
+         * with the first record like the others.
+         */
+        FailureRateEstimator workflowEstimator;
+        /**
+         * JobID to a Failure Record. *
+         */
+        Map<Integer, FailureRecord> jobid2record;
+        /**
+         * Id to a Job.
+         */
+        Map index2job;
+    }
+
     /**
-     * JobID to a Failure Record. *
+     * Gets the state of this class in the simulation context of the
+     * calling thread
+     *
+     * @return the state
      */
-    protected static Map<Integer, FailureRecord> jobid2record;
+    private static State state() {
+        return SimulationContext.current().get(STATE);
+    }
+
     /**
-     * All the record list.
+     * Initialize a FailureMonitor object.
      */
-    protected static List<FailureRecord> recordList;
+    public static void init() {
+        State state = state();
+        state.vm2estimator = new HashMap<>();
+        state.type2estimator = new HashMap<>();
+        state.workflowEstimator = null;
+        state.jobid2record = new HashMap<>();
+    }
+
     /**
-     * Id to a Job.
+     * Gets the map from id to job. It used to be the public static field
+     * index2job and is now kept by the simulation context.
+     *
+     * @return the map from id to job
      */
-    public static Map index2job;
+    public static Map getIndex2job() {
+        return state().index2job;
+    }
 
     /**
-     * Initialize a FailureMonitor object.
+     * Sets the map from id to job
+     *
+     * @param index2job the map from id to job
      */
-    public static void init() {
-        vm2record = new HashMap<>();
-        type2record = new HashMap<>();
-        jobid2record = new HashMap<>();
-        recordList = new ArrayList<>();
+    public static void setIndex2job(Map index2job) {
+        state().index2job = index2job;
     }
 
     /**
@@ -118,89 +169,81 @@ public class FailureMonitor {
      * @param record a failure record
      */
     public static void postFailureRecord(FailureRecord record) {
+        State state = state();
 
         if (record.workflowId < 0 || record.jobId < 0 || record.vmId < 0) {
             Log.printLine("Error in receiving failure record");
             return;
         }
 
+        double time = CloudSim.clock();
         switch (FailureParameters.getMonitorMode()) {
             case MONITOR_VM:
 
-                if (!vm2record.containsKey(record.vmId)) {
-                    vm2record.put(record.vmId, new ArrayList<>());
-                }
-                vm2record.get(record.vmId).add(record);
+                getEstimator(state.vm2estimator, record.vmId)
+                        .add(record.failedTasksNum, record.allTaskNum, time);
 
                 break;
             case MONITOR_JOB:
 
-                if (!type2record.containsKey(record.depth)) {
-                    type2record.put(record.depth, new ArrayList<>());
-                }
-                type2record.get(record.depth).add(record);
+                getEstimator(state.type2estimator, record.depth)
+                        .add(record.failedTasksNum, record.allTaskNum, time);
 
                 break;
             case MONITOR_NONE:
                 break;
         }
+        if (state.workflowEstimator == null) {
+            state.workflowEstimator = new FailureRateEstimator();
+        }
+        state.workflowEstimator.add(record.failedTasksNum, record.allTaskNum, time);
+    }
 
-        recordList.add(record);
+    /**
+     * Gets the estimator of a key, creating it if needed
+     *
+     * @param estimators the estimators by key
+     * @param key the vm id or the depth
+     * @return the estimator
+     */
+    private static FailureRateEstimator getEstimator(Map<Integer, FailureRateEstimator> estimators, int key) {
+        FailureRateEstimator estimator = estimators.get(key);
+        if (estimator == null) {
+            estimator = new FailureRateEstimator();
+            estimators.put(key, estimator);
+        }
+        return estimator;
     }
 
     /**
-     * Update the detected task failure rate based on record lists
+     * Gets the detected task failure rate from the running counts
      *
      * @param workflowId, doesn't work in this version
      * @param type, the type of job or vm
      * @return task failure rate
      */
     public static double analyze(int workflowId, int type) {
+        State state = state();
 
-        /**
-         * workflow level : all jobs together *
-         */
-        int sumFailures = 0;
-        int sumJobs = 0;
+        FailureRateEstimator estimator = null;
         switch (FailureParameters.getMonitorMode()) {
             case MONITOR_ALL:
-
-                for (FailureRecord record : recordList) {
-                    sumFailures += record.failedTasksNum;
-                    sumJobs += record.allTaskNum;
-                }
-
+                /**
+                 * workflow level : all jobs together *
+                 */
+                estimator = state.workflowEstimator;
                 break;
-
             case MONITOR_JOB:
-
-                if (type2record.containsKey(type)) {
-                    for (FailureRecord record : type2record.get(type)) {
-
-                        sumFailures += record.failedTasksNum;
-                        sumJobs += record.allTaskNum;
-                    }
-                }
-
+                estimator = state.type2estimator.get(type);
                 break;
             case MONITOR_VM:
-
-                if (vm2record.containsKey(type)) {
-                    for (FailureRecord record : vm2record.get(type)) {
-
-                        sumFailures += record.failedTasksNum;
-                        sumJobs += record.allTaskNum;
-                    }
-                }
-
+                estimator = state.vm2estimator.get(type);
                 break;
         }
 
-
-        if (sumFailures == 0) {
+        if (estimator == null) {
             return 0;
         }
-        double alpha = (double) ((double) sumFailures / (double) sumJobs);
-        return alpha;
+        return estimator.getRate();
     }
 }
@@ -18,6 +18,7 @@
 package org.workflowsim.failure;
 
 import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.core.SimulationContext;
 import org.workflowsim.utils.DistributionGenerator;
 import org.workflowsim.utils.DistributionGenerator.DistributionFamily;
 
@@ -27,15 +28,6 @@ import org.workflowsim.utils.DistributionGenerator.DistributionFamily;
  */
 public class FailureParameters {
 
-    /**
-     * Task Failure Rate 
-     * first index is vmId ;second index is task depth
-     * If FAILURE_JOB is specified first index is 0 only
-     * If FAILURE_VM is specified second index is 0 only
-     *
-     * @pre 0.0<= value <= 1.0
-     */
-    private static DistributionGenerator[][] generators;
     /**
      * Fault Tolerant Clustering algorithm
      */
@@ -60,28 +52,87 @@ public class FailureParameters {
 
         FAILURE_NONE, FAILURE_ALL, FAILURE_VM, FAILURE_JOB, FAILURE_VM_JOB
     }
-
-    /**
-     * Fault Tolerant Clustering method
+    /*
+     * FTC Monitor failure rate estimator
+     * CUMULATIVE: all the records so far
+     * WINDOW: the last estimatorWindow records of each key
+     * DECAYED: all the records, weighted by exp(-ln2 * age / estimatorHalfLife)
      */
-    private static FTCluteringAlgorithm FTClusteringAlgorithm = FTCluteringAlgorithm.FTCLUSTERING_NOOP;
+
+    public enum FTCEstimator {
+
+        CUMULATIVE, WINDOW, DECAYED
+    }
+
     /**
-     * Fault Tolerant Clustering monitor mode
+     * Invalid return value
      */
-    private static FTCMonitor monitorMode = FTCMonitor.MONITOR_NONE;
+    private static final int INVALID = -1;
+
     /**
-     * Fault Tolerant Clustering failure generation mode
+     * The parameters in each simulation context.
      */
-    private static FTCFailure failureMode = FTCFailure.FAILURE_NONE;
-    
+    private static final SimulationContext.Key<State> STATE = new SimulationContext.Key<State>() {
+
+        @Override
+        protected State initialValue() {
+            return new State();
+        }
+    };
+
     /**
-     * The distribution of the failure 
+     * The state of this class in a simulation context.
      */
-    private static DistributionFamily distribution = DistributionFamily.WEIBULL;
+    private static class State {
+
+        /**
+         * Task Failure Rate 
+         * first index is vmId ;second index is task depth
+         * If FAILURE_JOB is specified first index is 0 only
+         * If FAILURE_VM is specified second index is 0 only
+         *
+         * @pre 0.0<= value <= 1.0
+         */
+        DistributionGenerator[][] generators;
+        /**
+         * Fault Tolerant Clustering method
+         */
+        FTCluteringAlgorithm FTClusteringAlgorithm = FTCluteringAlgorithm.FTCLUSTERING_NOOP;
+        /**
+         * Fault Tolerant Clustering monitor mode
+         */
+        FTCMonitor monitorMode = FTCMonitor.MONITOR_NONE;
+        /**
+         * Fault Tolerant Clustering failure generation mode
+         */
+        FTCFailure failureMode = FTCFailure.FAILURE_NONE;
+        /**
+         * The distribution of the failure 
+         */
+        DistributionFamily distribution = DistributionFamily.WEIBULL;
+        /**
+         * The failure rate estimator of the monitor
+         */
+        FTCEstimator estimator = FTCEstimator.CUMULATIVE;
+        /**
+         * The number of records per key used by the WINDOW estimator
+         */
+        int estimatorWindow = 100;
+        /**
+         * The half-life in seconds of a record for the DECAYED estimator
+         */
+        double estimatorHalfLife = 3600.0;
+    }
+
     /**
-     * Invalid return value
+     * Gets the state of this class in the simulation context of the
+     * calling thread
+     *
+     * @return the state
      */
-    private static final int INVALID = -1;
+    private static State state() {
+        return SimulationContext.current().get(STATE);
+    }
 
     /**
      * 
@@ -94,10 +145,11 @@ public class FailureParameters {
      */
     public static void init(FTCluteringAlgorithm fMethod, FTCMonitor monitor, 
             FTCFailure failure, DistributionGenerator[][] failureGenerators) {
-        FTClusteringAlgorithm = fMethod;
-        monitorMode = monitor;
-        failureMode = failure;
-        generators = failureGenerators;
+        State state = state();
+        state.FTClusteringAlgorithm = fMethod;
+        state.monitorMode = monitor;
+        state.failureMode = failure;
+        state.generators = failureGenerators;
     }
 
     /**
@@ -112,7 +164,7 @@ public class FailureParameters {
     public static void init(FTCluteringAlgorithm fMethod, FTCMonitor monitor, 
             FTCFailure failure, DistributionGenerator[][] failureGenerators, 
             DistributionFamily dist) {
-        distribution = dist;
+        state().distribution = dist;
         init(fMethod, monitor, failure, failureGenerators);
     }
     /**
@@ -123,10 +175,11 @@ public class FailureParameters {
      * @post $none
      */
     public static DistributionGenerator[][] getFailureGenerators() {
-        if(generators==null){
+        State state = state();
+        if(state.generators==null){
             Log.printLine("ERROR: alpha is not initialized");
         }
-        return generators;
+        return state.generators;
     }
     
     /**
@@ -134,11 +187,12 @@ public class FailureParameters {
      * @return max
      */
     public static int getFailureGeneratorsMaxFirstIndex(){
-        if(generators==null || generators.length == 0){
+        State state = state();
+        if(state.generators==null || state.generators.length == 0){
             Log.printLine("ERROR: alpha is not initialized");
             return INVALID;
         }
-        return generators.length;
+        return state.generators.length;
     }
     
     /**
@@ -146,13 +200,14 @@ public class FailureParameters {
      * @return max
      */
     public static int getFailureGeneratorsMaxSecondIndex(){
+        State state = state();
         //Test whether it is valid
         getFailureGeneratorsMaxFirstIndex();
-        if(generators[0]==null || generators[0].length == 0){
+        if(state.generators[0]==null || state.generators[0].length == 0){
             Log.printLine("ERROR: alpha is not initialized");
             return INVALID;
         }
-        return generators[0].length;
+        return state.generators[0].length;
     }
     
 
@@ -163,7 +218,7 @@ public class FailureParameters {
      * @return task failure rate
      */
     public static DistributionGenerator getGenerator(int vmIndex, int taskDepth) {
-        return generators[vmIndex][taskDepth];
+        return state().generators[vmIndex][taskDepth];
     }
     
     /**
@@ -174,7 +229,7 @@ public class FailureParameters {
      * @post $none
      */
     public static FTCFailure getFailureGeneratorMode() {
-        return failureMode;
+        return state().failureMode;
     }
 
     /**
@@ -185,7 +240,7 @@ public class FailureParameters {
      * @post $none
      */
     public static FTCMonitor getMonitorMode() {
-        return monitorMode;
+        return state().monitorMode;
     }
 
     /**
@@ -196,7 +251,7 @@ public class FailureParameters {
      * @post $none
      */
     public static FTCluteringAlgorithm getFTCluteringAlgorithm() {
-        return FTClusteringAlgorithm;
+        return state().FTClusteringAlgorithm;
     }
     
     /**
@@ -204,6 +259,54 @@ public class FailureParameters {
      * @return distribution
      */
     public static DistributionFamily getFailureDistribution(){
-        return distribution;
+        return state().distribution;
+    }
+    
+    /**
+     * Sets the failure rate estimator of the monitor
+     * @param mode the estimator
+     */
+    public static void setEstimator(FTCEstimator mode){
+        state().estimator = mode;
+    }
+    
+    /**
+     * Gets the failure rate estimator of the monitor
+     * @return the estimator
+     */
+    public static FTCEstimator getEstimator(){
+        return state().estimator;
+    }
+    
+    /**
+     * Sets the number of records per key used by the WINDOW estimator
+     * @param window the number of records, at least 1
+     */
+    public static void setEstimatorWindow(int window){
+        state().estimatorWindow = window;
+    }
+    
+    /**
+     * Gets the number of records per key used by the WINDOW estimator
+     * @return the number of records
+     */
+    public static int getEstimatorWindow(){
+        return state().estimatorWindow;
+    }
+    
+    /**
+     * Sets the half-life of a record for the DECAYED estimator
+     * @param halfLife the half-life in seconds
+     */
+    public static void setEstimatorHalfLife(double halfLife){
+        state().estimatorHalfLife = halfLife;
+    }
+    
+    /**
+     * Gets the half-life of a record for the DECAYED estimator
+     * @return the half-life in seconds
+     */
+    public static double getEstimatorHalfLife(){
+        return state().estimatorHalfLife;
     }
 }
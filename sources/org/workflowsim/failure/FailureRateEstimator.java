@@ -0,0 +1,144 @@
+/**
+ * Copyright 2012-2013 University Of Southern California
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.workflowsim.failure;
+
+/**
+ * FailureRateEstimator keeps the running counts of failed and executed tasks
+ * of one key (the whole workflow, a depth or a vm) so that the task failure
+ * rate is updated in O(1) per record and read in O(1).
+ *
+ * @since WorkflowSim Toolkit 1.1
+ * @date Oct 18, 2026
+ */
+public class FailureRateEstimator {
+
+    /**
+     * The estimator mode.
+     */
+    private final FailureParameters.FTCEstimator mode;
+    /**
+     * The number of failed tasks (CUMULATIVE and WINDOW).
+     */
+    private long failures;
+    /**
+     * The number of tasks (CUMULATIVE and WINDOW).
+     */
+    private long tasks;
+    /**
+     * The failed tasks of the last records, in a circular buffer (WINDOW).
+     */
+    private int[] windowFailures;
+    /**
+     * The tasks of the last records, in a circular buffer (WINDOW).
+     */
+    private int[] windowTasks;
+    /**
+     * The number of records seen (WINDOW).
+     */
+    private long records;
+    /**
+     * The decay rate per second (DECAYED).
+     */
+    private double decay;
+    /**
+     * The decayed number of failed tasks at lastTime (DECAYED).
+     */
+    private double decayedFailures;
+    /**
+     * The decayed number of tasks at lastTime (DECAYED).
+     */
+    private double decayedTasks;
+    /**
+     * The time of the last record (DECAYED).
+     */
+    private double lastTime;
+
+    /**
+     * Creates an estimator with the mode set in FailureParameters
+     */
+    public FailureRateEstimator() {
+        this.mode = FailureParameters.getEstimator();
+        switch (mode) {
+            case WINDOW:
+                int window = Math.max(1, FailureParameters.getEstimatorWindow());
+                this.windowFailures = new int[window];
+                this.windowTasks = new int[window];
+                break;
+            case DECAYED:
+                this.decay = Math.log(2) / FailureParameters.getEstimatorHalfLife();
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Adds a record
+     *
+     * @param failedTasks the number of failed tasks
+     * @param allTasks the number of tasks
+     * @param time the time of the record
+     */
+    public void add(int failedTasks, int allTasks, double time) {
+        switch (mode) {
+            case WINDOW:
+                int slot = (int) (records % windowTasks.length);
+                if (records >= windowTasks.length) {
+                    failures -= windowFailures[slot];
+                    tasks -= windowTasks[slot];
+                }
+                windowFailures[slot] = failedTasks;
+                windowTasks[slot] = allTasks;
+                records++;
+                failures += failedTasks;
+                tasks += allTasks;
+                break;
+            case DECAYED:
+                if (time > lastTime) {
+                    double factor = Math.exp(-decay * (time - lastTime));
+                    decayedFailures *= factor;
+                    decayedTasks *= factor;
+                    lastTime = time;
+                }
+                decayedFailures += failedTasks;
+                decayedTasks += allTasks;
+                break;
+            default:
+                failures += failedTasks;
+                tasks += allTasks;
+                break;
+        }
+    }
+
+    /**
+     * Gets the task failure rate. Decaying both counts by the same factor does
+     * not change their ratio, so it does not depend on the current time.
+     *
+     * @return the task failure rate, 0 if there is no failure
+     */
+    public double getRate() {
+        if (mode == FailureParameters.FTCEstimator.DECAYED) {
+            if (decayedFailures <= 0.0) {
+                return 0;
+            }
+            return decayedFailures / decayedTasks;
+        }
+        if (failures == 0) {
+            return 0;
+        }
+        return (double) failures / (double) tasks;
+    }
+}
@@ -106,6 +106,20 @@ public abstract class BasePlanningAlgorithm implements PlanningAlgorithmInterfac
         this.datacenterList = list;
     }
     
+    /**
+     * Creates an empty timeline for each vm, in the order of the vm list, for
+     * planners that insert tasks in the idle gaps of the vms.
+     *
+     * @return the timelines
+     */
+    protected VmTimeline[] createTimelines() {
+        VmTimeline[] timelines = new VmTimeline[getVmList().size()];
+        for (int i = 0; i < timelines.length; i++) {
+            timelines[i] = new VmTimeline();
+        }
+        return timelines;
+    }
+
     /**
      * The main function
      */
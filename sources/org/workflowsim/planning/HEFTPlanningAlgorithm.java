@@ -18,63 +18,80 @@ package org.workflowsim.planning;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import org.cloudbus.cloudsim.Consts;
 import org.cloudbus.cloudsim.Log;
 import org.workflowsim.CondorVM;
 import org.workflowsim.FileItem;
 import org.workflowsim.Task;
+import org.workflowsim.WorkflowGraph;
 import org.workflowsim.utils.Parameters;
 
 /**
  * The HEFT planning algorithm.
  *
+ * Tasks and VMs are numbered by their position in the task and VM lists. The
+ * computation costs are kept in a task x VM matrix and the transfer costs in
+ * one array per task, aligned with its child (parent) list, so that memory is
+ * linear in the number of dependencies. Upward ranks are computed level by
+ * level from the exit tasks, the tasks of a large level in parallel. The
+ * dependencies are read from a WorkflowGraph of the tasks, built once per run,
+ * instead of the parent and child lists.
+ *
  * @author Pedro Paulo Vezzá Campos
  * @date Oct 12, 2013
  */
 public class HEFTPlanningAlgorithm extends BasePlanningAlgorithm {
 
-    private Map<Task, Map<CondorVM, Double>> computationCosts;
-    private Map<Task, Map<Task, Double>> transferCosts;
-    private Map<Task, Double> rank;
-    private Map<CondorVM, List<Event>> schedules;
-    private Map<Task, Double> earliestFinishTimes;
-    private double averageBandwidth;
-
-    private class Event {
-
-        public double start;
-        public double finish;
+    /**
+     * The minimum number of tasks in a level to compute their ranks in
+     * parallel.
+     */
+    private static final int PARALLEL_THRESHOLD = 512;
 
-        public Event(double start, double finish) {
-            this.start = start;
-            this.finish = finish;
-        }
-    }
+    private List<Task> tasks;
+    /**
+     * The dependencies of the tasks, numbered by their position in tasks.
+     */
+    private WorkflowGraph graph;
+    private CondorVM[] vms;
+    /**
+     * The time to compute each task in each VM.
+     */
+    private double[][] computationCosts;
+    /**
+     * The time to transfer the files of each task to each of its children
+     * (parents), in the order of its child (parent) list.
+     */
+    private double[][] childTransferCosts;
+    private double[][] parentTransferCosts;
+    private double[] rank;
+    private VmTimeline[] schedules;
+    private double[] earliestFinishTimes;
+    private double averageBandwidth;
 
     private class TaskRank implements Comparable<TaskRank> {
 
-        public Task task;
-        public Double rank;
+        public int task;
+        public double rank;
 
-        public TaskRank(Task task, Double rank) {
+        public TaskRank(int task, double rank) {
             this.task = task;
             this.rank = rank;
         }
 
         @Override
         public int compareTo(TaskRank o) {
-            return o.rank.compareTo(rank);
+            return Double.compare(o.rank, rank);
         }
     }
 
     public HEFTPlanningAlgorithm() {
-        computationCosts = new HashMap<>();
-        transferCosts = new HashMap<>();
-        rank = new HashMap<>();
-        earliestFinishTimes = new HashMap<>();
-        schedules = new HashMap<>();
     }
 
     /**
@@ -85,12 +102,16 @@ public class HEFTPlanningAlgorithm extends BasePlanningAlgorithm {
         Log.printLine("HEFT planner running with " + getTaskList().size()
                 + " tasks.");
 
+        tasks = new ArrayList<>(getTaskList());
+        graph = WorkflowGraph.of(tasks);
+        vms = new CondorVM[getVmList().size()];
+        for (int v = 0; v < vms.length; v++) {
+            vms[v] = (CondorVM) getVmList().get(v);
+        }
         averageBandwidth = calculateAverageBandwidth();
 
-        for (Object vmObject : getVmList()) {
-            CondorVM vm = (CondorVM) vmObject;
-            schedules.put(vm, new ArrayList<>());
-        }
+        schedules = createTimelines();
+        earliestFinishTimes = new double[tasks.size()];
 
         // Prioritization phase
         calculateComputationCosts();
@@ -101,6 +122,48 @@ public class HEFTPlanningAlgorithm extends BasePlanningAlgorithm {
         allocateTasks();
     }
 
+    /**
+     * Gets the number of children of a task
+     *
+     * @param task the position of the task
+     * @return the size of its child list
+     */
+    private int getChildCount(int task) {
+        return graph.getChildCount(task);
+    }
+
+    /**
+     * Gets a child of a task
+     *
+     * @param task the position of the task
+     * @param k the position of the child in the child list of the task
+     * @return the position of the child, -1 if it is not planned
+     */
+    private int getChild(int task, int k) {
+        return graph.getChild(task, k);
+    }
+
+    /**
+     * Gets the number of parents of a task
+     *
+     * @param task the position of the task
+     * @return the size of its parent list
+     */
+    private int getParentCount(int task) {
+        return graph.getParentCount(task);
+    }
+
+    /**
+     * Gets a parent of a task
+     *
+     * @param task the position of the task
+     * @param k the position of the parent in the parent list of the task
+     * @return the position of the parent, -1 if it is not planned
+     */
+    private int getParent(int task, int k) {
+        return graph.getParent(task, k);
+    }
+
     /**
      * Calculates the average available bandwidth among all VMs in Mbit/s
      *
@@ -108,11 +171,10 @@ public class HEFTPlanningAlgorithm extends BasePlanningAlgorithm {
      */
     private double calculateAverageBandwidth() {
         double avg = 0.0;
-        for (Object vmObject : getVmList()) {
-            CondorVM vm = (CondorVM) vmObject;
+        for (CondorVM vm : vms) {
             avg += vm.getBw();
         }
-        return avg / getVmList().size();
+        return avg / vms.length;
     }
 
     /**
@@ -120,40 +182,48 @@ public class HEFTPlanningAlgorithm extends BasePlanningAlgorithm {
      * a task in a vm.
      */
     private void calculateComputationCosts() {
-        for (Task task : getTaskList()) {
-            Map<CondorVM, Double> costsVm = new HashMap<>();
-            for (Object vmObject : getVmList()) {
-                CondorVM vm = (CondorVM) vmObject;
+        computationCosts = new double[tasks.size()][vms.length];
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            for (int v = 0; v < vms.length; v++) {
+                CondorVM vm = vms[v];
                 if (vm.getNumberOfPes() < task.getNumberOfPes()) {
-                    costsVm.put(vm, Double.MAX_VALUE);
+                    computationCosts[i][v] = Double.MAX_VALUE;
                 } else {
-                    costsVm.put(vm,
-                            task.getCloudletTotalLength() / vm.getMips());
+                    computationCosts[i][v] = task.getCloudletTotalLength() / vm.getMips();
                 }
             }
-            computationCosts.put(task, costsVm);
         }
     }
 
     /**
-     * Populates the transferCosts map with the time in seconds to transfer all
-     * files from each parent to each child
+     * Populates the transfer cost arrays with the time in seconds to transfer
+     * all files from each parent to each child. A parent that does not list
+     * the task as a child transfers nothing to it, and nothing is transferred
+     * to or from a task that is not planned.
      */
     private void calculateTransferCosts() {
-        // Initializing the matrix
-        for (Task task1 : getTaskList()) {
-            Map<Task, Double> taskTransferCosts = new HashMap<>();
-            for (Task task2 : getTaskList()) {
-                taskTransferCosts.put(task2, 0.0);
+        int n = tasks.size();
+        childTransferCosts = new double[n][];
+        Set<Long> edges = new HashSet<>();
+        for (int i = 0; i < n; i++) {
+            childTransferCosts[i] = new double[getChildCount(i)];
+            for (int k = 0; k < childTransferCosts[i].length; k++) {
+                int c = getChild(i, k);
+                if (c >= 0) {
+                    childTransferCosts[i][k] = calculateTransferCost(tasks.get(i), tasks.get(c));
+                    edges.add((long) i * n + c);
+                }
             }
-            transferCosts.put(task1, taskTransferCosts);
         }
-
-        // Calculating the actual values
-        for (Task parent : getTaskList()) {
-            for (Task child : parent.getChildList()) {
-                transferCosts.get(parent).put(child,
-                        calculateTransferCost(parent, child));
+        parentTransferCosts = new double[n][];
+        for (int c = 0; c < n; c++) {
+            parentTransferCosts[c] = new double[getParentCount(c)];
+            for (int k = 0; k < parentTransferCosts[c].length; k++) {
+                int i = getParent(c, k);
+                if (i >= 0 && edges.contains((long) i * n + c)) {
+                    parentTransferCosts[c][k] = calculateTransferCost(tasks.get(i), tasks.get(c));
+                }
             }
         }
     }
@@ -170,19 +240,24 @@ public class HEFTPlanningAlgorithm extends BasePlanningAlgorithm {
         List<FileItem> parentFiles = parent.getFileList();
         List<FileItem> childFiles = child.getFileList();
 
+        // the first input file of the child with each name
+        Map<String, FileItem> childInputs = new HashMap<>();
+        for (FileItem childFile : childFiles) {
+            if (childFile.getType() == Parameters.FileType.INPUT
+                    && !childInputs.containsKey(childFile.getName())) {
+                childInputs.put(childFile.getName(), childFile);
+            }
+        }
+
         double acc = 0.0;
 
         for (FileItem parentFile : parentFiles) {
             if (parentFile.getType() != Parameters.FileType.OUTPUT) {
                 continue;
             }
-
-            for (FileItem childFile : childFiles) {
-                if (childFile.getType() == Parameters.FileType.INPUT
-                        && childFile.getName().equals(parentFile.getName())) {
-                    acc += childFile.getSize();
-                    break;
-                }
+            FileItem childFile = childInputs.get(parentFile.getName());
+            if (childFile != null) {
+                acc += childFile.getSize();
             }
         }
 
@@ -193,44 +268,116 @@ public class HEFTPlanningAlgorithm extends BasePlanningAlgorithm {
     }
 
     /**
-     * Invokes calculateRank for each task to be scheduled
+     * Calculates the rank of each task as defined in the HEFT paper. The tasks
+     * are taken level by level from the exit tasks, so that the ranks of the
+     * children of a task are known when it is taken; the tasks of a level do
+     * not depend on each other.
      */
     private void calculateRanks() {
-        for (Task task : getTaskList()) {
-            calculateRank(task);
+        int n = tasks.size();
+        rank = new double[n];
+        int[] children = new int[n];
+        for (int i = 0; i < n; i++) {
+            for (int k = getChildCount(i) - 1; k >= 0; k--) {
+                if (getChild(i, k) >= 0) {
+                    children[i]++;
+                }
+            }
+        }
+        List<Integer> level = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            if (children[i] == 0) {
+                level.add(i);
+            }
+        }
+        ForkJoinPool pool = null;
+        try {
+            while (!level.isEmpty()) {
+                final int[] current = new int[level.size()];
+                for (int k = 0; k < current.length; k++) {
+                    current[k] = level.get(k);
+                }
+                if (current.length >= PARALLEL_THRESHOLD) {
+                    if (pool == null) {
+                        pool = new ForkJoinPool();
+                    }
+                    pool.invoke(new RankAction(current, 0, current.length));
+                } else {
+                    for (int task : current) {
+                        calculateRank(task);
+                    }
+                }
+                level.clear();
+                for (int task : current) {
+                    for (int k = 0; k < getParentCount(task); k++) {
+                        int i = getParent(task, k);
+                        if (i >= 0 && --children[i] == 0) {
+                            level.add(i);
+                        }
+                    }
+                }
+            }
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
         }
     }
 
     /**
-     * Populates rank.get(task) with the rank of task as defined in the HEFT
-     * paper.
-     *
-     * @param task The task have the rank calculates
-     * @return The rank
+     * Computes the ranks of a range of the tasks of a level
      */
-    private double calculateRank(Task task) {
-        if (rank.containsKey(task)) {
-            return rank.get(task);
+    private class RankAction extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+        private final int[] level;
+        private final int from;
+        private final int to;
+
+        private RankAction(int[] level, int from, int to) {
+            this.level = level;
+            this.from = from;
+            this.to = to;
         }
 
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_THRESHOLD / 4) {
+                for (int k = from; k < to; k++) {
+                    calculateRank(level[k]);
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RankAction(level, from, middle), new RankAction(level, middle, to));
+            }
+        }
+    }
+
+    /**
+     * Populates rank[task] with the rank of task as defined in the HEFT
+     * paper. The ranks of its children must be known.
+     *
+     * @param task The task have the rank calculates
+     */
+    private void calculateRank(int task) {
         double averageComputationCost = 0.0;
 
-        for (Double cost : computationCosts.get(task).values()) {
+        for (double cost : computationCosts[task]) {
             averageComputationCost += cost;
         }
 
-        averageComputationCost /= computationCosts.get(task).size();
+        averageComputationCost /= vms.length;
 
         double max = 0.0;
-        for (Task child : task.getChildList()) {
-            double childCost = transferCosts.get(task).get(child)
-                    + calculateRank(child);
-            max = Math.max(max, childCost);
+        for (int k = 0; k < childTransferCosts[task].length; k++) {
+            int child = getChild(task, k);
+            if (child >= 0) {
+                double childCost = childTransferCosts[task][k] + rank[child];
+                max = Math.max(max, childCost);
+            }
         }
 
-        rank.put(task, averageComputationCost + max);
-
-        return rank.get(task);
+        rank[task] = averageComputationCost + max;
     }
 
     /**
@@ -238,8 +385,8 @@ public class HEFTPlanningAlgorithm extends BasePlanningAlgorithm {
      */
     private void allocateTasks() {
         List<TaskRank> taskRank = new ArrayList<>();
-        for (Task task : rank.keySet()) {
-            taskRank.add(new TaskRank(task, rank.get(task)));
+        for (int i = 0; i < tasks.size(); i++) {
+            taskRank.add(new TaskRank(i, rank[i]));
         }
 
         // Sorting in non-ascending order of rank
@@ -257,37 +404,43 @@ public class HEFTPlanningAlgorithm extends BasePlanningAlgorithm {
      * @param task The task to be scheduled
      * @pre All parent tasks are already scheduled
      */
-    private void allocateTask(Task task) {
-        CondorVM chosenVM = null;
+    private void allocateTask(int task) {
+        int chosenVM = -1;
         double earliestFinishTime = Double.MAX_VALUE;
         double bestReadyTime = 0.0;
         double finishTime;
 
-        for (Object vmObject : getVmList()) {
-            CondorVM vm = (CondorVM) vmObject;
+        int[] parents = new int[parentTransferCosts[task].length];
+        for (int k = 0; k < parents.length; k++) {
+            parents[k] = getParent(task, k);
+        }
+        for (int v = 0; v < vms.length; v++) {
             double minReadyTime = 0.0;
 
-            for (Task parent : task.getParentList()) {
-                double readyTime = earliestFinishTimes.get(parent);
-                if (parent.getVmId() != vm.getId()) {
-                    readyTime += transferCosts.get(parent).get(task);
+            for (int k = 0; k < parents.length; k++) {
+                if (parents[k] < 0) {
+                    continue;
+                }
+                double readyTime = earliestFinishTimes[parents[k]];
+                if (tasks.get(parents[k]).getVmId() != vms[v].getId()) {
+                    readyTime += parentTransferCosts[task][k];
                 }
                 minReadyTime = Math.max(minReadyTime, readyTime);
             }
 
-            finishTime = findFinishTime(task, vm, minReadyTime, false);
+            finishTime = findFinishTime(task, v, minReadyTime, false);
 
             if (finishTime < earliestFinishTime) {
                 bestReadyTime = minReadyTime;
                 earliestFinishTime = finishTime;
-                chosenVM = vm;
+                chosenVM = v;
             }
         }
 
         findFinishTime(task, chosenVM, bestReadyTime, true);
-        earliestFinishTimes.put(task, earliestFinishTime);
+        earliestFinishTimes[task] = earliestFinishTime;
 
-        task.setVmId(chosenVM.getId());
+        tasks.get(task).setVmId(vms[chosenVM].getId());
     }
 
     /**
@@ -302,77 +455,13 @@ public class HEFTPlanningAlgorithm extends BasePlanningAlgorithm {
      * @param occupySlot If true, reserves the time slot in the schedule.
      * @return The minimal finish time of the task in the vmn
      */
-    private double findFinishTime(Task task, CondorVM vm, double readyTime,
+    private double findFinishTime(int task, int vm, double readyTime,
             boolean occupySlot) {
-        List<Event> sched = schedules.get(vm);
-        double computationCost = computationCosts.get(task).get(vm);
-        double start, finish;
-        int pos;
-
-        if (sched.isEmpty()) {
-            if (occupySlot) {
-                sched.add(new Event(readyTime, readyTime + computationCost));
-            }
-            return readyTime + computationCost;
-        }
-
-        if (sched.size() == 1) {
-            if (readyTime >= sched.get(0).finish) {
-                pos = 1;
-                start = readyTime;
-            } else if (readyTime + computationCost <= sched.get(0).start) {
-                pos = 0;
-                start = readyTime;
-            } else {
-                pos = 1;
-                start = sched.get(0).finish;
-            }
-
-            if (occupySlot) {
-                sched.add(pos, new Event(start, start + computationCost));
-            }
-            return start + computationCost;
-        }
-
-        // Trivial case: Start after the latest task scheduled
-        start = Math.max(readyTime, sched.get(sched.size() - 1).finish);
-        finish = start + computationCost;
-        int i = sched.size() - 1;
-        int j = sched.size() - 2;
-        pos = i + 1;
-        while (j >= 0) {
-            Event current = sched.get(i);
-            Event previous = sched.get(j);
-
-            if (readyTime > previous.finish) {
-                if (readyTime + computationCost <= current.start) {
-                    start = readyTime;
-                    finish = readyTime + computationCost;
-                }
-
-                break;
-            }
-            if (previous.finish + computationCost <= current.start) {
-                start = previous.finish;
-                finish = previous.finish + computationCost;
-                pos = i;
-            }
-            i--;
-            j--;
-        }
-
-        if (readyTime + computationCost <= sched.get(0).start) {
-            pos = 0;
-            start = readyTime;
-
-            if (occupySlot) {
-                sched.add(pos, new Event(start, start + computationCost));
-            }
-            return start + computationCost;
-        }
+        double computationCost = computationCosts[task][vm];
+        double start = schedules[vm].getEarliestStart(readyTime, computationCost);
         if (occupySlot) {
-            sched.add(pos, new Event(start, finish));
+            schedules[vm].reserve(start, start + computationCost);
         }
-        return finish;
+        return start + computationCost;
     }
 }
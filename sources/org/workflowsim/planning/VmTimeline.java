@@ -0,0 +1,321 @@
+/**
+ * Copyright 2012-2013 University Of Southern California
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.workflowsim.planning;
+
+/**
+ * VmTimeline keeps the time slots reserved in a VM for insertion-based
+ * planners such as HEFT. The slots are kept in a treap ordered by start time,
+ * where each slot knows the finish time of the slot before it and each
+ * subtree the largest idle gap it contains, so that the earliest start time
+ * not before a ready time with a gap long enough for a task is found in
+ * O(log n) expected time. Slots are not expected to overlap, which is the case
+ * when they are reserved at the start times returned by getEarliestStart.
+ *
+ * @since WorkflowSim Toolkit 1.1
+ * @date Oct 18, 2026
+ */
+public class VmTimeline {
+
+    /**
+     * The gaps of a subtree are compared to a duration with this relative
+     * slack, so that rounding in start - finish never hides a gap that the
+     * exact test (finish + duration <= start) accepts.
+     */
+    private static final double SLACK = 1e-9;
+
+    /**
+     * A reserved slot
+     */
+    private static final class Slot {
+
+        private final double start;
+        private final double finish;
+        private final long sequence;
+        private final int priority;
+        /**
+         * The finish time of the previous slot, -infinity for the first slot,
+         * whose gap is never searched.
+         */
+        private double previousFinish;
+        /**
+         * The largest gap before a slot of this subtree.
+         */
+        private double maxGap;
+        private Slot left;
+        private Slot right;
+
+        private Slot(double start, double finish, long sequence, int priority) {
+            this.start = start;
+            this.finish = finish;
+            this.sequence = sequence;
+            this.priority = priority;
+            this.previousFinish = Double.NEGATIVE_INFINITY;
+        }
+
+        private double gap() {
+            if (previousFinish == Double.NEGATIVE_INFINITY) {
+                return Double.NEGATIVE_INFINITY;
+            }
+            return start - previousFinish;
+        }
+
+        private void update() {
+            maxGap = gap();
+            if (left != null && left.maxGap > maxGap) {
+                maxGap = left.maxGap;
+            }
+            if (right != null && right.maxGap > maxGap) {
+                maxGap = right.maxGap;
+            }
+        }
+
+        /**
+         * Compares the position of two slots: by start time, then by finish
+         * time, then in the order they were reserved.
+         */
+        private int compareTo(Slot other) {
+            int c = Double.compare(start, other.start);
+            if (c == 0) {
+                c = Double.compare(finish, other.finish);
+            }
+            if (c == 0) {
+                c = Long.compare(sequence, other.sequence);
+            }
+            return c;
+        }
+    }
+
+    private Slot root;
+    private Slot first;
+    private Slot last;
+    private int size;
+    private long sequence;
+    /**
+     * The state of the xorshift generator of the treap priorities, seeded so
+     * that the shape of the tree is reproducible.
+     */
+    private int seed;
+
+    /**
+     * Creates an empty timeline
+     */
+    public VmTimeline() {
+        this.seed = 0x2545F491;
+    }
+
+    /**
+     * Gets the number of reserved slots
+     *
+     * @return the number of slots
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether no slot is reserved
+     *
+     * @return whether the timeline is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets the finish time of the last slot
+     *
+     * @return the finish time, 0 if the timeline is empty
+     */
+    public double getLastFinish() {
+        return last == null ? 0.0 : last.finish;
+    }
+
+    /**
+     * Finds the earliest time a task can start: not before its ready time and
+     * either in an idle gap long enough for it or after the last slot.
+     *
+     * @param readyTime the time the task is ready
+     * @param duration the time the task needs
+     * @return the earliest start time
+     */
+    public double getEarliestStart(double readyTime, double duration) {
+        if (root == null) {
+            return readyTime;
+        }
+        if (readyTime > last.start) {
+            // the common case of a task appended to the timeline
+            return Math.max(readyTime, last.finish);
+        }
+        if (readyTime <= first.start && readyTime + duration <= first.start) {
+            // the task fits before the first slot
+            return readyTime;
+        }
+        // the last slot that starts before the ready time and the one after it
+        Slot previous = null;
+        Slot next = null;
+        for (Slot node = root; node != null;) {
+            if (node.start < readyTime) {
+                previous = node;
+                node = node.right;
+            } else {
+                next = node;
+                node = node.left;
+            }
+        }
+        double start = previous == null ? readyTime : Math.max(readyTime, previous.finish);
+        if (start + duration <= next.start) {
+            return start;
+        }
+        // the gaps before the slots after next start at or after the ready time
+        Slot fit = firstFit(root, next, duration);
+        if (fit != null) {
+            return fit.previousFinish;
+        }
+        return Math.max(readyTime, last.finish);
+    }
+
+    /**
+     * Reserves a slot
+     *
+     * @param start the start time
+     * @param finish the finish time
+     */
+    public void reserve(double start, double finish) {
+        int priority = nextPriority();
+        Slot slot = new Slot(start, finish, sequence++, priority);
+        Slot previous = null;
+        Slot following = null;
+        for (Slot node = root; node != null;) {
+            if (slot.compareTo(node) < 0) {
+                following = node;
+                node = node.left;
+            } else {
+                previous = node;
+                node = node.right;
+            }
+        }
+        if (previous != null) {
+            slot.previousFinish = previous.finish;
+        } else {
+            first = slot;
+        }
+        if (following == null) {
+            last = slot;
+        }
+        slot.update();
+        root = insert(root, slot);
+        size++;
+        if (following != null) {
+            following.previousFinish = finish;
+            refresh(root, following);
+        }
+    }
+
+    /**
+     * Finds the first slot after a slot whose gap before it fits a duration
+     *
+     * @param node the subtree
+     * @param after the slot
+     * @param duration the duration
+     * @return the slot, or null if there is none
+     */
+    private Slot firstFit(Slot node, Slot after, double duration) {
+        if (node == null || node.maxGap < duration - SLACK * (1.0 + Math.abs(duration))) {
+            return null;
+        }
+        if (after.compareTo(node) < 0) {
+            Slot fit = firstFit(node.left, after, duration);
+            if (fit != null) {
+                return fit;
+            }
+            if (node.previousFinish + duration <= node.start) {
+                return node;
+            }
+        }
+        return firstFit(node.right, after, duration);
+    }
+
+    /**
+     * Inserts a slot in a subtree
+     *
+     * @param node the subtree
+     * @param slot the slot
+     * @return the new root of the subtree
+     */
+    private Slot insert(Slot node, Slot slot) {
+        if (node == null) {
+            return slot;
+        }
+        if (slot.compareTo(node) < 0) {
+            node.left = insert(node.left, slot);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, slot);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.update();
+        return node;
+    }
+
+    /**
+     * Updates the largest gaps on the path to a slot whose gap has changed
+     *
+     * @param node the subtree
+     * @param slot the slot
+     */
+    private void refresh(Slot node, Slot slot) {
+        if (node == slot) {
+            node.update();
+            return;
+        }
+        refresh(slot.compareTo(node) < 0 ? node.left : node.right, slot);
+        node.update();
+    }
+
+    private Slot rotateRight(Slot node) {
+        Slot left = node.left;
+        node.left = left.right;
+        left.right = node;
+        node.update();
+        left.update();
+        return left;
+    }
+
+    private Slot rotateLeft(Slot node) {
+        Slot right = node.right;
+        node.right = right.left;
+        right.left = node;
+        node.update();
+        right.update();
+        return right;
+    }
+
+    /**
+     * Draws the priority of a new slot
+     *
+     * @return the priority
+     */
+    private int nextPriority() {
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        return seed;
+    }
+}
@@ -446,7 +446,7 @@ public class ReclusteringEngine {
         suggestedK = ClusteringSizeEstimator.estimateK(taskLength, delay, 
                 theta, phi_gamma, phi_ts);
 
-        Log.printLine("t=" + taskLength +" d=" + delay + " theta=" + theta + " k=" + suggestedK);
+        Log.formatLine(Log.Level.INFO, "t=%s d=%s theta=%s k=%d", taskLength, delay, theta, suggestedK);
         if (suggestedK == 0) {
             //not really k=0, just too big
             jobList.add(createJob(id, job, job.getCloudletLength(), allTaskList, true));
@@ -82,21 +82,13 @@ public class DataAwareSchedulingAlgorithm extends BaseSchedulingAlgorithm {
     protected double dataTransferTime(List<FileItem> requiredFiles, Cloudlet cl, int vmId)  {
         double time = 0.0;
 
-        for (FileItem file : requiredFiles) {
-            //The input file is not an output File 
-            if (file.isRealInputFile(requiredFiles)) {
-                List<String> siteList = ReplicaCatalog.getStorageList(file.getName());
-
-                boolean hasFile = false;
-                for (String site : siteList) {
-                    if(site.equals(Integer.toString(vmId))){
-                        hasFile = true;
-                        break;
-                    }
-                }
-                if(!hasFile){
-                    time += file.getSize() ;
-                }
+        //The input files that are not output files
+        List<FileItem> inputFiles = cl instanceof Job && requiredFiles == ((Job) cl).getFileList()
+                ? ((Job) cl).getInputFiles() : FileItem.getRealInputFiles(requiredFiles);
+        for (FileItem file : inputFiles) {
+            boolean hasFile = ReplicaCatalog.isFileOnVm(ReplicaCatalog.getFileId(file.getName()), vmId);
+            if(!hasFile){
+                time += file.getSize() ;
             }
         }
         return time;
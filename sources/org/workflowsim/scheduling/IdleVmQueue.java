@@ -0,0 +1,91 @@
+/**
+ * Copyright 2012-2013 University Of Southern California
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.workflowsim.scheduling;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import org.workflowsim.CondorVM;
+import org.workflowsim.WorkflowSimTags;
+
+/**
+ * IdleVmQueue indexes the idle VMs of a scheduling round by speed. The VMs are
+ * handed out fastest first (largest current requested MIPS), and in the order
+ * of the VM list among VMs of the same speed, which is the VM a scan of the
+ * list for the fastest idle VM returns. The state of the VMs is read once:
+ * the scheduler is expected to keep the VMs it takes busy until the end of the
+ * round.
+ *
+ * @since WorkflowSim Toolkit 1.1
+ * @date Oct 18, 2026
+ */
+class IdleVmQueue {
+
+    /**
+     * The idle VMs, fastest first.
+     */
+    private final List<CondorVM> vms;
+    /**
+     * The position of the next VM to hand out.
+     */
+    private int next;
+
+    /**
+     * Indexes the idle VMs of a list
+     *
+     * @param vmList the VMs
+     */
+    IdleVmQueue(List<?> vmList) {
+        final List<CondorVM> idle = new ArrayList<>();
+        final List<Double> mips = new ArrayList<>();
+        for (Object object : vmList) {
+            CondorVM vm = (CondorVM) object;
+            if (vm.getState() == WorkflowSimTags.VM_STATUS_IDLE) {
+                idle.add(vm);
+                mips.add(vm.getCurrentRequestedTotalMips());
+            }
+        }
+        List<Integer> order = new ArrayList<>(idle.size());
+        for (int i = 0; i < idle.size(); i++) {
+            order.add(i);
+        }
+        // a stable sort keeps the list order among VMs of the same speed
+        Collections.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                return Double.compare(mips.get(b), mips.get(a));
+            }
+        });
+        this.vms = new ArrayList<>(idle.size());
+        for (int i : order) {
+            this.vms.add(idle.get(i));
+        }
+        this.next = 0;
+    }
+
+    /**
+     * Takes the fastest idle VM left
+     *
+     * @return the VM, or null if all the idle VMs have been taken
+     */
+    CondorVM poll() {
+        if (next == vms.size()) {
+            return null;
+        }
+        return vms.get(next++);
+    }
+}
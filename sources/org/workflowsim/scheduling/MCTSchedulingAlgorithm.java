@@ -65,9 +65,9 @@ public class MCTSchedulingAlgorithm extends BaseSchedulingAlgorithm {
             firstIdleVm.setState(WorkflowSimTags.VM_STATUS_BUSY);
             cloudlet.setVmId(firstIdleVm.getId());
             getScheduledList().add(cloudlet);
-            Log.printLine("Schedules " + cloudlet.getCloudletId() + " with "
-                    + cloudlet.getCloudletLength() + " to VM " + firstIdleVm.getId()
-                    + " with " + firstIdleVm.getCurrentRequestedTotalMips());
+            Log.formatLine(Log.Level.INFO, "Schedules %d with %d to VM %d with %s",
+                    cloudlet.getCloudletId(), cloudlet.getCloudletLength(), firstIdleVm.getId(),
+                    firstIdleVm.getCurrentRequestedTotalMips());
         }
     }
 }
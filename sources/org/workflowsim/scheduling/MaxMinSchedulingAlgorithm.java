@@ -15,8 +15,8 @@
  */
 package org.workflowsim.scheduling;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Comparator;
+import java.util.PriorityQueue;
 import org.cloudbus.cloudsim.Cloudlet;
 import org.cloudbus.cloudsim.Log;
 import org.workflowsim.CondorVM;
@@ -37,76 +37,42 @@ public class MaxMinSchedulingAlgorithm extends BaseSchedulingAlgorithm {
     public MaxMinSchedulingAlgorithm() {
         super();
     }
-    /**
-     * the check point list.
-     */
-    private final List<Boolean> hasChecked = new ArrayList<>();
 
     @Override
     public void run() {
 
-
-        //Log.printLine("Schedulin Cycle");
         int size = getCloudletList().size();
-        hasChecked.clear();
-        for (int t = 0; t < size; t++) {
-            hasChecked.add(false);
+        final long[] lengths = new long[size];
+        for (int j = 0; j < size; j++) {
+            lengths[j] = ((Cloudlet) getCloudletList().get(j)).getCloudletLength();
         }
-        for (int i = 0; i < size; i++) {
-            int maxIndex = 0;
-            Cloudlet maxCloudlet = null;
-            for (int j = 0; j < size; j++) {
-                Cloudlet cloudlet = (Cloudlet) getCloudletList().get(j);
-                if (!hasChecked.get(j)) {
-                    maxCloudlet = cloudlet;
-                    maxIndex = j;
-                    break;
-                }
-            }
-            if (maxCloudlet == null) {
-                break;
-            }
-
-            for (int j = 0; j < size; j++) {
-                Cloudlet cloudlet = (Cloudlet) getCloudletList().get(j);
-                if (hasChecked.get(j)) {
-                    continue;
-                }
-                long length = cloudlet.getCloudletLength();
-                if (length > maxCloudlet.getCloudletLength()) {
-                    maxCloudlet = cloudlet;
-                    maxIndex = j;
-                }
-            }
-            hasChecked.set(maxIndex, true);
-
-            int vmSize = getVmList().size();
-            CondorVM firstIdleVm = null;//(CondorVM)getVmList().get(0);
-            for (int j = 0; j < vmSize; j++) {
-                CondorVM vm = (CondorVM) getVmList().get(j);
-                if (vm.getState() == WorkflowSimTags.VM_STATUS_IDLE) {
-                    firstIdleVm = vm;
-                    break;
-                }
+        /**
+         * The longest cloudlet first, the first in the list among cloudlets
+         * of the same length.
+         */
+        PriorityQueue<Integer> queue = new PriorityQueue<>(Math.max(size, 1), new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                int c = Long.compare(lengths[b], lengths[a]);
+                return c != 0 ? c : Integer.compare(a, b);
             }
+        });
+        for (int j = 0; j < size; j++) {
+            queue.add(j);
+        }
+        IdleVmQueue idleVms = new IdleVmQueue(getVmList());
+        while (!queue.isEmpty()) {
+            Cloudlet maxCloudlet = (Cloudlet) getCloudletList().get(queue.poll());
+            CondorVM firstIdleVm = idleVms.poll();
             if (firstIdleVm == null) {
                 break;
             }
-            for (int j = 0; j < vmSize; j++) {
-                CondorVM vm = (CondorVM) getVmList().get(j);
-                if ((vm.getState() == WorkflowSimTags.VM_STATUS_IDLE)
-                        && vm.getCurrentRequestedTotalMips() > firstIdleVm.getCurrentRequestedTotalMips()) {
-                    firstIdleVm = vm;
-
-                }
-            }
             firstIdleVm.setState(WorkflowSimTags.VM_STATUS_BUSY);
             maxCloudlet.setVmId(firstIdleVm.getId());
             getScheduledList().add(maxCloudlet);
-            Log.printLine("Schedules " + maxCloudlet.getCloudletId() + " with "
-                    + maxCloudlet.getCloudletLength() + " to VM " + firstIdleVm.getId()
-                    + " with " + firstIdleVm.getCurrentRequestedTotalMips());
-
+            Log.formatLine(Log.Level.INFO, "Schedules %d with %d to VM %d with %s",
+                    maxCloudlet.getCloudletId(), maxCloudlet.getCloudletLength(), firstIdleVm.getId(),
+                    firstIdleVm.getCurrentRequestedTotalMips());
         }
     }
 }
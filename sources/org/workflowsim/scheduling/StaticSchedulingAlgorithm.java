@@ -60,8 +60,8 @@ public class StaticSchedulingAlgorithm extends BaseSchedulingAlgorithm {
              * StaticSchedulingAlgorithm itself does not do the mapping.
              */
             if (cloudlet.getVmId() < 0 || !mId2Vm.containsKey(cloudlet.getVmId())) {
-                Log.printLine("Cloudlet " + cloudlet.getCloudletId() + " is not matched."
-                        + "It is possible a stage-in job");
+                Log.formatLine(Log.Level.WARN, "Cloudlet %d is not matched.It is possible a stage-in job",
+                        cloudlet.getCloudletId());
                 cloudlet.setVmId(0);
 
             }
@@ -69,8 +69,8 @@ public class StaticSchedulingAlgorithm extends BaseSchedulingAlgorithm {
             if (vm.getState() == WorkflowSimTags.VM_STATUS_IDLE) {
                 vm.setState(WorkflowSimTags.VM_STATUS_BUSY);
                 getScheduledList().add(cloudlet);
-                Log.printLine("Schedules " + cloudlet.getCloudletId() + " with "
-                        + cloudlet.getCloudletLength() + " to VM " + cloudlet.getVmId());
+                Log.formatLine(Log.Level.INFO, "Schedules %d with %d to VM %d",
+                        cloudlet.getCloudletId(), cloudlet.getCloudletLength(), cloudlet.getVmId());
             }
         }
     }
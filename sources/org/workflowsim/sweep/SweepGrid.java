@@ -0,0 +1,281 @@
+/**
+ * Copyright 2012-2013 University Of Southern California
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.workflowsim.sweep;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import org.workflowsim.utils.ClusteringParameters;
+import org.workflowsim.utils.Parameters;
+
+/**
+ * SweepGrid holds the values of each parameter of a sweep and enumerates
+ * their cartesian product. A parameter that is not set keeps a single default
+ * value (MINMIN scheduling, no planning, no clustering, 20 VMs and no
+ * failure); the DAX paths must be set.
+ *
+ * A grid can be loaded from a property file in the format of config.txt, with
+ * comma separated values:
+ * <pre>
+ * dax.path         = config/dax/Montage_25.xml, config/dax/Montage_50.xml
+ * scheduler.method = MINMIN, MAXMIN, FCFS
+ * planner.method   = INVALID
+ * clusters.method  = NONE, HORIZONTAL
+ * clusters.num     = 5
+ * clusters.size    = 0
+ * vm.num           = 10, 20
+ * failure.rate     = 0, 0.02
+ * </pre>
+ *
+ * @since WorkflowSim Toolkit 1.1
+ * @date Oct 18, 2026
+ */
+public class SweepGrid {
+
+    /**
+     * The DAX file paths.
+     */
+    private List<String> daxPaths;
+    /**
+     * The scheduling algorithms.
+     */
+    private List<Parameters.SchedulingAlgorithm> schedulers;
+    /**
+     * The planning algorithms.
+     */
+    private List<Parameters.PlanningAlgorithm> planners;
+    /**
+     * The clustering methods.
+     */
+    private List<ClusteringParameters.ClusteringMethod> clusteringMethods;
+    /**
+     * The numbers of clustered jobs per level.
+     */
+    private List<Integer> clustersNums;
+    /**
+     * The numbers of tasks per clustered job.
+     */
+    private List<Integer> clustersSizes;
+    /**
+     * The numbers of VMs.
+     */
+    private List<Integer> vmNums;
+    /**
+     * The task failure rates.
+     */
+    private List<Double> failureRates;
+
+    /**
+     * Creates a grid with the default values and no DAX path
+     */
+    public SweepGrid() {
+        this.daxPaths = new ArrayList<>();
+        this.schedulers = Arrays.asList(Parameters.SchedulingAlgorithm.MINMIN);
+        this.planners = Arrays.asList(Parameters.PlanningAlgorithm.INVALID);
+        this.clusteringMethods = Arrays.asList(ClusteringParameters.ClusteringMethod.NONE);
+        this.clustersNums = Arrays.asList(0);
+        this.clustersSizes = Arrays.asList(0);
+        this.vmNums = Arrays.asList(20);
+        this.failureRates = Arrays.asList(0.0);
+    }
+
+    /**
+     * Loads a grid from properties. The values of enums are not case
+     * sensitive.
+     *
+     * @param properties the properties
+     * @return the grid
+     * @throws IllegalArgumentException if a value is not valid
+     */
+    public static SweepGrid load(Properties properties) {
+        SweepGrid grid = new SweepGrid();
+        for (String value : values(properties, "dax.path")) {
+            grid.daxPaths.add(value);
+        }
+        if (!values(properties, "scheduler.method").isEmpty()) {
+            grid.schedulers = new ArrayList<>();
+            for (String value : values(properties, "scheduler.method")) {
+                grid.schedulers.add(Parameters.SchedulingAlgorithm.valueOf(value.toUpperCase()));
+            }
+        }
+        if (!values(properties, "planner.method").isEmpty()) {
+            grid.planners = new ArrayList<>();
+            for (String value : values(properties, "planner.method")) {
+                grid.planners.add(Parameters.PlanningAlgorithm.valueOf(value.toUpperCase()));
+            }
+        }
+        if (!values(properties, "clusters.method").isEmpty()) {
+            grid.clusteringMethods = new ArrayList<>();
+            for (String value : values(properties, "clusters.method")) {
+                grid.clusteringMethods.add(ClusteringParameters.ClusteringMethod.valueOf(value.toUpperCase()));
+            }
+        }
+        if (!values(properties, "clusters.num").isEmpty()) {
+            grid.clustersNums = integers(values(properties, "clusters.num"));
+        }
+        if (!values(properties, "clusters.size").isEmpty()) {
+            grid.clustersSizes = integers(values(properties, "clusters.size"));
+        }
+        if (!values(properties, "vm.num").isEmpty()) {
+            grid.vmNums = integers(values(properties, "vm.num"));
+        }
+        if (!values(properties, "failure.rate").isEmpty()) {
+            grid.failureRates = new ArrayList<>();
+            for (String value : values(properties, "failure.rate")) {
+                grid.failureRates.add(Double.parseDouble(value));
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * Gets the comma separated values of a property
+     *
+     * @param properties the properties
+     * @param key the key of the property
+     * @return the values, empty if the property is not set
+     */
+    private static List<String> values(Properties properties, String key) {
+        List<String> list = new ArrayList<>();
+        String property = properties.getProperty(key);
+        if (property != null) {
+            for (String value : property.split(",")) {
+                if (!value.trim().isEmpty()) {
+                    list.add(value.trim());
+                }
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Parses integers
+     *
+     * @param values the values
+     * @return the integers
+     */
+    private static List<Integer> integers(List<String> values) {
+        List<Integer> list = new ArrayList<>();
+        for (String value : values) {
+            list.add(Integer.parseInt(value));
+        }
+        return list;
+    }
+
+    /**
+     * Enumerates the runs of the grid, the DAX path varying the slowest and
+     * the failure rate the fastest. As in the examples, a run with a planning
+     * algorithm uses the STATIC scheduler, so it is enumerated once whatever
+     * the scheduling algorithms.
+     *
+     * @return the runs, indexed from 0
+     */
+    public List<SweepRun> getRuns() {
+        List<SweepRun> runs = new ArrayList<>();
+        for (String daxPath : daxPaths) {
+            for (Parameters.SchedulingAlgorithm sch : schedulers) {
+                for (Parameters.PlanningAlgorithm planner : planners) {
+                    Parameters.SchedulingAlgorithm scheduler = sch;
+                    if (planner != Parameters.PlanningAlgorithm.INVALID) {
+                        // the planner replaces the scheduler, so it runs once with STATIC
+                        if (sch != schedulers.get(0)) {
+                            continue;
+                        }
+                        scheduler = Parameters.SchedulingAlgorithm.STATIC;
+                    }
+                    for (ClusteringParameters.ClusteringMethod method : clusteringMethods) {
+                        for (int clustersNum : clustersNums) {
+                            for (int clustersSize : clustersSizes) {
+                                for (int vmNum : vmNums) {
+                                    for (double failureRate : failureRates) {
+                                        runs.add(new SweepRun(runs.size(), daxPath, scheduler, planner,
+                                                method, clustersNum, clustersSize, vmNum, failureRate));
+                                    }
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return runs;
+    }
+
+    public List<String> getDaxPaths() {
+        return daxPaths;
+    }
+
+    public void setDaxPaths(List<String> daxPaths) {
+        this.daxPaths = daxPaths;
+    }
+
+    public List<Parameters.SchedulingAlgorithm> getSchedulers() {
+        return schedulers;
+    }
+
+    public void setSchedulers(List<Parameters.SchedulingAlgorithm> schedulers) {
+        this.schedulers = schedulers;
+    }
+
+    public List<Parameters.PlanningAlgorithm> getPlanners() {
+        return planners;
+    }
+
+    public void setPlanners(List<Parameters.PlanningAlgorithm> planners) {
+        this.planners = planners;
+    }
+
+    public List<ClusteringParameters.ClusteringMethod> getClusteringMethods() {
+        return clusteringMethods;
+    }
+
+    public void setClusteringMethods(List<ClusteringParameters.ClusteringMethod> clusteringMethods) {
+        this.clusteringMethods = clusteringMethods;
+    }
+
+    public List<Integer> getClustersNums() {
+        return clustersNums;
+    }
+
+    public void setClustersNums(List<Integer> clustersNums) {
+        this.clustersNums = clustersNums;
+    }
+
+    public List<Integer> getClustersSizes() {
+        return clustersSizes;
+    }
+
+    public void setClustersSizes(List<Integer> clustersSizes) {
+        this.clustersSizes = clustersSizes;
+    }
+
+    public List<Integer> getVmNums() {
+        return vmNums;
+    }
+
+    public void setVmNums(List<Integer> vmNums) {
+        this.vmNums = vmNums;
+    }
+
+    public List<Double> getFailureRates() {
+        return failureRates;
+    }
+
+    public void setFailureRates(List<Double> failureRates) {
+        this.failureRates = failureRates;
+    }
+}
@@ -0,0 +1,195 @@
+/**
+ * Copyright 2012-2013 University Of Southern California
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.workflowsim.sweep;
+
+import java.util.Locale;
+
+/**
+ * SweepResult is the outcome of one SweepRun, written as one CSV row.
+ *
+ * @since WorkflowSim Toolkit 1.1
+ * @date Oct 18, 2026
+ */
+public class SweepResult {
+
+    /**
+     * The CSV header, in the order of toCsv.
+     */
+    public static final String CSV_HEADER = "run,dax,scheduler,planner,clustering,clusters_num,"
+            + "clusters_size,vms,failure_rate,jobs,failed_jobs,makespan,cost,events,"
+            + "wall_ms,allocated_bytes,peak_heap_bytes,error";
+    /**
+     * The run.
+     */
+    private final SweepRun run;
+    /**
+     * The number of jobs received by the engine, including the failed
+     * attempts.
+     */
+    private int jobs;
+    /**
+     * The number of failed jobs.
+     */
+    private int failedJobs;
+    /**
+     * The finish time of the last job.
+     */
+    private double makespan;
+    /**
+     * The processing cost of all the jobs.
+     */
+    private double cost;
+    /**
+     * The number of events processed by the simulation.
+     */
+    private long eventsProcessed;
+    /**
+     * The wall clock time of the run in milliseconds.
+     */
+    private double wallTime;
+    /**
+     * The bytes allocated by the thread of the run, -1 if unknown.
+     */
+    private long allocatedBytes = -1;
+    /**
+     * The peak heap usage of the JVM at the end of the run, -1 if unknown.
+     */
+    private long peakHeap = -1;
+    /**
+     * The error that stopped the run, null if none.
+     */
+    private String error;
+
+    /**
+     * Creates an empty result
+     *
+     * @param run the run
+     */
+    public SweepResult(SweepRun run) {
+        this.run = run;
+    }
+
+    public SweepRun getRun() {
+        return run;
+    }
+
+    public int getJobs() {
+        return jobs;
+    }
+
+    public void setJobs(int jobs) {
+        this.jobs = jobs;
+    }
+
+    public int getFailedJobs() {
+        return failedJobs;
+    }
+
+    public void setFailedJobs(int failedJobs) {
+        this.failedJobs = failedJobs;
+    }
+
+    public double getMakespan() {
+        return makespan;
+    }
+
+    public void setMakespan(double makespan) {
+        this.makespan = makespan;
+    }
+
+    public double getCost() {
+        return cost;
+    }
+
+    public void setCost(double cost) {
+        this.cost = cost;
+    }
+
+    public long getEventsProcessed() {
+        return eventsProcessed;
+    }
+
+    public void setEventsProcessed(long eventsProcessed) {
+        this.eventsProcessed = eventsProcessed;
+    }
+
+    public double getWallTime() {
+        return wallTime;
+    }
+
+    public void setWallTime(double wallTime) {
+        this.wallTime = wallTime;
+    }
+
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    public void setAllocatedBytes(long allocatedBytes) {
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    /**
+     * Gets the peak heap usage. It is the peak of the whole JVM, so when runs
+     * are executed in parallel it covers the runs that overlapped this one;
+     * use the allocated bytes to compare runs.
+     *
+     * @return the peak heap usage in bytes, -1 if unknown
+     */
+    public long getPeakHeap() {
+        return peakHeap;
+    }
+
+    public void setPeakHeap(long peakHeap) {
+        this.peakHeap = peakHeap;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    /**
+     * Formats the result as a CSV row, in the order of CSV_HEADER
+     *
+     * @return the row, without line separator
+     */
+    public String toCsv() {
+        return String.format(Locale.ROOT, "%d,%s,%s,%s,%s,%d,%d,%d,%s,%d,%d,%.2f,%.2f,%d,%.1f,%d,%d,%s",
+                run.getIndex(), quote(run.getDaxPath()), run.getScheduler(), run.getPlanner(),
+                run.getClusteringMethod(), run.getClustersNum(), run.getClustersSize(),
+                run.getVmNum(), Double.toString(run.getFailureRate()), jobs, failedJobs, makespan,
+                cost, eventsProcessed, wallTime, allocatedBytes, peakHeap,
+                error == null ? "" : quote(error));
+    }
+
+    /**
+     * Quotes a CSV field if needed
+     *
+     * @param field the field
+     * @return the field, quoted if it has a comma, a quote or a line break
+     */
+    private static String quote(String field) {
+        if (field.indexOf(',') < 0 && field.indexOf('"') < 0
+                && field.indexOf('\n') < 0 && field.indexOf('\r') < 0) {
+            return field;
+        }
+        return '"' + field.replace("\"", "\"\"") + '"';
+    }
+}
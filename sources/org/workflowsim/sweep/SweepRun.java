@@ -0,0 +1,181 @@
+/**
+ * Copyright 2012-2013 University Of Southern California
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.workflowsim.sweep;
+
+import org.workflowsim.utils.ClusteringParameters;
+import org.workflowsim.utils.Parameters;
+
+/**
+ * SweepRun is one point of a SweepGrid, i.e. the parameters of one
+ * simulation.
+ *
+ * @since WorkflowSim Toolkit 1.1
+ * @date Oct 18, 2026
+ */
+public class SweepRun {
+
+    /**
+     * The index of the run in its grid.
+     */
+    private final int index;
+    /**
+     * The DAX file path.
+     */
+    private final String daxPath;
+    /**
+     * The scheduling algorithm.
+     */
+    private final Parameters.SchedulingAlgorithm scheduler;
+    /**
+     * The planning algorithm.
+     */
+    private final Parameters.PlanningAlgorithm planner;
+    /**
+     * The clustering method.
+     */
+    private final ClusteringParameters.ClusteringMethod clusteringMethod;
+    /**
+     * The number of clustered jobs per level.
+     */
+    private final int clustersNum;
+    /**
+     * The number of tasks per clustered job.
+     */
+    private final int clustersSize;
+    /**
+     * The number of VMs.
+     */
+    private final int vmNum;
+    /**
+     * The task failure rate (failures per second), 0 for no failure.
+     */
+    private final double failureRate;
+
+    /**
+     * Creates a run
+     *
+     * @param index the index of the run in its grid
+     * @param daxPath the DAX file path
+     * @param scheduler the scheduling algorithm
+     * @param planner the planning algorithm
+     * @param clusteringMethod the clustering method
+     * @param clustersNum the number of clustered jobs per level
+     * @param clustersSize the number of tasks per clustered job
+     * @param vmNum the number of VMs
+     * @param failureRate the task failure rate, 0 for no failure
+     */
+    public SweepRun(int index, String daxPath, Parameters.SchedulingAlgorithm scheduler,
+            Parameters.PlanningAlgorithm planner, ClusteringParameters.ClusteringMethod clusteringMethod,
+            int clustersNum, int clustersSize, int vmNum, double failureRate) {
+        this.index = index;
+        this.daxPath = daxPath;
+        this.scheduler = scheduler;
+        this.planner = planner;
+        this.clusteringMethod = clusteringMethod;
+        this.clustersNum = clustersNum;
+        this.clustersSize = clustersSize;
+        this.vmNum = vmNum;
+        this.failureRate = failureRate;
+    }
+
+    /**
+     * Gets the index of the run in its grid
+     *
+     * @return the index
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Gets the DAX file path
+     *
+     * @return the DAX file path
+     */
+    public String getDaxPath() {
+        return daxPath;
+    }
+
+    /**
+     * Gets the scheduling algorithm
+     *
+     * @return the scheduling algorithm
+     */
+    public Parameters.SchedulingAlgorithm getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Gets the planning algorithm
+     *
+     * @return the planning algorithm
+     */
+    public Parameters.PlanningAlgorithm getPlanner() {
+        return planner;
+    }
+
+    /**
+     * Gets the clustering method
+     *
+     * @return the clustering method
+     */
+    public ClusteringParameters.ClusteringMethod getClusteringMethod() {
+        return clusteringMethod;
+    }
+
+    /**
+     * Gets the number of clustered jobs per level
+     *
+     * @return the number of clustered jobs
+     */
+    public int getClustersNum() {
+        return clustersNum;
+    }
+
+    /**
+     * Gets the number of tasks per clustered job
+     *
+     * @return the number of tasks
+     */
+    public int getClustersSize() {
+        return clustersSize;
+    }
+
+    /**
+     * Gets the number of VMs
+     *
+     * @return the number of VMs
+     */
+    public int getVmNum() {
+        return vmNum;
+    }
+
+    /**
+     * Gets the task failure rate
+     *
+     * @return the failure rate, 0 for no failure
+     */
+    public double getFailureRate() {
+        return failureRate;
+    }
+
+    @Override
+    public String toString() {
+        return "run " + index + " (" + daxPath + ", " + scheduler + ", " + planner + ", "
+                + clusteringMethod + " " + clustersNum + "/" + clustersSize + ", "
+                + vmNum + " vms, failure rate " + failureRate + ")";
+    }
+}
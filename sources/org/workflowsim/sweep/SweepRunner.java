@@ -0,0 +1,310 @@
+/**
+ * Copyright 2012-2013 University Of Southern California
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.workflowsim.sweep;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.CloudletSchedulerSpaceShared;
+import org.cloudbus.cloudsim.DatacenterCharacteristics;
+import org.cloudbus.cloudsim.HarddriveStorage;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.Storage;
+import org.cloudbus.cloudsim.VmAllocationPolicySimple;
+import org.cloudbus.cloudsim.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimulationContext;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.workflowsim.CondorVM;
+import org.workflowsim.Job;
+import org.workflowsim.WorkflowDatacenter;
+import org.workflowsim.WorkflowEngine;
+import org.workflowsim.WorkflowPlanner;
+import org.workflowsim.failure.FailureGenerator;
+import org.workflowsim.failure.FailureMonitor;
+import org.workflowsim.failure.FailureParameters;
+import org.workflowsim.utils.ClusteringParameters;
+import org.workflowsim.utils.DistributionGenerator;
+import org.workflowsim.utils.OverheadParameters;
+import org.workflowsim.utils.Parameters;
+import org.workflowsim.utils.ReplicaCatalog;
+
+/**
+ * SweepRunner executes the runs of a SweepGrid on a pool of threads and writes
+ * one CSV row per run, in the order of the runs. Each run is isolated in its
+ * own SimulationContext, so the static state of CloudSim, Parameters, the
+ * catalogs and the failure classes is not shared between runs, and its log is
+ * disabled.
+ *
+ * A run simulates the workflow on the datacenter of the examples: hosts with
+ * two 2000 MIPS PEs, 15 MB/s shared storage, and VMs with one 1000 MIPS PE,
+ * without overhead. A failure rate r adds failures with Weibull inter-arrival
+ * times of scale 1/r and shape 1, i.e. a mean time between failures of 1/r
+ * seconds, to all the tasks, which are retried.
+ *
+ * @since WorkflowSim Toolkit 1.1
+ * @date Oct 18, 2026
+ */
+public class SweepRunner {
+
+    /**
+     * The number of PEs of a host, each one running a VM.
+     */
+    private static final int PES_PER_HOST = 2;
+    /**
+     * The runs.
+     */
+    private final List<SweepRun> runs;
+    /**
+     * The number of threads.
+     */
+    private final int threads;
+
+    /**
+     * Creates a runner
+     *
+     * @param grid the grid
+     * @param threads the number of threads, the number of processors if not
+     * positive
+     */
+    public SweepRunner(SweepGrid grid, int threads) {
+        this.runs = grid.getRuns();
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Gets the runs
+     *
+     * @return the runs
+     */
+    public List<SweepRun> getRuns() {
+        return runs;
+    }
+
+    /**
+     * Executes the runs and writes the header and one row per run as soon as
+     * the runs before it are done. A run that fails is reported in the error
+     * column and does not stop the others.
+     *
+     * @param out the writer of the CSV rows, null for none
+     * @return the results, in the order of the runs
+     * @throws IOException if the rows cannot be written
+     * @throws InterruptedException if the thread is interrupted
+     */
+    public List<SweepResult> run(Writer out) throws IOException, InterruptedException {
+        if (out != null) {
+            out.write(SweepResult.CSV_HEADER + System.lineSeparator());
+            out.flush();
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<SweepResult> results = new ArrayList<>();
+        try {
+            List<Future<SweepResult>> futures = new ArrayList<>();
+            for (final SweepRun run : runs) {
+                futures.add(executor.submit(new Callable<SweepResult>() {
+                    @Override
+                    public SweepResult call() throws Exception {
+                        return new SimulationContext().call(new Callable<SweepResult>() {
+                            @Override
+                            public SweepResult call() {
+                                Log.disable();
+                                return simulate(run);
+                            }
+                        });
+                    }
+                }));
+            }
+            for (int i = 0; i < runs.size(); i++) {
+                SweepResult result;
+                try {
+                    result = futures.get(i).get();
+                } catch (ExecutionException e) {
+                    result = new SweepResult(runs.get(i));
+                    result.setError(String.valueOf(e.getCause()));
+                }
+                results.add(result);
+                if (out != null) {
+                    out.write(result.toCsv() + System.lineSeparator());
+                    out.flush();
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return results;
+    }
+
+    /**
+     * Simulates a run in the simulation context of the calling thread
+     *
+     * @param run the run
+     * @return the result, with the error set if the simulation failed
+     */
+    public static SweepResult simulate(SweepRun run) {
+        SweepResult result = new SweepResult(run);
+        long bytes = allocatedBytes();
+        long start = System.nanoTime();
+        try {
+            OverheadParameters op = new OverheadParameters(0, null, null, null, null, 0);
+            ClusteringParameters cp = new ClusteringParameters(run.getClustersNum(),
+                    run.getClustersSize(), run.getClusteringMethod(), null);
+            if (run.getFailureRate() > 0) {
+                DistributionGenerator[][] failureGenerators = new DistributionGenerator[1][1];
+                failureGenerators[0][0] = new DistributionGenerator(DistributionGenerator.DistributionFamily.WEIBULL,
+                        1.0 / run.getFailureRate(), 1.0);
+                FailureParameters.init(FailureParameters.FTCluteringAlgorithm.FTCLUSTERING_NOOP,
+                        FailureParameters.FTCMonitor.MONITOR_ALL, FailureParameters.FTCFailure.FAILURE_ALL,
+                        failureGenerators);
+            } else {
+                FailureParameters.init(FailureParameters.FTCluteringAlgorithm.FTCLUSTERING_NOOP,
+                        FailureParameters.FTCMonitor.MONITOR_NONE, FailureParameters.FTCFailure.FAILURE_NONE,
+                        null);
+            }
+            Parameters.init(run.getVmNum(), run.getDaxPath(), null, null, op, cp,
+                    run.getScheduler(), run.getPlanner(), null, 0);
+            ReplicaCatalog.init(ReplicaCatalog.FileSystem.SHARED);
+            FailureMonitor.init();
+            FailureGenerator.init();
+
+            CloudSim.init(1, Calendar.getInstance(), false);
+            WorkflowDatacenter datacenter = createDatacenter("Datacenter_0", run.getVmNum());
+            WorkflowPlanner wfPlanner = new WorkflowPlanner("planner_0", 1);
+            WorkflowEngine wfEngine = wfPlanner.getWorkflowEngine();
+            wfEngine.submitVmList(createVM(wfEngine.getSchedulerId(0), run.getVmNum()), 0);
+            wfEngine.bindSchedulerDatacenter(datacenter.getId(), 0);
+            CloudSim.startSimulation();
+            List<Job> jobs = wfEngine.getJobsReceivedList();
+            CloudSim.stopSimulation();
+
+            double makespan = 0.0;
+            double cost = 0.0;
+            int failed = 0;
+            for (Job job : jobs) {
+                makespan = Math.max(makespan, job.getFinishTime());
+                cost += job.getProcessingCost();
+                if (job.getCloudletStatus() == Cloudlet.FAILED) {
+                    failed++;
+                }
+            }
+            result.setJobs(jobs.size());
+            result.setFailedJobs(failed);
+            result.setMakespan(makespan);
+            result.setCost(cost);
+            result.setEventsProcessed(CloudSim.getEventsProcessed());
+        } catch (Exception e) {
+            result.setError(e.toString());
+        }
+        result.setWallTime((System.nanoTime() - start) / 1e6);
+        long allocated = allocatedBytes();
+        if (bytes >= 0 && allocated >= 0) {
+            result.setAllocatedBytes(allocated - bytes);
+        }
+        result.setPeakHeap(peakHeap());
+        return result;
+    }
+
+    /**
+     * Creates a datacenter with enough hosts for the VMs
+     *
+     * @param name the name of the datacenter
+     * @param vms the number of VMs
+     * @return the datacenter
+     * @throws Exception if the datacenter cannot be created
+     */
+    private static WorkflowDatacenter createDatacenter(String name, int vms) throws Exception {
+        List<Host> hostList = new ArrayList<>();
+        int hosts = Math.max(1, (vms + PES_PER_HOST - 1) / PES_PER_HOST);
+        for (int i = 0; i < hosts; i++) {
+            List<Pe> peList = new ArrayList<>();
+            for (int j = 0; j < PES_PER_HOST; j++) {
+                peList.add(new Pe(j, new PeProvisionerSimple(2000)));
+            }
+            hostList.add(new Host(i, new RamProvisionerSimple(2048), new BwProvisionerSimple(10000),
+                    1000000, peList, new VmSchedulerTimeShared(peList)));
+        }
+        DatacenterCharacteristics characteristics = new DatacenterCharacteristics(
+                "x86", "Linux", "Xen", hostList, 10.0, 3.0, 0.05, 0.1, 0.1);
+        LinkedList<Storage> storageList = new LinkedList<>();
+        HarddriveStorage storage = new HarddriveStorage(name, 1e12);
+        storage.setMaxTransferRate(15);
+        storageList.add(storage);
+        return new WorkflowDatacenter(name, characteristics, new VmAllocationPolicySimple(hostList),
+                storageList, 0);
+    }
+
+    /**
+     * Creates the VMs
+     *
+     * @param userId the id of the scheduler of the VMs
+     * @param vms the number of VMs
+     * @return the VM list
+     */
+    private static List<CondorVM> createVM(int userId, int vms) {
+        List<CondorVM> list = new ArrayList<>();
+        for (int i = 0; i < vms; i++) {
+            list.add(new CondorVM(i, userId, 1000, 1, 512, 1000, 10000, "Xen",
+                    new CloudletSchedulerSpaceShared()));
+        }
+        return list;
+    }
+
+    /**
+     * Gets the number of bytes allocated by the current thread so far, if the
+     * JVM can measure it
+     *
+     * @return the number of bytes, -1 if unknown
+     */
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean)
+                    .getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the peak heap usage of the JVM, i.e. the sum of the peak usages of
+     * the heap memory pools
+     *
+     * @return the number of bytes, -1 if unknown
+     */
+    private static long peakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak > 0 ? peak : -1;
+    }
+}
@@ -0,0 +1,205 @@
+/**
+ * Copyright 2012-2013 University Of Southern California
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.workflowsim.utils;
+
+import java.util.Arrays;
+
+/**
+ * CumulativeSampleIndex holds the running sums of a sequence of samples, such
+ * as the arrival times of failures given their inter-arrival times. The sums
+ * are stored in fixed-size chunks, so appending samples neither copies nor
+ * recomputes the sums already stored. When the samples are not negative the
+ * sums are sorted and findInterval answers by binary search; otherwise it falls
+ * back to a scan, so the answer is always the same as the scan's.
+ *
+ * @since WorkflowSim Toolkit 1.1
+ * @date Oct 18, 2026
+ */
+public class CumulativeSampleIndex {
+
+    /**
+     * The log2 of the size of a chunk.
+     */
+    private static final int CHUNK_SHIFT = 10;
+    /**
+     * The size of a chunk.
+     */
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    /**
+     * The mask of the position of a sum in its chunk.
+     */
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    /**
+     * The chunks of sums.
+     */
+    private double[][] chunks;
+    /**
+     * The number of sums.
+     */
+    private int size;
+    /**
+     * Whether the sums are sorted, i.e. no sample is negative or NaN.
+     */
+    private boolean sorted;
+
+    /**
+     * Creates an empty index
+     */
+    public CumulativeSampleIndex() {
+        clear();
+    }
+
+    /**
+     * Removes all the sums
+     */
+    public final void clear() {
+        chunks = new double[4][];
+        size = 0;
+        sorted = true;
+    }
+
+    /**
+     * Appends the running sums of samples, continuing from the last sum
+     *
+     * @param samples the samples
+     * @param from the index of the first sample to append
+     * @param to the index after the last sample to append
+     */
+    public void append(double[] samples, int from, int to) {
+        double sum = size == 0 ? 0.0 : get(size - 1);
+        for (int i = from; i < to; i++) {
+            int chunk = size >> CHUNK_SHIFT;
+            if (chunk == chunks.length) {
+                chunks = Arrays.copyOf(chunks, chunks.length * 2);
+            }
+            if (chunks[chunk] == null) {
+                chunks[chunk] = new double[CHUNK_SIZE];
+            }
+            // the first sum is the first sample, as in a sum started from it
+            double next = size == 0 ? samples[i] : sum + samples[i];
+            if (Double.isNaN(next) || (size > 0 && next < sum)) {
+                sorted = false;
+            }
+            chunks[chunk][size & CHUNK_MASK] = next;
+            sum = next;
+            size++;
+        }
+    }
+
+    /**
+     * Gets the number of sums
+     *
+     * @return the size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets a sum
+     *
+     * @param index the index of the last sample of the sum
+     * @return the sum
+     */
+    public double get(int index) {
+        return chunks[index >> CHUNK_SHIFT][index & CHUNK_MASK];
+    }
+
+    /**
+     * Gets the last sum
+     *
+     * @return the sum of all the samples
+     */
+    public double getLast() {
+        return get(size - 1);
+    }
+
+    /**
+     * Checks whether the sums are sorted
+     *
+     * @return whether findInterval uses a binary search
+     */
+    public boolean isSorted() {
+        return sorted;
+    }
+
+    /**
+     * Gets the index of the first sum that is in [start, end], unless a sum
+     * greater than end comes before it. It is the same as scanning the sums
+     * and stopping at the first one that is greater than end (no result) or
+     * not lower than start (the result).
+     *
+     * @param start the start of the interval
+     * @param end the end of the interval
+     * @return the index of the sum, -1 if none
+     */
+    public int findInterval(double start, double end) {
+        if (!sorted) {
+            for (int i = 0; i < size; i++) {
+                double sum = get(i);
+                if (end < sum) {
+                    return -1;
+                }
+                if (start <= sum) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        // the first sum not lower than start and the first one greater than end
+        int first = firstIndex(start, false);
+        int after = firstIndex(end, true);
+        return first < after ? first : -1;
+    }
+
+    /**
+     * Finds by binary search the first sum that is above a value
+     *
+     * @param value the value
+     * @param strict whether the sum must be greater than the value or only
+     * not lower
+     * @return the index of the sum, size if none
+     */
+    private int firstIndex(double value, boolean strict) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            double sum = get(mid);
+            if (strict ? sum > value : sum >= value) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Copies the sums to an array
+     *
+     * @return the sums
+     */
+    public double[] toArray() {
+        double[] result = new double[size];
+        for (int chunk = 0, copied = 0; copied < size; chunk++) {
+            int length = Math.min(CHUNK_SIZE, size - copied);
+            System.arraycopy(chunks[chunk], 0, result, copied, length);
+            copied += length;
+        }
+        return result;
+    }
+}
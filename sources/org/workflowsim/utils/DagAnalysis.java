@@ -0,0 +1,288 @@
+/**
+ * Copyright 2012-2013 University Of Southern California
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.workflowsim.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.workflowsim.Task;
+
+/**
+ * DagAnalysis sorts the nodes of a workflow (tasks, task sets, ...)
+ * topologically in a single Kahn pass and derives from it the depth of each
+ * node, the roots, the exits and the impact factors, all in O(V+E). Only the
+ * parent lists are read: a node is an exit if it is not the parent of any
+ * other node. Parents that are not part of the analyzed nodes are ignored, and
+ * nodes on a cycle are left out of the topological order (depth 0).
+ *
+ * @since WorkflowSim Toolkit 1.1
+ * @date Oct 18, 2026
+ * @param <T> the type of the nodes
+ */
+public class DagAnalysis<T> {
+
+    /**
+     * Gives the parents of a node
+     *
+     * @param <T> the type of the nodes
+     */
+    public interface Adjacency<T> {
+
+        /**
+         * Gets the parents of a node
+         *
+         * @param node the node
+         * @return the parents, with repetitions if a dependency is repeated
+         */
+        List<T> getParentList(T node);
+    }
+
+    /**
+     * The adjacency of tasks
+     */
+    public static final Adjacency<Task> TASK_ADJACENCY = new Adjacency<Task>() {
+        @Override
+        public List<Task> getParentList(Task node) {
+            return node.getParentList();
+        }
+    };
+
+    /**
+     * The nodes, in the order they were given.
+     */
+    private final List<T> nodes;
+    /**
+     * The position of each node in nodes.
+     */
+    private final Map<T, Integer> index;
+    /**
+     * The positions of the parents of each node that are part of the analysis.
+     */
+    private final int[][] parents;
+    /**
+     * The size of the parent list of each node, including parents that are
+     * not part of the analysis.
+     */
+    private final int[] parentCount;
+    /**
+     * The positions of the nodes, children first. Its reverse is a
+     * topological order.
+     */
+    private final int[] reverseOrder;
+    /**
+     * The number of nodes in reverseOrder.
+     */
+    private int sorted;
+    /**
+     * The depth of each node, roots have depth 1.
+     */
+    private final int[] depth;
+    /**
+     * The maximum depth.
+     */
+    private int maxDepth;
+
+    /**
+     * Analyzes the graph formed by a collection of nodes
+     *
+     * @param nodes the nodes
+     * @param adjacency gives the parents of a node
+     */
+    public DagAnalysis(Collection<? extends T> nodes, Adjacency<T> adjacency) {
+        this.nodes = new ArrayList<>(nodes);
+        int size = this.nodes.size();
+        this.index = new IdentityHashMap<>(size);
+        for (int i = 0; i < size; i++) {
+            this.index.put(this.nodes.get(i), i);
+        }
+        this.parents = new int[size][];
+        this.parentCount = new int[size];
+        this.reverseOrder = new int[size];
+        this.depth = new int[size];
+
+        /**
+         * Number of times a node appears in the parent list of another node
+         */
+        int[] children = new int[size];
+        for (int i = 0; i < size; i++) {
+            List<T> parentList = adjacency.getParentList(this.nodes.get(i));
+            parentCount[i] = parentList.size();
+            int[] positions = new int[parentList.size()];
+            int count = 0;
+            for (T parent : parentList) {
+                Integer position = index.get(parent);
+                if (position != null) {
+                    positions[count++] = position;
+                    children[position]++;
+                }
+            }
+            parents[i] = count == positions.length ? positions : Arrays.copyOf(positions, count);
+        }
+
+        /**
+         * Kahn's algorithm on the reversed graph: a node is taken once all the
+         * nodes it is a parent of have been taken.
+         */
+        sorted = 0;
+        for (int i = 0; i < size; i++) {
+            if (children[i] == 0) {
+                reverseOrder[sorted++] = i;
+            }
+        }
+        for (int head = 0; head < sorted; head++) {
+            for (int parent : parents[reverseOrder[head]]) {
+                if (--children[parent] == 0) {
+                    reverseOrder[sorted++] = parent;
+                }
+            }
+        }
+
+        maxDepth = 0;
+        for (int k = sorted - 1; k >= 0; k--) {
+            int node = reverseOrder[k];
+            int d = 0;
+            for (int parent : parents[node]) {
+                if (depth[parent] > d) {
+                    d = depth[parent];
+                }
+            }
+            depth[node] = d + 1;
+            if (depth[node] > maxDepth) {
+                maxDepth = depth[node];
+            }
+        }
+    }
+
+    /**
+     * Gets the nodes in topological order (parents before children)
+     *
+     * @return the nodes
+     */
+    public List<T> getTopologicalOrder() {
+        List<T> list = new ArrayList<>(sorted);
+        for (int k = sorted - 1; k >= 0; k--) {
+            list.add(nodes.get(reverseOrder[k]));
+        }
+        return list;
+    }
+
+    /**
+     * Checks whether the nodes form a DAG
+     *
+     * @return false if some nodes are on a cycle
+     */
+    public boolean isAcyclic() {
+        return sorted == nodes.size();
+    }
+
+    /**
+     * Gets the depth of a node. Roots have depth 1, other nodes have the
+     * depth of their deepest parent plus 1.
+     *
+     * @param node the node
+     * @return the depth, or 0 if the node is on a cycle or not analyzed
+     */
+    public int getDepth(T node) {
+        Integer position = index.get(node);
+        return position == null ? 0 : depth[position];
+    }
+
+    /**
+     * Gets the maximum depth
+     *
+     * @return the maximum depth
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Gets the nodes without parents, in the order they were given
+     *
+     * @return the roots
+     */
+    public List<T> getRoots() {
+        List<T> roots = new ArrayList<>();
+        for (int i = 0; i < nodes.size(); i++) {
+            if (parentCount[i] == 0) {
+                roots.add(nodes.get(i));
+            }
+        }
+        return roots;
+    }
+
+    /**
+     * Gets the nodes that are no parent of another node, in the order they
+     * were given
+     *
+     * @return the exits
+     */
+    public List<T> getExits() {
+        boolean[] isParent = new boolean[nodes.size()];
+        for (int[] list : parents) {
+            for (int parent : list) {
+                isParent[parent] = true;
+            }
+        }
+        List<T> exits = new ArrayList<>();
+        for (int i = 0; i < nodes.size(); i++) {
+            if (!isParent[i]) {
+                exits.add(nodes.get(i));
+            }
+        }
+        return exits;
+    }
+
+    /**
+     * Computes the impact factors of the nodes. Each exit is given an impact
+     * of 1/|exits|, and the impact of a node is split equally among its
+     * parents and added to theirs, so that the impact factor of a node is the
+     * share of the exits that depends on it.
+     *
+     * @param exits the exits
+     * @return the impact factor of each node
+     */
+    public Map<T, Double> getImpactFactors(Collection<? extends T> exits) {
+        double[] impact = new double[nodes.size()];
+        if (!exits.isEmpty()) {
+            double avg = 1.0 / exits.size();
+            for (T exit : exits) {
+                Integer position = index.get(exit);
+                if (position != null) {
+                    impact[position] += avg;
+                }
+            }
+        }
+        // children first, so that the impact of a node is complete when it is split
+        for (int k = 0; k < sorted; k++) {
+            int node = reverseOrder[k];
+            if (impact[node] != 0.0 && parentCount[node] > 0) {
+                double avg = impact[node] / parentCount[node];
+                for (int parent : parents[node]) {
+                    impact[parent] += avg;
+                }
+            }
+        }
+        Map<T, Double> map = new IdentityHashMap<>(nodes.size());
+        for (int i = 0; i < nodes.size(); i++) {
+            map.put(nodes.get(i), impact[i]);
+        }
+        return map;
+    }
+}
@@ -41,6 +41,11 @@ public class DistributionGenerator {
     protected double likelihood_prior;
     protected double[] samples;
     protected double[] cumulativeSamples;
+    /**
+     * The running sums of samples indexed for search, extended in place when
+     * samples are added
+     */
+    private final CumulativeSampleIndex cumulativeSampleIndex = new CumulativeSampleIndex();
     protected int cursor;
     protected final int SAMPLE_SIZE = 1500 ; //DistributionGenerator will automatically increase the size
     
@@ -93,17 +98,41 @@ public class DistributionGenerator {
         return cumulativeSamples;
     }
 
+    /**
+     * Gets the index of the cumulative samples, which is kept up to date as
+     * samples are added
+     *
+     * @return the index
+     */
+    public CumulativeSampleIndex getCumulativeSampleIndex() {
+        return cumulativeSampleIndex;
+    }
+
     /**
      * Extends the sample size
      */
     public void extendSamples() {
-        double[] new_samples = getDistribution(scale, shape).sample(SAMPLE_SIZE);
+        appendSamples(getDistribution(scale, shape).sample(SAMPLE_SIZE));
+    }
+
+    /**
+     * Adds samples after the current ones and extends cumulativeSamples and
+     * its index with them only
+     *
+     * @param new_samples the samples to add
+     */
+    protected void appendSamples(double[] new_samples) {
+        int from = samples.length;
         samples = concat(samples, new_samples);
-        updateCumulativeSamples();
+        cumulativeSamples = Arrays.copyOf(cumulativeSamples, samples.length);
+        for (int i = from; i < samples.length; i++) {
+            cumulativeSamples[i] = i == 0 ? samples[0] : cumulativeSamples[i - 1] + samples[i];
+        }
+        cumulativeSampleIndex.append(samples, from, samples.length);
     }
 
     /**
-     * Update cumulativeSamples from samples
+     * Update cumulativeSamples and its index from samples
      */
     public void updateCumulativeSamples() {
         cumulativeSamples = new double[samples.length];
@@ -111,6 +140,8 @@ public class DistributionGenerator {
         for (int i = 1; i < samples.length; i++) {
             cumulativeSamples[i] = cumulativeSamples[i - 1] + samples[i];
         }
+        cumulativeSampleIndex.clear();
+        cumulativeSampleIndex.append(samples, 0, samples.length);
     }
 
     /**
@@ -212,9 +243,7 @@ public class DistributionGenerator {
      */
     public double getNextSample() {
         while (cursor >= samples.length) {
-            double[] new_samples = getDistribution(scale, shape).sample(SAMPLE_SIZE);
-            samples = concat(samples, new_samples);
-            updateCumulativeSamples();
+            appendSamples(getDistribution(scale, shape).sample(SAMPLE_SIZE));
         }
         double delay = samples[cursor];
         cursor++;
@@ -17,10 +17,12 @@ package org.workflowsim.utils;
 
 import java.util.List;
 import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.core.SimulationContext;
 
 /**
  * This class includes most parameters a user can specify in a configuration
- * file
+ * file. The parameters are kept by the SimulationContext of the calling
+ * thread, so that simulations in different contexts have their own.
  *
  * @author Weiwei Chen
  * @since WorkflowSim Toolkit 1.0
@@ -82,6 +84,15 @@ public class Parameters {
         }
     }
     
+    /**
+     * The DAX parser
+     * JDOM: builds the whole document before creating the tasks
+     * STAX: streams the DAX file and creates the tasks in a single pass
+     */
+    public enum DaxParser{
+        JDOM, STAX
+    }
+    
     /** 
      * Source Host (submit host)
      */
@@ -89,45 +100,6 @@ public class Parameters {
     
     public static final int BASE = 0;
     
-    /**
-     * Scheduling mode
-     */
-    private static SchedulingAlgorithm schedulingAlgorithm;
-    
-    /**
-     * Planning mode
-     */
-    private static PlanningAlgorithm planningAlgorithm;
-    
-    /**
-     * Reducer mode
-     */
-    private static String reduceMethod;
-    /**
-     * Number of vms available
-     */
-    private static int vmNum;
-    /**
-     * The physical path to DAX file
-     */
-    private static String daxPath;
-    
-    /**
-     * The physical path to DAX files
-     */
-    private static List<String> daxPaths;
-    /**
-     * The physical path to runtime file In the runtime file, please use format
-     * as below ID1 1.0 ID2 2.0 ... This is optional, if you have specified task
-     * runtime in DAX then you don't need to specify this file
-     */
-    private static String runtimePath;
-    /**
-     * The physical path to datasize file In the datasize file, please use
-     * format as below DATA1 1000 DATA2 2000 ... This is optional, if you have
-     * specified datasize in DAX then you don't need to specify this file
-     */
-    private static String datasizePath;
     /**
      * Version number
      */
@@ -136,29 +108,6 @@ public class Parameters {
      * Note information
      */
     private static final String note = " supports planning algorithm at Nov 9, 2013";
-    /**
-     * Overhead parameters
-     */
-    private static OverheadParameters oParams;
-    /**
-     * Clustering parameters
-     */
-    private static ClusteringParameters cParams;
-    /**
-     * Deadline of a workflow
-     */
-    private static long deadline;
-    
-    /**
-     * the bandwidth from one vm to one vm
-     */
-    private static double[][] bandwidths;
-    
-    
-    /**
-     * The maximum depth. It is inited manually and used in FailureGenerator
-     */
-    private static int maxDepth;
     
     /**
      * Invalid String
@@ -166,15 +115,131 @@ public class Parameters {
     private static final String INVALID = "Invalid";
     
     /**
-     * The scale of runtime. Multiple runtime by this
+     * The parameters in each simulation context.
      */
-    private static double runtime_scale = 1.0;
-    
+    private static final SimulationContext.Key<State> STATE = new SimulationContext.Key<State>() {
+
+        @Override
+        protected State initialValue() {
+            return new State();
+        }
+    };
+
     /**
-     * The default cost model is based on datacenter, similar to CloudSim
+     * The state of this class in a simulation context.
      */
-    private static CostModel costModel = CostModel.DATACENTER;
-    
+    private static class State {
+
+        /**
+         * Scheduling mode
+         */
+        SchedulingAlgorithm schedulingAlgorithm;
+        /**
+         * Planning mode
+         */
+        PlanningAlgorithm planningAlgorithm;
+        /**
+         * Reducer mode: "montage" removes the duplicate dependencies of Montage
+         * workflows, "transitive" the dependencies implied by others in any
+         * workflow
+         */
+        String reduceMethod;
+        /**
+         * Number of vms available
+         */
+        int vmNum;
+        /**
+         * The physical path to DAX file
+         */
+        String daxPath;
+        /**
+         * The physical path to DAX files
+         */
+        List<String> daxPaths;
+        /**
+         * The physical path to runtime file In the runtime file, please use format
+         * as below ID1 1.0 ID2 2.0 ... This is optional, if you have specified task
+         * runtime in DAX then you don't need to specify this file
+         */
+        String runtimePath;
+        /**
+         * The physical path to datasize file In the datasize file, please use
+         * format as below DATA1 1000 DATA2 2000 ... This is optional, if you have
+         * specified datasize in DAX then you don't need to specify this file
+         */
+        String datasizePath;
+        /**
+         * Overhead parameters
+         */
+        OverheadParameters oParams;
+        /**
+         * Clustering parameters
+         */
+        ClusteringParameters cParams;
+        /**
+         * Deadline of a workflow
+         */
+        long deadline;
+        /**
+         * the bandwidth from one vm to one vm
+         */
+        double[][] bandwidths;
+        /**
+         * The maximum depth. It is inited manually and used in FailureGenerator
+         */
+        int maxDepth;
+        /**
+         * The scale of runtime. Multiple runtime by this
+         */
+        double runtime_scale = 1.0;
+        /**
+         * The default cost model is based on datacenter, similar to CloudSim
+         */
+        CostModel costModel = CostModel.DATACENTER;
+        /**
+         * The default DAX parser is based on jdom
+         */
+        DaxParser daxParser = DaxParser.JDOM;
+        /**
+         * The directory of the compiled workflows. By default workflows are not
+         * cached
+         */
+        String workflowCacheDir = null;
+        /**
+         * Whether multiple DAX files are parsed in parallel. By default they are
+         * parsed one after the other
+         */
+        boolean parallelDaxParsing = false;
+        /**
+         * The window over which the scheduling rounds of a WorkflowScheduler are
+         * coalesced. By default (negative) every returned or submitted job
+         * triggers its own round
+         */
+        double schedulingWindow = -1.0;
+        /**
+         * Whether a WorkflowDatacenter only updates the VMs that got a cloudlet or
+         * whose next cloudlet is due. By default all the VMs are updated at every
+         * event, which lets a cloudlet finish a little earlier than expected
+         */
+        boolean incrementalVmUpdates = false;
+        /**
+         * Whether a WorkflowDatacenter keeps a single pending update event, moved
+         * only when an update is needed earlier. By default every submission and
+         * update schedules its own VM_DATACENTER_EVENT
+         */
+        boolean deduplicatedUpdates = false;
+    }
+
+    /**
+     * Gets the state of this class in the simulation context of the
+     * calling thread
+     *
+     * @return the state
+     */
+    private static State state() {
+        return SimulationContext.current().get(STATE);
+    }
+
     /**
      * A static function so that you can specify them in any place
      *
@@ -195,18 +260,19 @@ public class Parameters {
             SchedulingAlgorithm scheduler, PlanningAlgorithm planner, String rMethod,
             long dl) {
 
-        cParams = cp;
-        vmNum = vm;
-        daxPath = dax;
-        runtimePath = runtime;
-        datasizePath = datasize;
+        State state = state();
+        state.cParams = cp;
+        state.vmNum = vm;
+        state.daxPath = dax;
+        state.runtimePath = runtime;
+        state.datasizePath = datasize;
 
-        oParams = op;
-        schedulingAlgorithm = scheduler;
-        planningAlgorithm = planner;
-        reduceMethod = rMethod;
-        deadline = dl;
-        maxDepth = 0;
+        state.oParams = op;
+        state.schedulingAlgorithm = scheduler;
+        state.planningAlgorithm = planner;
+        state.reduceMethod = rMethod;
+        state.deadline = dl;
+        state.maxDepth = 0;
     }
     
     /**
@@ -229,18 +295,19 @@ public class Parameters {
             SchedulingAlgorithm scheduler, PlanningAlgorithm planner, String rMethod,
             long dl) {
 
-        cParams = cp;
-        vmNum = vm;
-        daxPaths = dax;
-        runtimePath = runtime;
-        datasizePath = datasize;
+        State state = state();
+        state.cParams = cp;
+        state.vmNum = vm;
+        state.daxPaths = dax;
+        state.runtimePath = runtime;
+        state.datasizePath = datasize;
 
-        oParams = op;
-        schedulingAlgorithm = scheduler;
-        planningAlgorithm = planner;
-        reduceMethod = rMethod;
-        deadline = dl;
-        maxDepth = 0;
+        state.oParams = op;
+        state.schedulingAlgorithm = scheduler;
+        state.planningAlgorithm = planner;
+        state.reduceMethod = rMethod;
+        state.deadline = dl;
+        state.maxDepth = 0;
     }
 
     /**
@@ -251,7 +318,7 @@ public class Parameters {
      * @post $none
      */
     public static OverheadParameters getOverheadParams() {
-        return oParams;
+        return state().oParams;
     }
 
     
@@ -264,8 +331,9 @@ public class Parameters {
      * @post $none
      */
     public static String getReduceMethod() {
-        if(reduceMethod!=null){
-            return reduceMethod;
+        State state = state();
+        if(state.reduceMethod!=null){
+            return state.reduceMethod;
         }else{
             return INVALID;
         }
@@ -281,7 +349,7 @@ public class Parameters {
      * @post $none
      */
     public static String getDaxPath() {
-        return daxPath;
+        return state().daxPath;
     }
 
     /**
@@ -292,7 +360,7 @@ public class Parameters {
      * @post $none
      */
     public static String getRuntimePath() {
-        return runtimePath;
+        return state().runtimePath;
     }
 
     /**
@@ -303,7 +371,7 @@ public class Parameters {
      * @post $none
      */
     public static String getDatasizePath() {
-        return datasizePath;
+        return state().datasizePath;
     }
 
     
@@ -315,7 +383,7 @@ public class Parameters {
      * @post $none
      */
     public static int getVmNum() {
-        return vmNum;
+        return state().vmNum;
     }
 
     
@@ -325,7 +393,7 @@ public class Parameters {
      * @return costModel
      */
     public static CostModel getCostModel(){
-        return costModel;
+        return state().costModel;
     }
     
     /**
@@ -334,7 +402,7 @@ public class Parameters {
      * @param num
      */
     public static void setVmNum(int num) {
-        vmNum = num;
+        state().vmNum = num;
     }
 
     /**
@@ -343,7 +411,7 @@ public class Parameters {
      * @return the clustering parameters
      */
     public static ClusteringParameters getClusteringParameters() {
-        return cParams;
+        return state().cParams;
     }
 
     /**
@@ -352,7 +420,7 @@ public class Parameters {
      * @return the scheduling method
      */
     public static SchedulingAlgorithm getSchedulingAlgorithm() {
-        return schedulingAlgorithm;
+        return state().schedulingAlgorithm;
     }
     
     /**
@@ -361,7 +429,7 @@ public class Parameters {
      * 
      */
     public static PlanningAlgorithm getPlanningAlgorithm() {
-        return planningAlgorithm;
+        return state().planningAlgorithm;
     }
     /**
      * Gets the version
@@ -379,7 +447,7 @@ public class Parameters {
      * Gets the deadline
      */
     public static long getDeadline(){
-    	return deadline;
+    	return state().deadline;
     }
     
     /**
@@ -387,7 +455,7 @@ public class Parameters {
      * @return the maxDepth
      */
     public static int getMaxDepth(){
-        return maxDepth;
+        return state().maxDepth;
     }
     
     /**
@@ -395,7 +463,7 @@ public class Parameters {
      * @param depth the maxDepth
      */
     public static void setMaxDepth(int depth){
-        maxDepth = depth;
+        state().maxDepth = depth;
     }
     
     /**
@@ -403,7 +471,7 @@ public class Parameters {
      * @param scale 
      */
     public static void setRuntimeScale(double scale){
-        runtime_scale = scale;
+        state().runtime_scale = scale;
     }
     
     /**
@@ -411,7 +479,108 @@ public class Parameters {
      * @param model
      */
     public static void setCostModel(CostModel model){
-        costModel = model;
+        state().costModel = model;
+    }
+    
+    /**
+     * Sets the DAX parser
+     * @param parser
+     */
+    public static void setDaxParser(DaxParser parser){
+        state().daxParser = parser;
+    }
+    
+    /**
+     * Gets the DAX parser
+     * @return the DAX parser
+     */
+    public static DaxParser getDaxParser(){
+        return state().daxParser;
+    }
+    
+    /**
+     * Sets the directory where parsed DAX files are cached (null to disable
+     * the cache)
+     * @param dir
+     */
+    public static void setWorkflowCacheDir(String dir){
+        state().workflowCacheDir = dir;
+    }
+    
+    /**
+     * Gets the directory where parsed DAX files are cached
+     * @return the directory, or null if the cache is disabled
+     */
+    public static String getWorkflowCacheDir(){
+        return state().workflowCacheDir;
+    }
+    
+    /**
+     * Sets whether multiple DAX files are parsed in parallel
+     * @param parallel
+     */
+    public static void setParallelDaxParsing(boolean parallel){
+        state().parallelDaxParsing = parallel;
+    }
+    
+    /**
+     * Checks whether multiple DAX files are parsed in parallel
+     * @return whether DAX files are parsed in parallel
+     */
+    public static boolean isParallelDaxParsing(){
+        return state().parallelDaxParsing;
+    }
+    
+    /**
+     * Sets the window over which scheduling rounds are coalesced. With a
+     * window of 0, there is at most one round per scheduler and time instant;
+     * a negative window runs a round per returned or submitted job
+     * @param window the window (in seconds)
+     */
+    public static void setSchedulingWindow(double window){
+        state().schedulingWindow = window;
+    }
+    
+    /**
+     * Gets the window over which scheduling rounds are coalesced
+     * @return the window, negative if rounds are not coalesced
+     */
+    public static double getSchedulingWindow(){
+        return state().schedulingWindow;
+    }
+    
+    /**
+     * Sets whether a WorkflowDatacenter only updates the VMs that got a
+     * cloudlet or whose next cloudlet is due
+     * @param incremental
+     */
+    public static void setIncrementalVmUpdates(boolean incremental){
+        state().incrementalVmUpdates = incremental;
+    }
+    
+    /**
+     * Checks whether a WorkflowDatacenter only updates the VMs that got a
+     * cloudlet or whose next cloudlet is due
+     * @return whether the VM updates are incremental
+     */
+    public static boolean isIncrementalVmUpdates(){
+        return state().incrementalVmUpdates;
+    }
+    
+    /**
+     * Sets whether a WorkflowDatacenter keeps a single pending update event
+     * @param deduplicated
+     */
+    public static void setDeduplicatedUpdates(boolean deduplicated){
+        state().deduplicatedUpdates = deduplicated;
+    }
+    
+    /**
+     * Checks whether a WorkflowDatacenter keeps a single pending update event
+     * @return whether the update events are deduplicated
+     */
+    public static boolean isDeduplicatedUpdates(){
+        return state().deduplicatedUpdates;
     }
     
     /**
@@ -419,7 +588,7 @@ public class Parameters {
      * @return 
      */
     public static double getRuntimeScale(){
-        return runtime_scale;
+        return state().runtime_scale;
     }
     
     /**
@@ -427,6 +596,6 @@ public class Parameters {
      * @return 
      */
     public static List<String> getDAXPaths() {
-        return daxPaths;
+        return state().daxPaths;
     }
 }
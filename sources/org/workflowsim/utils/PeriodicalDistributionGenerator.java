@@ -77,9 +77,7 @@ public class PeriodicalDistributionGenerator extends DistributionGenerator{
     @Override
     public void extendSamples() {
         double currentTime = cumulativeSamples[cumulativeSamples.length - 1];
-        double[] new_samples = generatePeriodicalSamples(currentTime);
-        samples = concat(samples, new_samples);
-        updateCumulativeSamples();
+        appendSamples(generatePeriodicalSamples(currentTime));
     }
     
     /**
@@ -0,0 +1,317 @@
+/**
+ * Copyright 2012-2013 University Of Southern California
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.workflowsim.utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reachability answers whether a node of a workflow is an ancestor of another
+ * one. Each node gets two interval labels, one per post-order walk of the
+ * parent edges (the second one visits the parents in reverse): its rank in the
+ * walk and the lowest rank among itself and its ancestors. The intervals of an
+ * ancestor are contained in the intervals of its descendants, so most negative
+ * queries are answered from the labels in O(1); the others walk the ancestors
+ * of the node, skipping those whose intervals cannot contain the ones looked
+ * for or that are not deeper than them. The index takes O(V+E) time and memory
+ * to build.
+ *
+ * Only the parent lists are read; parents that are not part of the indexed
+ * nodes and nodes on a cycle are ignored. The parent edges are copied when the
+ * index is built. Removing a redundant edge (see getRedundantParents) keeps
+ * the index valid since it does not change which nodes reach which. The
+ * queries share scratch arrays, so an index must not be queried by several
+ * threads at once.
+ *
+ * @since WorkflowSim Toolkit 1.1
+ * @date Oct 18, 2026
+ * @param <T> the type of the nodes
+ */
+public class Reachability<T> {
+
+    /**
+     * The position of each node in the topological order.
+     */
+    private final Map<T, Integer> index;
+    /**
+     * The parents of each node, by position: the parents of node i are
+     * parents[parentStart[i]] to parents[parentStart[i + 1] - 1].
+     */
+    private final int[] parentStart;
+    private final int[] parents;
+    /**
+     * The rank of each node in each post-order walk of the parent edges, so a
+     * node ranks after all its ancestors.
+     */
+    private final int[] rank;
+    private final int[] reverseRank;
+    /**
+     * The lowest rank among each node and its ancestors, in each walk.
+     */
+    private final int[] low;
+    private final int[] reverseLow;
+    /**
+     * The depth of each node: a node is deeper than all its ancestors.
+     */
+    private final int[] depth;
+    /**
+     * The nodes visited by the current query are marked with its stamp.
+     */
+    private final int[] mark;
+    private int stamp;
+    /**
+     * The stack of the walks.
+     */
+    private final int[] stack;
+    /**
+     * The adjacency of the nodes.
+     */
+    private final DagAnalysis.Adjacency<T> adjacency;
+
+    /**
+     * Indexes the graph formed by a collection of nodes
+     *
+     * @param nodes the nodes
+     * @param adjacency gives the parents of a node
+     */
+    public Reachability(Collection<? extends T> nodes, DagAnalysis.Adjacency<T> adjacency) {
+        this.adjacency = adjacency;
+        DagAnalysis<T> analysis = new DagAnalysis<>(nodes, adjacency);
+        List<T> order = analysis.getTopologicalOrder();
+        int size = order.size();
+        this.index = new IdentityHashMap<>(size);
+        this.depth = new int[size];
+        for (int i = 0; i < size; i++) {
+            this.index.put(order.get(i), i);
+            this.depth[i] = analysis.getDepth(order.get(i));
+        }
+
+        this.parentStart = new int[size + 1];
+        List<int[]> positions = new ArrayList<>(size);
+        int edges = 0;
+        for (int i = 0; i < size; i++) {
+            List<T> parentList = adjacency.getParentList(order.get(i));
+            int[] list = new int[parentList.size()];
+            int count = 0;
+            for (T parent : parentList) {
+                Integer position = index.get(parent);
+                if (position != null) {
+                    list[count++] = position;
+                }
+            }
+            positions.add(list);
+            parentStart[i] = edges;
+            edges += count;
+            parentStart[i + 1] = edges;
+        }
+        this.parents = new int[edges];
+        for (int i = 0; i < size; i++) {
+            System.arraycopy(positions.get(i), 0, parents, parentStart[i], parentStart[i + 1] - parentStart[i]);
+        }
+
+        this.mark = new int[size];
+        this.stack = new int[size];
+        this.rank = new int[size];
+        this.reverseRank = new int[size];
+        this.low = new int[size];
+        this.reverseLow = new int[size];
+        label(rank, low, false);
+        label(reverseRank, reverseLow, true);
+    }
+
+    /**
+     * Labels the nodes with a post-order walk of the parent edges, from the
+     * last nodes of the topological order, so that the parents of a node are
+     * ranked first
+     *
+     * @param rank the rank of each node in the walk
+     * @param low the lowest rank among each node and its ancestors
+     * @param reverse whether the parents are visited in reverse
+     */
+    private void label(int[] rank, int[] low, boolean reverse) {
+        int size = rank.length;
+        int[] next = new int[size];
+        int ranked = 0;
+        stamp++;
+        for (int root = size - 1; root >= 0; root--) {
+            if (mark[root] == stamp) {
+                continue;
+            }
+            int top = 0;
+            stack[top++] = root;
+            mark[root] = stamp;
+            next[root] = 0;
+            while (top > 0) {
+                int node = stack[top - 1];
+                int count = parentStart[node + 1] - parentStart[node];
+                if (next[node] < count) {
+                    int offset = next[node]++;
+                    int parent = parents[reverse ? parentStart[node + 1] - 1 - offset : parentStart[node] + offset];
+                    if (mark[parent] != stamp) {
+                        mark[parent] = stamp;
+                        next[parent] = 0;
+                        stack[top++] = parent;
+                    }
+                } else {
+                    rank[node] = ranked++;
+                    top--;
+                }
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            int value = rank[i];
+            for (int k = parentStart[i]; k < parentStart[i + 1]; k++) {
+                value = Math.min(value, low[parents[k]]);
+            }
+            low[i] = value;
+        }
+    }
+
+    /**
+     * Checks whether a node is indexed
+     *
+     * @param node the node
+     * @return false if the node was not given or is on a cycle
+     */
+    public boolean contains(T node) {
+        return index.containsKey(node);
+    }
+
+    /**
+     * Checks whether a node can be reached from another one
+     *
+     * @param ancestor the ancestor
+     * @param node the node
+     * @return true if ancestor is node or one of its ancestors
+     */
+    public boolean reaches(T ancestor, T node) {
+        if (ancestor == null || node == null) {
+            return false;
+        }
+        if (ancestor == node) {
+            return true;
+        }
+        Integer from = index.get(ancestor);
+        Integer to = index.get(node);
+        if (from == null || to == null || depth[from] >= depth[to] || !mayReach(from, to)) {
+            return false;
+        }
+        stamp++;
+        int top = 0;
+        stack[top++] = to;
+        mark[to] = stamp;
+        while (top > 0) {
+            int current = stack[--top];
+            for (int k = parentStart[current]; k < parentStart[current + 1]; k++) {
+                int parent = parents[k];
+                if (parent == from) {
+                    return true;
+                }
+                if (mark[parent] != stamp && depth[parent] > depth[from] && mayReach(from, parent)) {
+                    mark[parent] = stamp;
+                    stack[top++] = parent;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks the labels of two nodes
+     *
+     * @param from the position of the ancestor
+     * @param to the position of the node
+     * @return false if from is not an ancestor of to
+     */
+    private boolean mayReach(int from, int to) {
+        return rank[from] <= rank[to] && low[to] <= low[from]
+                && reverseRank[from] <= reverseRank[to] && reverseLow[to] <= reverseLow[from];
+    }
+
+    /**
+     * Gets the parents of a node that are also ancestors of another of its
+     * parents. The edges from these parents are implied by the others and form
+     * the transitive reduction of the graph once removed.
+     *
+     * @param node the node
+     * @return the redundant parents, in the order of the parent list
+     */
+    public List<T> getRedundantParents(T node) {
+        List<T> redundant = new ArrayList<>();
+        List<T> parentList = adjacency.getParentList(node);
+        if (parentList.size() < 2) {
+            return redundant;
+        }
+        /**
+         * Only the ancestors whose intervals may contain the intervals of one
+         * of the parents, and that are not above all of them, are walked.
+         */
+        int minRank = Integer.MAX_VALUE;
+        int maxLow = Integer.MIN_VALUE;
+        int minReverseRank = Integer.MAX_VALUE;
+        int maxReverseLow = Integer.MIN_VALUE;
+        int minDepth = Integer.MAX_VALUE;
+        for (T parent : parentList) {
+            Integer position = index.get(parent);
+            if (position != null) {
+                minRank = Math.min(minRank, rank[position]);
+                maxLow = Math.max(maxLow, low[position]);
+                minReverseRank = Math.min(minReverseRank, reverseRank[position]);
+                maxReverseLow = Math.max(maxReverseLow, reverseLow[position]);
+                minDepth = Math.min(minDepth, depth[position]);
+            }
+        }
+        stamp++;
+        int top = 0;
+        for (T parent : parentList) {
+            Integer position = index.get(parent);
+            if (position == null) {
+                continue;
+            }
+            for (int k = parentStart[position]; k < parentStart[position + 1]; k++) {
+                int ancestor = parents[k];
+                if (mark[ancestor] != stamp && depth[ancestor] >= minDepth
+                        && rank[ancestor] >= minRank && low[ancestor] <= maxLow
+                        && reverseRank[ancestor] >= minReverseRank && reverseLow[ancestor] <= maxReverseLow) {
+                    mark[ancestor] = stamp;
+                    stack[top++] = ancestor;
+                }
+            }
+        }
+        while (top > 0) {
+            int current = stack[--top];
+            for (int k = parentStart[current]; k < parentStart[current + 1]; k++) {
+                int ancestor = parents[k];
+                if (mark[ancestor] != stamp && depth[ancestor] >= minDepth
+                        && rank[ancestor] >= minRank && low[ancestor] <= maxLow
+                        && reverseRank[ancestor] >= minReverseRank && reverseLow[ancestor] <= maxReverseLow) {
+                    mark[ancestor] = stamp;
+                    stack[top++] = ancestor;
+                }
+            }
+        }
+        for (T parent : parentList) {
+            Integer position = index.get(parent);
+            if (position != null && mark[position] == stamp) {
+                redundant.add(parent);
+            }
+        }
+        return redundant;
+    }
+}
@@ -18,13 +18,21 @@
 package org.workflowsim.utils;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import org.workflowsim.FileItem;
+import org.cloudbus.cloudsim.core.SimulationContext;
 
 /**
- * ReplicaCatalog stores all the data information and where (site) there are
+ * ReplicaCatalog stores all the data information and where (site) there are.
+ * File names are interned into integer file ids. A replica is either on a
+ * named site (a datacenter or the source) or on a VM (for a local file
+ * system); the sites of a file are kept as bitsets over interned site ids and
+ * VM ids, and the files of each site and VM in a reverse index, so that
+ * locality queries do not compare strings. The catalog is kept by the
+ * SimulationContext of the calling thread.
  *
  * @author Weiwei Chen
  * @since WorkflowSim Toolkit 1.0
@@ -38,18 +46,63 @@ public class ReplicaCatalog {
     public enum FileSystem {
         SHARED, LOCAL
     }
+
     /**
-     * Map from file name to a file object
+     * The catalog in each simulation context.
      */
-    private static Map<String, FileItem> fileName2File;
+    private static final SimulationContext.Key<State> STATE = new SimulationContext.Key<State>() {
+
+        @Override
+        protected State initialValue() {
+            return new State();
+        }
+    };
+
     /**
-     * The selection of file.system
+     * The state of this class in a simulation context.
      */
-    private static FileSystem fileSystem;
+    private static class State {
+
+        /**
+         * Map from file name to a file object
+         */
+        Map<String, FileItem> fileName2File;
+        /**
+         * The selection of file.system
+         */
+        FileSystem fileSystem;
+        /**
+         * Map from file name to file id, and the name of each file id
+         */
+        Map<String, Integer> fileIds;
+        List<String> fileNames;
+        /**
+         * The named sites and the VMs where each file is, indexed by file id
+         */
+        List<BitSet> fileSites;
+        List<BitSet> fileVms;
+        /**
+         * Map from site name to site id, and the name of each site id
+         */
+        Map<String, Integer> siteIds;
+        List<String> siteNames;
+        /**
+         * The files on each named site (indexed by site id) and on each VM
+         * (indexed by VM id)
+         */
+        List<BitSet> siteFiles;
+        List<BitSet> vmFiles;
+    }
+
     /**
-     * Map from file to a list of data storage
+     * Gets the state of this class in the simulation context of the
+     * calling thread
+     *
+     * @return the state
      */
-    private static Map<String, List<String>> dataReplicaCatalog;
+    private static State state() {
+        return SimulationContext.current().get(STATE);
+    }
 
     /**
      * Initialize a ReplicaCatalog
@@ -57,9 +110,17 @@ public class ReplicaCatalog {
      * @param fs the type of file system
      */
     public static void init(FileSystem fs) {
-        fileSystem = fs;
-        dataReplicaCatalog = new HashMap<>();
-        fileName2File = new HashMap<>();
+        State state = state();
+        state.fileSystem = fs;
+        state.fileName2File = new HashMap<>();
+        state.fileIds = new HashMap<>();
+        state.fileNames = new ArrayList<>();
+        state.fileSites = new ArrayList<>();
+        state.fileVms = new ArrayList<>();
+        state.siteIds = new HashMap<>();
+        state.siteNames = new ArrayList<>();
+        state.siteFiles = new ArrayList<>();
+        state.vmFiles = new ArrayList<>();
     }
 
     /**
@@ -68,7 +129,7 @@ public class ReplicaCatalog {
      * @return file system
      */
     public static FileSystem getFileSystem() {
-        return fileSystem;
+        return state().fileSystem;
     }
 
     /**
@@ -78,7 +139,7 @@ public class ReplicaCatalog {
      * @return file object
      */
     public static FileItem getFile(String fileName) {
-        return fileName2File.get(fileName);
+        return state().fileName2File.get(fileName);
     }
 
     /**
@@ -88,7 +149,7 @@ public class ReplicaCatalog {
      * @param file , the file object
      */
     public static void setFile(String fileName, FileItem file) {
-        fileName2File.put(fileName, file);
+        state().fileName2File.put(fileName, file);
     }
 
     /**
@@ -98,17 +159,53 @@ public class ReplicaCatalog {
      * @return boolean, whether the file exist
      */
     public static boolean containsFile(String fileName) {
-        return fileName2File.containsKey(fileName);
+        return state().fileName2File.containsKey(fileName);
+    }
+
+    /**
+     * Gets the id of a file that has been stored somewhere
+     *
+     * @param fileName the file name
+     * @return the file id, or -1 if the file has never been stored
+     */
+    public static int getFileId(String fileName) {
+        Integer id = state().fileIds.get(fileName);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Gets the name of a file id
+     *
+     * @param fileId the file id
+     * @return the file name
+     */
+    public static String getFileName(int fileId) {
+        return state().fileNames.get(fileId);
     }
 
     /**
-     * Gets the list of storages a file exists
+     * Gets the list of storages a file exists: the named sites first, then the
+     * ids of the VMs
      *
      * @param file the file object
-     * @return list of storages
+     * @return list of storages, or null if the file has never been stored
      */
     public static List<String> getStorageList(String file) {
-        return dataReplicaCatalog.get(file);
+        State state = state();
+        int fileId = getFileId(file);
+        if (fileId < 0) {
+            return null;
+        }
+        List<String> list = new ArrayList<>();
+        BitSet sites = state.fileSites.get(fileId);
+        for (int site = sites.nextSetBit(0); site >= 0; site = sites.nextSetBit(site + 1)) {
+            list.add(state.siteNames.get(site));
+        }
+        BitSet vms = state.fileVms.get(fileId);
+        for (int vmId = vms.nextSetBit(0); vmId >= 0; vmId = vms.nextSetBit(vmId + 1)) {
+            list.add(Integer.toString(vmId));
+        }
+        return list;
     }
 
     /**
@@ -118,12 +215,131 @@ public class ReplicaCatalog {
      * @param storage , the storage associated with this file
      */
     public static void addFileToStorage(String file, String storage) {
-        if (!dataReplicaCatalog.containsKey(file)) {
-            dataReplicaCatalog.put(file, new ArrayList<>());
+        State state = state();
+        int fileId = internFile(file);
+        int siteId = internSite(storage);
+        state.fileSites.get(fileId).set(siteId);
+        state.siteFiles.get(siteId).set(fileId);
+    }
+
+    /**
+     * Adds a file to the local storage of a VM
+     *
+     * @param file the file name
+     * @param vmId the VM id
+     */
+    public static void addFileToVm(String file, int vmId) {
+        State state = state();
+        int fileId = internFile(file);
+        state.fileVms.get(fileId).set(vmId);
+        while (state.vmFiles.size() <= vmId) {
+            state.vmFiles.add(new BitSet());
+        }
+        state.vmFiles.get(vmId).set(fileId);
+    }
+
+    /**
+     * Checks whether a file has been stored somewhere
+     *
+     * @param fileId the file id, may be -1
+     * @return whether the file has a replica
+     */
+    public static boolean hasReplica(int fileId) {
+        State state = state();
+        return fileId >= 0 && (!state.fileSites.get(fileId).isEmpty() || !state.fileVms.get(fileId).isEmpty());
+    }
+
+    /**
+     * Checks whether a file is on a named site
+     *
+     * @param fileId the file id, may be -1
+     * @param site the site name
+     * @return whether the file is on the site
+     */
+    public static boolean isFileAtSite(int fileId, String site) {
+        State state = state();
+        Integer siteId = state.siteIds.get(site);
+        return fileId >= 0 && siteId != null && state.fileSites.get(fileId).get(siteId);
+    }
+
+    /**
+     * Checks whether a file is on a VM
+     *
+     * @param fileId the file id, may be -1
+     * @param vmId the VM id
+     * @return whether the file is on the VM
+     */
+    public static boolean isFileOnVm(int fileId, int vmId) {
+        return fileId >= 0 && vmId >= 0 && state().fileVms.get(fileId).get(vmId);
+    }
+
+    /**
+     * Gets the VMs a file is on
+     *
+     * @param fileId the file id
+     * @return the VM ids, as a read-only bitset
+     */
+    public static BitSet getVmsOfFile(int fileId) {
+        return state().fileVms.get(fileId);
+    }
+
+    /**
+     * Gets the files on a VM
+     *
+     * @param vmId the VM id
+     * @return the file ids, as a read-only bitset
+     */
+    public static BitSet getFilesOnVm(int vmId) {
+        State state = state();
+        return vmId < state.vmFiles.size() ? state.vmFiles.get(vmId) : new BitSet();
+    }
+
+    /**
+     * Gets the files on a named site
+     *
+     * @param site the site name
+     * @return the file ids, as a read-only bitset
+     */
+    public static BitSet getFilesAtSite(String site) {
+        State state = state();
+        Integer siteId = state.siteIds.get(site);
+        return siteId == null ? new BitSet() : state.siteFiles.get(siteId);
+    }
+
+    /**
+     * Gets the id of a file, interning its name if needed
+     *
+     * @param file the file name
+     * @return the file id
+     */
+    private static int internFile(String file) {
+        State state = state();
+        Integer id = state.fileIds.get(file);
+        if (id == null) {
+            id = state.fileNames.size();
+            state.fileIds.put(file, id);
+            state.fileNames.add(file);
+            state.fileSites.add(new BitSet());
+            state.fileVms.add(new BitSet());
         }
-        List<String> list = getStorageList(file);
-        if (!list.contains(storage)) {
-            list.add(storage);
+        return id;
+    }
+
+    /**
+     * Gets the id of a named site, interning its name if needed
+     *
+     * @param site the site name
+     * @return the site id
+     */
+    private static int internSite(String site) {
+        State state = state();
+        Integer id = state.siteIds.get(site);
+        if (id == null) {
+            id = state.siteNames.size();
+            state.siteIds.put(site, id);
+            state.siteNames.add(site);
+            state.siteFiles.add(new BitSet());
         }
+        return id;
     }
 }